@@ -0,0 +1,23 @@
+package aditi.wing.ecom.api.common.middleware;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+/**
+ * The caller of the current request, built once from the verified access
+ * token by {@link JwtAuthenticationFilter} and stored as the principal of the
+ * Spring Security authentication. Declare it as a controller method parameter
+ * to have it injected (see {@link AuthenticatedUserArgumentResolver}).
+ *
+ * Its name is the email, so handlers still taking a plain
+ * {@code java.security.Principal} keep seeing the email from getName().
+ */
+public record AuthenticatedUser(UUID userId, String email, List<String> roles) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -1,7 +1,9 @@
 package aditi.wing.ecom.api.common.middleware;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -11,6 +13,7 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -32,7 +35,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Extract JWT token from Authorization header
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String userEmail;
 
         // If no token or invalid format, continue without authentication
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -43,39 +45,51 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Extract token (remove "Bearer " prefix)
         jwt = authHeader.substring(7);
 
-        try {
-            // Validate token
-            if (!jwtMiddleware.validateJwtToken(jwt)) {
-                filterChain.doFilter(request, response);
-                return;
-            }
-
-            // Extract user email and roles from token
-            userEmail = jwtMiddleware.getEmailFromToken(jwt);
-            List<String> roles = jwtMiddleware.getRolesFromToken(jwt);
-
-            // If user is not already authenticated, set authentication
-            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                // Convert role names to GrantedAuthority objects
-                List<SimpleGrantedAuthority> authorities = roles.stream()
-                        .map(role -> new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()))
-                        .collect(Collectors.toList());
-
-                // Create authentication token
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userEmail,
-                        null,
-                        authorities);
-
-                // Set additional details
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-                // Set authentication in security context
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
-        } catch (ServletException | IOException e) {
-            // Log error and continue without authentication
-            System.err.println("JWT authentication error: " + e.getMessage());
+        // Verify once; the claims are kept on the request for JwtUtil
+        Optional<Claims> verified = jwtMiddleware.verify(jwt);
+        if (verified.isEmpty()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        Claims claims = verified.get();
+
+        // Refresh tokens only serve to obtain new access tokens
+        if (JwtMiddleware.isRefreshToken(claims)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        request.setAttribute(JwtMiddleware.CLAIMS_ATTRIBUTE, claims);
+
+        // Extract user ID, email and roles from token (current roles if they changed since)
+        AuthenticatedUser user = new AuthenticatedUser(
+                JwtMiddleware.getUserId(claims),
+                claims.getSubject(),
+                jwtMiddleware.getCurrentRoles(claims));
+
+        // If user is not already authenticated, set authentication
+        if (user.userId() != null && user.email() != null
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            // Convert role names to GrantedAuthority objects
+            List<SimpleGrantedAuthority> authorities = user.roles().stream()
+                    .map(role -> new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()))
+                    .collect(Collectors.toCollection(ArrayList::new));
+
+            // Permissions as plain authorities for hasAuthority('products.create'), from the token
+            jwtMiddleware.getPermissions(claims).stream()
+                    .map(SimpleGrantedAuthority::new)
+                    .forEach(authorities::add);
+
+            // Create authentication token with the typed principal
+            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                    user,
+                    null,
+                    authorities);
+
+            // Set additional details
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+            // Set authentication in security context
+            SecurityContextHolder.getContext().setAuthentication(authToken);
         }
 
         // Continue filter chain
@@ -0,0 +1,108 @@
+package aditi.wing.ecom.api.common.middleware;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+
+import io.jsonwebtoken.Jwts;
+
+/**
+ * Loads the JWT keys from PEM files (PKCS#8 private key, X.509 public key).
+ * RSA, EC P-256 and Ed25519 keys are accepted; the signing algorithm follows
+ * from the key type (see {@link JwtKeys}).
+ *
+ * To roll over, point the key paths at the new pair and list the old public
+ * key under app.security.jwt.previous-public-key-paths until the tokens it
+ * signed have expired.
+ */
+@Configuration
+public class JwtKeyConfig {
+
+    // Key types tried in turn; the PEM itself doesn't say which one it holds
+    private static final List<String> KEY_TYPES = List.of("RSA", "EC", "Ed25519");
+
+    @Value("${app.security.jwt.private-key-path:${app.security.rsa.private-key-path:classpath:private.pem}}")
+    private Resource privateKeyResource;
+
+    @Value("${app.security.jwt.public-key-path:${app.security.rsa.public-key-path:classpath:public.pem}}")
+    private Resource publicKeyResource;
+
+    @Value("${app.security.jwt.previous-public-key-paths:}")
+    private List<Resource> previousPublicKeyResources;
+
+    @Bean
+    public JwtKeys jwtKeys() throws Exception {
+        PrivateKey privateKey = parsePrivateKey(read(privateKeyResource));
+        PublicKey publicKey = parsePublicKey(read(publicKeyResource));
+
+        List<PublicKey> previousKeys = new ArrayList<>();
+        for (Resource resource : previousPublicKeyResources) {
+            previousKeys.add(parsePublicKey(read(resource)));
+        }
+
+        JwtKeys keys = new JwtKeys(privateKey, publicKey, previousKeys);
+        checkKeyPair(keys, publicKey);
+        return keys;
+    }
+
+    // Fail at startup rather than issue tokens nobody can verify
+    private void checkKeyPair(JwtKeys keys, PublicKey publicKey) {
+        String probe = Jwts.builder()
+                .subject("key-check")
+                .signWith(keys.getSigningKey(), keys.getAlgorithm())
+                .compact();
+        try {
+            Jwts.parser().verifyWith(publicKey).build().parseSignedClaims(probe);
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("JWT private and public keys do not form a pair", e);
+        }
+    }
+
+    private String read(Resource resource) throws Exception {
+        return new String(resource.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    private PrivateKey parsePrivateKey(String pem) throws GeneralSecurityException {
+        PKCS8EncodedKeySpec spec = new PKCS8EncodedKeySpec(decodePem(pem));
+        for (String type : KEY_TYPES) {
+            try {
+                return KeyFactory.getInstance(type).generatePrivate(spec);
+            } catch (GeneralSecurityException e) {
+                // Not this key type
+            }
+        }
+        throw new GeneralSecurityException("Unsupported private key, expected PKCS#8 RSA, EC or Ed25519");
+    }
+
+    private PublicKey parsePublicKey(String pem) throws GeneralSecurityException {
+        X509EncodedKeySpec spec = new X509EncodedKeySpec(decodePem(pem));
+        for (String type : KEY_TYPES) {
+            try {
+                return KeyFactory.getInstance(type).generatePublic(spec);
+            } catch (GeneralSecurityException e) {
+                // Not this key type
+            }
+        }
+        throw new GeneralSecurityException("Unsupported public key, expected X.509 RSA, EC or Ed25519");
+    }
+
+    private byte[] decodePem(String pem) {
+        String content = pem
+                .replaceAll("-----BEGIN (.*)-----", "")
+                .replaceAll("-----END (.*)-----", "")
+                .replaceAll("\\s+", "");
+        return Base64.getDecoder().decode(content);
+    }
+}
@@ -0,0 +1,104 @@
+package aditi.wing.ecom.api.common.middleware;
+
+import java.security.Key;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECKey;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+
+/**
+ * Keys used to sign and verify JWTs.
+ *
+ * Tokens are signed with one active key. The algorithm follows from the key
+ * type: RS512 for RSA, ES256 for EC P-256 and EdDSA for Ed25519. Every token
+ * carries a kid header, the RFC 7638 thumbprint of the signing public key.
+ * Verification looks the kid up among the active key and any previous public
+ * keys still accepted, so the signing key can be rolled over without logging
+ * anyone out. Tokens issued before kids were added verify against a key with
+ * the algorithm named in their header.
+ */
+public class JwtKeys extends LocatorAdapter<Key> {
+
+    private final String signingKeyId;
+    private final PrivateKey signingKey;
+    private final SignatureAlgorithm algorithm;
+    private final Map<String, PublicKey> verificationKeys;
+
+    /**
+     * @param signingKey   private key of the active key pair
+     * @param publicKey    public key of the active key pair
+     * @param previousKeys public keys of retired key pairs whose tokens are
+     *                     still accepted
+     */
+    public JwtKeys(PrivateKey signingKey, PublicKey publicKey, List<PublicKey> previousKeys) {
+        this.signingKey = signingKey;
+        this.algorithm = algorithmFor(publicKey);
+        this.signingKeyId = keyId(publicKey);
+
+        Map<String, PublicKey> keys = new LinkedHashMap<>();
+        keys.put(signingKeyId, publicKey);
+        previousKeys.forEach(key -> keys.putIfAbsent(keyId(key), key));
+        this.verificationKeys = Collections.unmodifiableMap(keys);
+    }
+
+    public String getSigningKeyId() {
+        return signingKeyId;
+    }
+
+    public PrivateKey getSigningKey() {
+        return signingKey;
+    }
+
+    public SignatureAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public Map<String, PublicKey> getVerificationKeys() {
+        return verificationKeys;
+    }
+
+    @Override
+    protected Key locate(ProtectedHeader header) {
+        String keyId = header.getKeyId();
+        if (keyId != null) {
+            // Unknown kid: jjwt rejects the token when no key is found
+            return verificationKeys.get(keyId);
+        }
+        return verificationKeys.values().stream()
+                .filter(key -> algorithmFor(key).getId().equals(header.getAlgorithm()))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * JWS algorithm for a key: RS512 for RSA, ES256 for EC P-256, EdDSA for
+     * Ed25519/Ed448.
+     */
+    public static SignatureAlgorithm algorithmFor(Key key) {
+        return switch (key.getAlgorithm()) {
+            case "RSA" -> Jwts.SIG.RS512;
+            case "EC" -> {
+                int fieldSize = ((ECKey) key).getParams().getCurve().getField().getFieldSize();
+                if (fieldSize != 256) {
+                    throw new IllegalArgumentException("Only P-256 EC keys are supported, got " + fieldSize + " bits");
+                }
+                yield Jwts.SIG.ES256;
+            }
+            case "EdDSA", "Ed25519", "Ed448" -> Jwts.SIG.EdDSA;
+            default -> throw new IllegalArgumentException("Unsupported JWT key type: " + key.getAlgorithm());
+        };
+    }
+
+    public static String keyId(PublicKey key) {
+        return Jwks.builder().key(key).build().thumbprint().toString();
+    }
+}
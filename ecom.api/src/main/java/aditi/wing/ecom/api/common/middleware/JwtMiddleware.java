@@ -1,7 +1,6 @@
 package aditi.wing.ecom.api.common.middleware;
 
-import java.security.PrivateKey;
-import java.security.PublicKey;
+import java.time.Instant;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
@@ -11,74 +10,146 @@ import java.util.UUID;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import aditi.wing.ecom.api.common.middleware.TokenFailureRecorder.Reason;
 import aditi.wing.ecom.api.domain.auth.model.User;
 import aditi.wing.ecom.api.domain.auth.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import aditi.wing.ecom.api.domain.auth.service.PermissionCatalog;
+import aditi.wing.ecom.api.domain.auth.service.TokenDenylist;
+import aditi.wing.ecom.api.domain.auth.service.UserRoleCache;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
 
 @Service
-@RequiredArgsConstructor
 public class JwtMiddleware {
 
-    private final PrivateKey privateKey;
-    private final PublicKey publicKey;
+    /**
+     * Request attribute holding the {@link Claims} verified by
+     * {@link JwtAuthenticationFilter}, so later code doesn't parse the token again.
+     */
+    public static final String CLAIMS_ATTRIBUTE = JwtMiddleware.class.getName() + ".claims";
+
+    private final JwtKeys keys;
     private final UserRepository userRepository;
+    private final VerifiedClaimsCache claimsCache;
+    private final TokenDenylist denylist;
+    private final PermissionCatalog permissionCatalog;
+    private final UserRoleCache userRoleCache;
+    private final TokenFailureRecorder failures;
+
+    // Thread-safe and immutable, built once instead of per call
+    private final JwtParser jwtParser;
 
     @Value("${jwt.expiration}")
     private int jwtExpirationMs;
 
-    @Value("${jwt.refresh.expiration}")
-    private int jwtRefreshExpirationMs;
+    public JwtMiddleware(JwtKeys keys, UserRepository userRepository, VerifiedClaimsCache claimsCache,
+            TokenDenylist denylist, PermissionCatalog permissionCatalog, UserRoleCache userRoleCache,
+            TokenFailureRecorder failures) {
+        this.keys = keys;
+        this.userRepository = userRepository;
+        this.claimsCache = claimsCache;
+        this.denylist = denylist;
+        this.permissionCatalog = permissionCatalog;
+        this.userRoleCache = userRoleCache;
+        this.failures = failures;
+        this.jwtParser = Jwts.parser()
+                .keyLocator(keys)
+                .build();
+    }
 
-    // Generate JWT token with RSA512
-    public String generateToken(String email, UUID userId, Set<String> roles) {
+    // Generate JWT token signed with the active key (RS512, ES256 or EdDSA)
+    // Permissions travel as a bitset over the permission catalog ("perms", "pv")
+    public String generateToken(String email, UUID userId, Set<String> roles, Set<String> permissions) {
+        PermissionCatalog.Encoded encodedPermissions = permissionCatalog.encode(permissions);
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(email)
                 .claim("email", email)
                 .claim("userId", userId.toString())
                 .claim("roles", roles)
+                .claim("perms", encodedPermissions.bits())
+                .claim("pv", encodedPermissions.version())
                 .issuedAt(new Date())
                 .expiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(privateKey, Jwts.SIG.RS512)
+                .header().keyId(keys.getSigningKeyId()).and()
+                .signWith(keys.getSigningKey(), keys.getAlgorithm())
                 .compact();
     }
 
-    // Generate refresh token with longer expiration
-    public String generateRefreshToken(String email) {
+    /**
+     * Generate a refresh token. Its ID, family and expiry are chosen by the
+     * caller, which records them to allow exactly one exchange.
+     */
+    public String generateRefreshToken(String email, UUID userId, UUID tokenId, UUID familyId, Instant expiresAt) {
         return Jwts.builder()
+                .id(tokenId.toString())
                 .subject(email)
                 .claim("email", email)
+                .claim("userId", userId.toString())
+                .claim("fid", familyId.toString())
                 .claim("type", "refresh")
                 .issuedAt(new Date())
-                .expiration(new Date((new Date()).getTime() + jwtRefreshExpirationMs))
-                .signWith(privateKey, Jwts.SIG.RS512)
+                .expiration(Date.from(expiresAt))
+                .header().keyId(keys.getSigningKeyId()).and()
+                .signWith(keys.getSigningKey(), keys.getAlgorithm())
                 .compact();
     }
 
+    /**
+     * Verify the token and return its claims, or empty when it is invalid,
+     * expired or revoked. The signature is checked once per distinct token;
+     * later calls are answered from {@link VerifiedClaimsCache} until the token
+     * expires. The revocation check runs every time.
+     */
+    public Optional<Claims> verify(String token) {
+        Claims claims = claimsCache.get(token);
+        if (claims == null) {
+            claims = parse(token);
+            if (claims == null) {
+                return Optional.empty();
+            }
+            claimsCache.put(token, claims);
+        }
+        if (denylist.isRevoked(claims)) {
+            failures.record(Reason.REVOKED, "jti " + claims.getId());
+            return Optional.empty();
+        }
+        return Optional.of(claims);
+    }
+
+    private Claims parse(String token) {
+        try {
+            return jwtParser.parseSignedClaims(token).getPayload();
+        } catch (SecurityException | io.jsonwebtoken.security.SecurityException e) {
+            failures.record(Reason.BAD_SIGNATURE, e.getMessage());
+        } catch (MalformedJwtException e) {
+            failures.record(Reason.MALFORMED, e.getMessage());
+        } catch (ExpiredJwtException e) {
+            failures.record(Reason.EXPIRED, e.getMessage());
+        } catch (UnsupportedJwtException e) {
+            failures.record(Reason.UNSUPPORTED, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            failures.record(Reason.EMPTY, e.getMessage());
+        } catch (JwtException e) {
+            failures.record(Reason.INVALID, e.getMessage());
+        }
+        return null;
+    }
+
     // Get email from JWT token
     public String getEmailFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(publicKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+        return verify(token).map(Claims::getSubject).orElse(null);
     }
 
     // Get user UUID from JWT token
     public UUID getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(publicKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        String userId = claims.get("userId", String.class);
-        return userId != null ? UUID.fromString(userId) : null;
+        return verify(token).map(JwtMiddleware::getUserId).orElse(null);
     }
 
     // Get full User entity from JWT token
@@ -91,35 +162,60 @@ public class JwtMiddleware {
     }
 
     // Get roles from JWT token
-    @SuppressWarnings("unchecked")
     public List<String> getRolesFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(publicKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return claims.get("roles", List.class);
+        return verify(token).map(JwtMiddleware::getRoles).orElse(List.of());
     }
 
     // Validate JWT token
     public boolean validateJwtToken(String token) {
-        try {
-            Jwts.parser()
-                    .verifyWith(publicKey)
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (SecurityException e) {
-            System.out.println("Invalid JWT signature: " + e.getMessage());
-        } catch (MalformedJwtException e) {
-            System.out.println("Invalid JWT token: " + e.getMessage());
-        } catch (ExpiredJwtException e) {
-            System.out.println("JWT token is expired: " + e.getMessage());
-        } catch (UnsupportedJwtException e) {
-            System.out.println("JWT token is unsupported: " + e.getMessage());
-        } catch (IllegalArgumentException e) {
-            System.out.println("JWT claims string is empty: " + e.getMessage());
+        return verify(token).isPresent();
+    }
+
+    public static boolean isRefreshToken(Claims claims) {
+        return "refresh".equals(claims.get("type", String.class));
+    }
+
+    public static UUID getUserId(Claims claims) {
+        String userId = claims.get("userId", String.class);
+        return userId != null ? UUID.fromString(userId) : null;
+    }
+
+    /**
+     * Role names of an access token, or the user's current role names when
+     * they changed after the token was issued.
+     */
+    public List<String> getCurrentRoles(Claims claims) {
+        UUID userId = getUserId(claims);
+        if (userId != null && rolesChangedSinceIssue(userId, claims)) {
+            return List.copyOf(userRoleCache.roleNames(userId));
+        }
+        return getRoles(claims);
+    }
+
+    /**
+     * Permission names of an access token, resolved in memory: from its bitset,
+     * or from its roles when the token predates the current permission catalog
+     * or role grants, or from the user's current roles when those changed
+     * after the token was issued.
+     */
+    public Set<String> getPermissions(Claims claims) {
+        UUID userId = getUserId(claims);
+        if (userId != null && rolesChangedSinceIssue(userId, claims)) {
+            return userRoleCache.permissionNames(userRoleCache.roleNames(userId));
         }
-        return false;
+        return permissionCatalog.decode(claims.get("pv", String.class), claims.get("perms", String.class))
+                .orElseGet(() -> userRoleCache.permissionNames(getRoles(claims)));
+    }
+
+    private boolean rolesChangedSinceIssue(UUID userId, Claims claims) {
+        Date issuedAt = claims.getIssuedAt();
+        return userRoleCache.rolesChangedSince(userId, issuedAt != null ? issuedAt.toInstant() : null);
+    }
+
+    // Refresh tokens carry no roles
+    @SuppressWarnings("unchecked")
+    public static List<String> getRoles(Claims claims) {
+        List<String> roles = claims.get("roles", List.class);
+        return roles != null ? roles : List.of();
     }
 }
@@ -0,0 +1,85 @@
+package aditi.wing.ecom.api.common.middleware;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Counts rejected bearer tokens by reason without doing any I/O on the request
+ * thread, so a flood of expired or forged tokens costs a counter increment on
+ * top of the signature check.
+ *
+ * Totals are published as the auth.token.failures counter tagged with the
+ * reason (/actuator/metrics/auth.token.failures?tag=reason:expired). The log
+ * gets at most one line per reason every app.security.auth-failure-log.interval,
+ * written by the scheduler thread, with the count since the last line and one
+ * sample message.
+ */
+@Component
+@Slf4j
+public class TokenFailureRecorder {
+
+    private static final int MAX_SAMPLE_LENGTH = 200;
+
+    public enum Reason {
+        EXPIRED, BAD_SIGNATURE, MALFORMED, UNSUPPORTED, EMPTY, REVOKED, INVALID;
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+    }
+
+    private final Map<Reason, Counter> totals = new EnumMap<>(Reason.class);
+    private final Map<Reason, LongAdder> sinceLastLog = new EnumMap<>(Reason.class);
+    private final Map<Reason, AtomicReference<String>> samples = new EnumMap<>(Reason.class);
+
+    public TokenFailureRecorder(MeterRegistry meterRegistry) {
+        for (Reason reason : Reason.values()) {
+            totals.put(reason, Counter.builder("auth.token.failures")
+                    .description("Bearer tokens rejected, by reason")
+                    .tag("reason", reason.tag())
+                    .register(meterRegistry));
+            sinceLastLog.put(reason, new LongAdder());
+            samples.put(reason, new AtomicReference<>());
+        }
+    }
+
+    public void record(Reason reason, String message) {
+        totals.get(reason).increment();
+        sinceLastLog.get(reason).increment();
+        // Keep the first message of the interval; later ones are only counted
+        AtomicReference<String> sample = samples.get(reason);
+        if (sample.get() == null) {
+            sample.compareAndSet(null, message != null ? message : "");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.auth-failure-log.interval:10s}")
+    public void flush() {
+        for (Reason reason : Reason.values()) {
+            long count = sinceLastLog.get(reason).sumThenReset();
+            String sample = samples.get(reason).getAndSet(null);
+            if (count > 0) {
+                log.warn("event=auth.token.rejected reason={} count={} sample=\"{}\"",
+                        reason.tag(), count, truncate(sample));
+            }
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return "";
+        }
+        String line = message.replace('"', '\'').replace('\n', ' ');
+        return line.length() > MAX_SAMPLE_LENGTH ? line.substring(0, MAX_SAMPLE_LENGTH) + "..." : line;
+    }
+}
@@ -0,0 +1,73 @@
+package aditi.wing.ecom.api.common.middleware;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Date;
+import java.util.HexFormat;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Claims of tokens whose signature has already been verified, keyed by the
+ * SHA-256 of the compact token, so a client sending the same access token on
+ * every request pays for one RSA verification instead of one per request.
+ *
+ * Entries expire exactly when the token does, and only tokens that passed
+ * verification are ever put here. Metrics are published as cache.* meters
+ * tagged cache=jwt-claims.
+ */
+@Component
+public class VerifiedClaimsCache {
+
+    private final Cache<String, Claims> cache;
+
+    public VerifiedClaimsCache(
+            @Value("${jwt.claims-cache.max-size:10000}") long maxSize,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.creating((String key, Claims claims) -> untilExpiry(claims)))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt-claims");
+    }
+
+    public Claims get(String token) {
+        return cache.getIfPresent(hash(token));
+    }
+
+    /**
+     * Remember verified claims. Tokens without an expiration are not cached.
+     */
+    public void put(String token, Claims claims) {
+        if (claims.getExpiration() != null) {
+            cache.put(hash(token), claims);
+        }
+    }
+
+    private static Duration untilExpiry(Claims claims) {
+        Date expiration = claims.getExpiration();
+        long millis = expiration != null ? expiration.getTime() - System.currentTimeMillis() : 0;
+        return Duration.ofMillis(Math.max(0, millis));
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
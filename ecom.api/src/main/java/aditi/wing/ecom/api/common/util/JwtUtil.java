@@ -7,6 +7,7 @@ import org.springframework.stereotype.Component;
 
 import aditi.wing.ecom.api.common.middleware.JwtMiddleware;
 import aditi.wing.ecom.api.domain.auth.model.User;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 
@@ -40,11 +41,7 @@ public class JwtUtil {
      * @return user email or null if token not present or invalid
      */
     public String getEmailFromRequest(HttpServletRequest request) {
-        String token = extractTokenFromRequest(request);
-        if (token != null && jwtMiddleware.validateJwtToken(token)) {
-            return jwtMiddleware.getEmailFromToken(token);
-        }
-        return null;
+        return getClaimsFromRequest(request).map(Claims::getSubject).orElse(null);
     }
 
     /**
@@ -54,11 +51,7 @@ public class JwtUtil {
      * @return user UUID or null if token not present or invalid
      */
     public UUID getUserIdFromRequest(HttpServletRequest request) {
-        String token = extractTokenFromRequest(request);
-        if (token != null && jwtMiddleware.validateJwtToken(token)) {
-            return jwtMiddleware.getUserIdFromToken(token);
-        }
-        return null;
+        return getClaimsFromRequest(request).map(JwtMiddleware::getUserId).orElse(null);
     }
 
     /**
@@ -74,4 +67,22 @@ public class JwtUtil {
         }
         return Optional.empty();
     }
+
+    /**
+     * Get verified access token claims for the current request: the ones
+     * stored by the authentication filter, or the token is verified now
+     * 
+     * @param request HTTP request
+     * @return Optional containing the claims, empty if token not present,
+     *         invalid or a refresh token
+     */
+    public Optional<Claims> getClaimsFromRequest(HttpServletRequest request) {
+        if (request.getAttribute(JwtMiddleware.CLAIMS_ATTRIBUTE) instanceof Claims claims) {
+            return Optional.of(claims);
+        }
+        String token = extractTokenFromRequest(request);
+        return token != null
+                ? jwtMiddleware.verify(token).filter(claims -> !JwtMiddleware.isRefreshToken(claims))
+                : Optional.empty();
+    }
 }
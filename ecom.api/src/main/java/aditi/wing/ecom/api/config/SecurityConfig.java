@@ -1,15 +1,16 @@
 package aditi.wing.ecom.api.config;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -18,10 +19,14 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import aditi.wing.ecom.api.common.middleware.JwtAuthenticationFilter;
+import aditi.wing.ecom.api.domain.auth.service.BoundedPasswordEncoder;
+import aditi.wing.ecom.api.domain.auth.service.PasswordEncoders;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 
 @Configuration
 @EnableWebSecurity
+@EnableMethodSecurity
 @RequiredArgsConstructor
 public class SecurityConfig {
 
@@ -34,6 +39,28 @@ public class SecurityConfig {
     @Value("${allowed.cors:http://localhost:3000}")
     private String allowedCors;
 
+    /**
+     * Password hashing: bcrypt, pbkdf2 or argon2 (needs BouncyCastle). Pick
+     * the cost with PasswordHashCalibrator on the production hardware.
+     */
+    @Value("${app.security.password-hashing.algorithm:pbkdf2}")
+    private String passwordHashAlgorithm;
+
+    @Value("${app.security.password-hashing.bcrypt.strength:12}")
+    private int bcryptStrength;
+
+    @Value("${app.security.password-hashing.pbkdf2.iterations:600000}")
+    private int pbkdf2Iterations;
+
+    @Value("${app.security.password-hashing.argon2.memory-kib:19456}")
+    private int argon2MemoryKib;
+
+    @Value("${app.security.password-hashing.argon2.iterations:2}")
+    private int argon2Iterations;
+
+    @Value("${app.security.password-hashing.argon2.parallelism:1}")
+    private int argon2Parallelism;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -42,13 +69,15 @@ public class SecurityConfig {
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS)) // No sessions, use JWT
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/api/auth/login", "/api/auth/register", "/api/auth/roles").permitAll() // Public
+                        .requestMatchers("/api/auth/login", "/api/auth/register", "/api/auth/roles", "/api/auth/refresh").permitAll() // Public
                         // auth
                         // endpoints
                         .requestMatchers("/api/public/**").permitAll() // Public endpoints
                         .requestMatchers("/api/products/**").permitAll() // Public product endpoints
                         .requestMatchers("/uploads/**").permitAll() // Uploaded product images
                         .requestMatchers("/api/admin/**").hasRole("ADMIN") // Admin only
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN") // Metrics
                         .requestMatchers("/api/auth/change-password").authenticated()
                         .requestMatchers("/api/auth/me/**").authenticated()
                         .requestMatchers("/api/addresses/**").authenticated()
@@ -87,8 +116,23 @@ public class SecurityConfig {
         return source;
     }
 
+    /**
+     * Stored hashes carry their algorithm, so changing
+     * app.security.password-hashing.algorithm or raising a cost is picked up
+     * by each user's next login. Hashing runs on its own bounded pool instead
+     * of the request threads.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+    public PasswordEncoder passwordEncoder(
+            MeterRegistry meterRegistry,
+            @Value("${app.security.password-hashing.threads:0}") int threads,
+            @Value("${app.security.password-hashing.queue-capacity:32}") int queueCapacity,
+            @Value("${app.security.password-hashing.max-wait:3s}") Duration maxWait) {
+        PasswordEncoder encoder = PasswordEncoders.delegating(passwordHashAlgorithm, new PasswordEncoders.Costs(
+                bcryptStrength, pbkdf2Iterations, argon2MemoryKib, argon2Iterations, argon2Parallelism));
+
+        // Default: half the cores, so a login flood cannot take the other half
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(encoder, poolSize, queueCapacity, maxWait, meterRegistry);
     }
 }
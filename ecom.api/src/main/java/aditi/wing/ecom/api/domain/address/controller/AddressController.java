@@ -1,18 +1,17 @@
 package aditi.wing.ecom.api.domain.address.controller;
 
+import aditi.wing.ecom.api.common.middleware.AuthenticatedUser;
 import aditi.wing.ecom.api.domain.address.dto.AddressRequest;
 import aditi.wing.ecom.api.domain.address.dto.AddressResponse;
 import aditi.wing.ecom.api.domain.address.service.AddressService;
 import aditi.wing.ecom.api.domain.auth.model.User;
 import aditi.wing.ecom.api.domain.auth.repository.UserRepository;
-import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.security.Principal;
 import java.util.List;
 import java.util.UUID;
 
@@ -26,27 +25,25 @@ public class AddressController {
 
     @PostMapping
     public ResponseEntity<AddressResponse> addAddress(
-            Principal principal,
+            AuthenticatedUser principal,
             @Valid @RequestBody AddressRequest addressRequest) {
 
-        User user = userRepository.findByEmail(principal.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = getUser(principal);
 
         AddressResponse newAddress = addressService.createAddress(user, addressRequest);
         return ResponseEntity.status(HttpStatus.CREATED).body(newAddress);
     }
 
     @GetMapping
-    public ResponseEntity<List<AddressResponse>> getMyAddresses(Principal principal) {
-        User user = userRepository.findByEmail(principal.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public ResponseEntity<List<AddressResponse>> getMyAddresses(AuthenticatedUser principal) {
+        User user = getUser(principal);
 
         return ResponseEntity.ok(addressService.getUserAddresses(user));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<AddressResponse> getAddressById(
-            Principal principal,
+            AuthenticatedUser principal,
             @PathVariable UUID id) {
         User user = getUser(principal);
         return ResponseEntity.ok(addressService.getAddressById(user, id));
@@ -54,7 +51,7 @@ public class AddressController {
 
     @PutMapping("/{id}")
     public ResponseEntity<AddressResponse> updateAddress(
-            Principal principal,
+            AuthenticatedUser principal,
             @PathVariable UUID id,
             @RequestBody @Valid AddressRequest request) {
         User user = getUser(principal);
@@ -63,15 +60,15 @@ public class AddressController {
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteAddress(
-            Principal principal,
+            AuthenticatedUser principal,
             @PathVariable UUID id) {
         User user = getUser(principal);
         addressService.deleteAddress(user, id);
         return ResponseEntity.noContent().build();
     }
 
-    private User getUser(Principal principal) {
-        return userRepository.findByEmail(principal.getName())
-                .orElseThrow(() -> new EntityNotFoundException("User not found"));
+    // Reference only: addresses are queried and linked by user ID, so no users row is read
+    private User getUser(AuthenticatedUser principal) {
+        return userRepository.getReferenceById(principal.userId());
     }
 }
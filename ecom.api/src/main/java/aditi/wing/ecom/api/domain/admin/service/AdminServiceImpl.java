@@ -3,9 +3,12 @@ package aditi.wing.ecom.api.domain.admin.service;
 import java.math.BigDecimal;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,12 +21,14 @@ import aditi.wing.ecom.api.domain.auth.model.User;
 import aditi.wing.ecom.api.domain.auth.repository.RoleRepository;
 import aditi.wing.ecom.api.domain.auth.repository.UserRepository;
 import aditi.wing.ecom.api.domain.auth.repository.UserRoleRepository;
+import aditi.wing.ecom.api.domain.auth.service.UserRoleCache;
 import aditi.wing.ecom.api.domain.orders.dto.OrderResponse;
 import aditi.wing.ecom.api.domain.orders.enums.OrderStatus;
 import aditi.wing.ecom.api.domain.orders.mapper.OrderMapper;
 import aditi.wing.ecom.api.domain.orders.model.Order;
 import aditi.wing.ecom.api.domain.orders.repository.OrderRepository;
 import aditi.wing.ecom.api.domain.seller.dto.ProductResponseDto;
+import aditi.wing.ecom.api.domain.seller.event.ProductChangedEvent;
 import aditi.wing.ecom.api.domain.seller.model.Product;
 import aditi.wing.ecom.api.domain.seller.repository.ProductRepository;
 import aditi.wing.ecom.api.domain.seller.repository.SaleRepository;
@@ -35,12 +40,14 @@ public class AdminServiceImpl implements AdminService {
 
     private final UserRepository userRepository;
     private final UserRoleRepository userRoleRepository;
+    private final UserRoleCache userRoleCache;
     private final RoleRepository roleRepository;
     private final ProductRepository productRepository;
     private final OrderRepository orderRepository;
     private final OrderMapper orderMapper;
     private final CategoryRepository categoryRepository;
     private final SaleRepository saleRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     // ── Dashboard ─────────────────────────────────────────────────
 
@@ -78,9 +85,11 @@ public class AdminServiceImpl implements AdminService {
     @Override
     @Transactional(readOnly = true)
     public List<AdminUserDto> getAllUsers() {
-        return userRepository.findAll()
-                .stream()
-                .map(this::toAdminUserDto)
+        List<User> users = userRepository.findAll();
+        // Roles of all users at once instead of one query per user
+        Map<UUID, Set<String>> roles = userRoleCache.roleNames(users.stream().map(User::getId).toList());
+        return users.stream()
+                .map(user -> toAdminUserDto(user, roles.get(user.getId())))
                 .collect(Collectors.toList());
     }
 
@@ -90,7 +99,8 @@ public class AdminServiceImpl implements AdminService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found: " + userId));
         user.setActive(active);
-        return toAdminUserDto(userRepository.save(user));
+        User saved = userRepository.save(user);
+        return toAdminUserDto(saved, userRoleCache.roleNames(saved.getId()));
     }
 
     @Override
@@ -121,6 +131,7 @@ public class AdminServiceImpl implements AdminService {
             throw new RuntimeException("Product not found: " + productId);
         }
         productRepository.deleteById(productId);
+        eventPublisher.publishEvent(ProductChangedEvent.of(productId));
     }
 
     // ── Order management ──────────────────────────────────────────
@@ -188,8 +199,7 @@ public class AdminServiceImpl implements AdminService {
 
     // ── Mappers ───────────────────────────────────────────────────
 
-    private AdminUserDto toAdminUserDto(User user) {
-        List<String> roleNames = userRoleRepository.findRoleNamesByUserId(user.getId());
+    private AdminUserDto toAdminUserDto(User user, Set<String> roleNames) {
         AdminUserDto dto = new AdminUserDto();
         dto.setId(user.getId());
         dto.setEmail(user.getEmail());
@@ -8,6 +8,7 @@ import aditi.wing.ecom.api.domain.auth.dto.*;
 import aditi.wing.ecom.api.domain.auth.model.User;
 import aditi.wing.ecom.api.domain.auth.repository.UserRepository;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -20,8 +21,13 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import aditi.wing.ecom.api.common.middleware.AuthenticatedUser;
 import aditi.wing.ecom.api.common.util.JwtUtil;
+import aditi.wing.ecom.api.domain.auth.exception.TooManyRequestsException;
 import aditi.wing.ecom.api.domain.auth.service.AuthService;
+import aditi.wing.ecom.api.domain.auth.service.LoginThrottle;
+import aditi.wing.ecom.api.domain.auth.service.TokenDenylist;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 
@@ -34,13 +40,15 @@ public class AuthController {
     private final AuthService authService;
     private final UserRepository userRepository;
     private final JwtUtil jwtUtil;
+    private final TokenDenylist tokenDenylist;
+    private final LoginThrottle loginThrottle;
 
     /**
      * Login endpoint
      * POST /api/auth/login
      */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequestDto loginRequest) {
+    public ResponseEntity<?> login(@RequestBody LoginRequestDto loginRequest, HttpServletRequest request) {
         try {
             // Validate input
             if (loginRequest.getEmail() == null || loginRequest.getEmail().trim().isEmpty()) {
@@ -50,8 +58,11 @@ public class AuthController {
                 return ResponseEntity.badRequest().body(new ErrorResponse("Password is required"));
             }
 
+            loginThrottle.acquire(request.getRemoteAddr(), loginRequest.getEmail());
             LoginResponseDto response = authService.login(loginRequest);
             return ResponseEntity.ok(response);
+        } catch (TooManyRequestsException e) {
+            return tooManyRequests(e);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(new ErrorResponse(e.getMessage()));
@@ -63,10 +74,13 @@ public class AuthController {
      * POST /api/auth/register
      */
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody RegisterRequestDto registerRequest) {
+    public ResponseEntity<?> register(@RequestBody RegisterRequestDto registerRequest, HttpServletRequest request) {
         try {
+            loginThrottle.acquire(request.getRemoteAddr(), null);
             LoginResponseDto response = authService.register(registerRequest);
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (TooManyRequestsException e) {
+            return tooManyRequests(e);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(new ErrorResponse(e.getMessage()));
@@ -77,33 +91,75 @@ public class AuthController {
     private record ErrorResponse(String message) {
     }
 
+    // 429 with the number of seconds the client should wait
+    private ResponseEntity<ErrorResponse> tooManyRequests(TooManyRequestsException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.getRetryAfter().toSeconds())))
+                .body(new ErrorResponse(e.getMessage()));
+    }
+
     // Logout response class
     private record LogoutResponse(String message, String details) {
     }
 
     /**
-     * Logout endpoint - Invalidate token
+     * Refresh endpoint - Rotate refresh token
+     * POST /api/auth/refresh
+     * Returns a new access token and a new refresh token; the one sent is used
+     * up. Sending a used refresh token again ends the whole session.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody RefreshTokenRequestDto refreshRequest) {
+        try {
+            if (refreshRequest.getRefreshToken() == null || refreshRequest.getRefreshToken().isBlank()) {
+                return ResponseEntity.badRequest().body(new ErrorResponse("Refresh token is required"));
+            }
+
+            LoginResponseDto response = authService.refresh(refreshRequest.getRefreshToken());
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * Logout endpoint - Revoke token
      * POST /api/auth/logout
-     * Note: JWT tokens are stateless. Client should discard the token.
-     * In production, consider implementing a token blacklist with Redis.
+     * The access token is denied until it expires, on every API node within
+     * app.security.revocation.sync-interval. Clients should still discard it.
+     * When the refresh token is sent as well, its session is ended too.
      */
     @PostMapping("/logout")
-    public ResponseEntity<?> logout(HttpServletRequest request) {
+    public ResponseEntity<?> logout(
+            HttpServletRequest request,
+            @RequestBody(required = false) RefreshTokenRequestDto logoutRequest) {
         try {
-            // Extract token from request to validate it exists
-            String token = jwtUtil.extractTokenFromRequest(request);
+            // Claims of the token already verified by the authentication filter
+            Claims claims = jwtUtil.getClaimsFromRequest(request).orElse(null);
 
-            if (token == null) {
+            if (claims == null) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body(new ErrorResponse("No token provided"));
             }
 
-            // TODO: In production, add token to blacklist (e.g., Redis) for invalidation
-            // For now, client should discard the token on their end
+            if (logoutRequest != null && logoutRequest.getRefreshToken() != null) {
+                try {
+                    authService.revokeRefreshToken(logoutRequest.getRefreshToken());
+                } catch (RuntimeException e) {
+                    // Invalid or expired refresh token: nothing left to end
+                }
+            }
+
+            if (!tokenDenylist.revoke(claims)) {
+                return ResponseEntity.ok(new LogoutResponse(
+                        "Logout successful",
+                        "Token predates revocation support and stays valid until it expires. Please discard it."));
+            }
 
             return ResponseEntity.ok(new LogoutResponse(
                     "Logout successful",
-                    "Token has been invalidated. Please discard the token on client side."));
+                    "Token has been revoked."));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ErrorResponse("Logout failed: " + e.getMessage()));
@@ -113,20 +169,12 @@ public class AuthController {
     /**
      * Get current user profile
      * GET /api/auth/me
-     * Extracts user information from JWT token in Authorization header
+     * The user is identified by the authenticated principal
      */
     @GetMapping("/me")
-    public ResponseEntity<?> getCurrentUser(HttpServletRequest request) {
+    public ResponseEntity<?> getCurrentUser(AuthenticatedUser user) {
         try {
-            // Extract user email from JWT token
-            String email = jwtUtil.getEmailFromRequest(request);
-
-            if (email == null) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(new ErrorResponse("Invalid or missing token"));
-            }
-
-            UserResponseDto response = authService.getUserByEmail(email);
+            UserResponseDto response = authService.getUserById(user.userId());
             return ResponseEntity.ok(response);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -150,11 +198,10 @@ public class AuthController {
 
     @PutMapping("/me")
     public ResponseEntity<UserResponseDto> updateSelf(
-            HttpServletRequest request,
+            AuthenticatedUser principal,
             @Valid @RequestBody UpdateProfileRequest updateDto) {
 
-        String email = jwtUtil.getEmailFromRequest(request);
-        User user = userRepository.findByEmail(email)
+        User user = userRepository.findById(principal.userId())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         // Pass the entity directly to the service
@@ -163,23 +210,21 @@ public class AuthController {
 
     @PutMapping("/change-password")
     public ResponseEntity<?> changePassword(
-            HttpServletRequest request,
-            @Valid @RequestBody ChangePasswordRequest passwordRequest) {
+            AuthenticatedUser principal,
+            @Valid @RequestBody ChangePasswordRequest passwordRequest,
+            HttpServletRequest request) {
 
         try {
-            String email = jwtUtil.getEmailFromRequest(request);
-            if (email == null) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(Map.of("message", "Invalid or missing token"));
-            }
-
-            User user = userRepository.findByEmail(email)
+            loginThrottle.acquire(request.getRemoteAddr(), principal.email());
+            User user = userRepository.findById(principal.userId())
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
             authService.changePassword(user, passwordRequest);
 
             return ResponseEntity.ok(Map.of("message", "Password changed successfully"));
 
+        } catch (TooManyRequestsException e) {
+            return tooManyRequests(e);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         } catch (Exception e) {
@@ -2,8 +2,12 @@ package aditi.wing.ecom.api.domain.auth.dto;
 
 import lombok.Data;
 
+import java.util.UUID;
+
 @Data
 public class LoginRequestDto {
     private String email;
     private String passwordHash;
+    // Session ID of the guest cart to merge into the user's cart, if any
+    private UUID guestCartId;
 }
@@ -0,0 +1,8 @@
+package aditi.wing.ecom.api.domain.auth.dto;
+
+import lombok.Data;
+
+@Data
+public class RefreshTokenRequestDto {
+    private String refreshToken;
+}
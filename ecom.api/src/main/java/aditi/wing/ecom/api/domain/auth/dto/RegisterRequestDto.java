@@ -13,4 +13,7 @@ public class RegisterRequestDto {
     private String phone;
 
     private UUID roleId;
+
+    // Session ID of the guest cart to merge into the new user's cart, if any
+    private UUID guestCartId;
 }
@@ -0,0 +1,30 @@
+package aditi.wing.ecom.api.domain.auth.event;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import aditi.wing.ecom.api.domain.auth.model.UserRole;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Turns every change to a {@link UserRole} entity into a
+ * {@link UserRolesChangedEvent}, so no code path that assigns or removes a
+ * role can forget to. JPQL bulk updates bypass entity callbacks and must
+ * publish the event themselves.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserRoleEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(UserRole userRole) {
+        eventPublisher.publishEvent(new UserRolesChangedEvent(userRole.getUserId()));
+    }
+}
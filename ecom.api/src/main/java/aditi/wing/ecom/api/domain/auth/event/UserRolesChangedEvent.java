@@ -0,0 +1,10 @@
+package aditi.wing.ecom.api.domain.auth.event;
+
+import java.util.UUID;
+
+/**
+ * Published whenever a user_roles row of the user is created, updated or
+ * deleted. Listeners reload the user's roles themselves.
+ */
+public record UserRolesChangedEvent(UUID userId) {
+}
@@ -0,0 +1,20 @@
+package aditi.wing.ecom.api.domain.auth.exception;
+
+import java.time.Duration;
+
+import lombok.Getter;
+
+/**
+ * The request was refused before doing any work: the caller is throttled or
+ * password hashing is saturated. Controllers answer 429 with Retry-After.
+ */
+@Getter
+public class TooManyRequestsException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public TooManyRequestsException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
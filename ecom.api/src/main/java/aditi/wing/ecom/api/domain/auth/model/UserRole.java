@@ -4,8 +4,10 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 import aditi.wing.ecom.api.common.base.IdBasedModel;
+import aditi.wing.ecom.api.domain.auth.event.UserRoleEntityListener;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
@@ -24,6 +26,7 @@ import lombok.Setter;
 @Builder
 @Entity
 @Table(name = "user_roles")
+@EntityListeners(UserRoleEntityListener.class)
 public class UserRole extends IdBasedModel {
 
     @Column(name = "user_id", nullable = false)
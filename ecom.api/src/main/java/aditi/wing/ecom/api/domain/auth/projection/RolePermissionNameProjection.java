@@ -0,0 +1,6 @@
+package aditi.wing.ecom.api.domain.auth.projection;
+
+public interface RolePermissionNameProjection {
+    String getRoleName();
+    String getPermissionName();
+}
@@ -0,0 +1,8 @@
+package aditi.wing.ecom.api.domain.auth.projection;
+
+import java.util.UUID;
+
+public interface UserRoleNameProjection {
+    UUID getUserId();
+    String getRoleName();
+}
@@ -44,4 +44,10 @@ public interface PermissionRepository extends JpaRepository<Permission, UUID> {
      */
     @Query("SELECT p FROM Permission p JOIN RolePermission rp ON p.id = rp.permissionId WHERE rp.roleId = :roleId")
     List<Permission> findByRoleId(@Param("roleId") UUID roleId);
+
+    /**
+     * Get the names of all permissions
+     */
+    @Query("SELECT p.name FROM Permission p")
+    List<String> findAllNames();
 }
@@ -10,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import aditi.wing.ecom.api.domain.auth.model.RolePermission;
+import aditi.wing.ecom.api.domain.auth.projection.RolePermissionNameProjection;
 
 @Repository
 public interface RolePermissionRepository extends JpaRepository<RolePermission, UUID> {
@@ -49,4 +50,12 @@ public interface RolePermissionRepository extends JpaRepository<RolePermission,
      */
     @Query("SELECT p.name FROM RolePermission rp JOIN Permission p ON rp.permissionId = p.id WHERE rp.roleId = :roleId")
     List<String> findPermissionNamesByRoleId(@Param("roleId") UUID roleId);
+
+    /**
+     * Get every role-permission pair by name
+     */
+    @Query("SELECT r.name AS roleName, p.name AS permissionName FROM RolePermission rp " +
+            "JOIN Role r ON rp.roleId = r.id " +
+            "JOIN Permission p ON rp.permissionId = p.id")
+    List<RolePermissionNameProjection> findAllRolePermissionNames();
 }
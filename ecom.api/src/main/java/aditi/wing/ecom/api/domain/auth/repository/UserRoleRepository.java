@@ -1,5 +1,6 @@
 package aditi.wing.ecom.api.domain.auth.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -10,6 +11,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import aditi.wing.ecom.api.domain.auth.model.UserRole;
+import aditi.wing.ecom.api.domain.auth.projection.UserRoleNameProjection;
 
 @Repository
 public interface UserRoleRepository extends JpaRepository<UserRole, UUID> {
@@ -58,4 +60,11 @@ public interface UserRoleRepository extends JpaRepository<UserRole, UUID> {
             "JOIN Permission p ON rp.permissionId = p.id " +
             "WHERE ur.userId = :userId")
     List<String> findPermissionNamesByUserId(@Param("userId") UUID userId);
+
+    /**
+     * Get role names of several users in one query
+     */
+    @Query("SELECT ur.userId AS userId, r.name AS roleName FROM UserRole ur " +
+            "JOIN Role r ON ur.roleId = r.id WHERE ur.userId IN :userIds")
+    List<UserRoleNameProjection> findRoleNamesByUserIdIn(@Param("userIds") Collection<UUID> userIds);
 }
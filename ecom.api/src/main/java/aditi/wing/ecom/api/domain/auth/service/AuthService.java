@@ -19,6 +19,16 @@ public interface AuthService {
      */
     LoginResponseDto register(RegisterRequestDto registerRequest);
 
+    /**
+     * Exchange a refresh token for new tokens (rotation with reuse detection)
+     */
+    LoginResponseDto refresh(String refreshToken);
+
+    /**
+     * Revoke the session of a refresh token
+     */
+    void revokeRefreshToken(String refreshToken);
+
     /**
      * Get user by ID with roles and permissions
      */
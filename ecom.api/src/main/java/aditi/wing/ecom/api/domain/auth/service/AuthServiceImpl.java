@@ -10,6 +10,7 @@ import jakarta.persistence.EntityNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import aditi.wing.ecom.api.common.middleware.JwtMiddleware;
 import aditi.wing.ecom.api.domain.auth.mapper.RoleMapper;
@@ -20,10 +21,13 @@ import aditi.wing.ecom.api.domain.auth.model.UserRole;
 import aditi.wing.ecom.api.domain.auth.repository.RoleRepository;
 import aditi.wing.ecom.api.domain.auth.repository.UserRepository;
 import aditi.wing.ecom.api.domain.auth.repository.UserRoleRepository;
+import aditi.wing.ecom.api.domain.cart.service.CartService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class AuthServiceImpl implements AuthService {
 
     private final UserRepository userRepository;
@@ -33,12 +37,16 @@ public class AuthServiceImpl implements AuthService {
     private final RoleMapper roleMapper;
     private final JwtMiddleware jwtMiddleware;
     private final PasswordEncoder passwordEncoder;
+    private final RefreshTokenService refreshTokenService;
+    private final UserRoleCache userRoleCache;
+    private final TransactionTemplate transactionTemplate;
+    private final CartService cartService;
 
     /**
-     * Authenticate user and generate tokens
+     * Authenticate user and generate tokens. Not transactional: no database
+     * connection is held while the password hash is checked.
      */
     @Override
-    @Transactional(readOnly = true)
     public LoginResponseDto login(LoginRequestDto loginRequest) {
         // Find user by email
         User user = userRepository.findByEmail(loginRequest.getEmail())
@@ -54,27 +62,67 @@ public class AuthServiceImpl implements AuthService {
             throw new RuntimeException("Invalid email or password");
         }
 
+        // Stored with an older algorithm or a lower cost: rehash while we have the password
+        if (passwordEncoder.upgradeEncoding(user.getPasswordHash())) {
+            user.setPasswordHash(passwordEncoder.encode(loginRequest.getPasswordHash()));
+            user = userRepository.save(user);
+        }
+
+        mergeGuestCart(loginRequest.getGuestCartId(), user.getId());
+
+        // New session: the refresh token starts a new family
+        return issueTokens(user, null);
+    }
+
+    /**
+     * Exchange a refresh token for new tokens without checking the password.
+     * Not transactional: a family revoked on reuse must stay revoked when the
+     * exchange fails.
+     */
+    @Override
+    public LoginResponseDto refresh(String refreshToken) {
+        RefreshTokenService.Exchange exchange = refreshTokenService.exchange(refreshToken);
+
+        User user = userRepository.findById(exchange.userId())
+                .orElseThrow(() -> new RuntimeException("Invalid refresh token"));
+        if (!user.isActive()) {
+            throw new RuntimeException("Account is inactive");
+        }
+
+        // Roles are re-read, so role changes apply from the next refresh
+        return issueTokens(user, exchange.familyId());
+    }
+
+    /**
+     * Revoke the session of a refresh token (logout)
+     */
+    @Override
+    public void revokeRefreshToken(String refreshToken) {
+        refreshTokenService.revoke(refreshToken);
+    }
+
+    private LoginResponseDto issueTokens(User user, UUID familyId) {
         // Get user roles and permissions
-        var roleNames = userRoleRepository.findRoleNamesByUserId(user.getId());
-        var permissionNames = userRoleRepository.findPermissionNamesByUserId(user.getId());
+        var roleNames = userRoleCache.roleNames(user.getId());
+        var permissionNames = userRoleCache.permissionNames(roleNames);
 
         // Map to DTO
         UserResponseDto userDto = userMapper.toUserResponseDto(user);
         userDto.setRoles(new HashSet<>(roleNames));
         userDto.setPermissions(new HashSet<>(permissionNames));
 
-        // Generate JWT tokens with email and roles
-        String accessToken = jwtMiddleware.generateToken(user.getEmail(), user.getId(), userDto.getRoles());
-        String refreshToken = jwtMiddleware.generateRefreshToken(user.getEmail());
+        // Generate JWT tokens with email, roles and permissions
+        String accessToken = jwtMiddleware.generateToken(user.getEmail(), user.getId(), userDto.getRoles(), userDto.getPermissions());
+        String refreshToken = refreshTokenService.issue(user.getEmail(), user.getId(), familyId);
 
         return new LoginResponseDto(accessToken, refreshToken, userDto);
     }
 
     /**
-     * Register a new user and generate tokens
+     * Register a new user and generate tokens. The password is hashed before
+     * the transaction starts, so no database connection is held meanwhile.
      */
     @Override
-    @Transactional
     public LoginResponseDto register(RegisterRequestDto registerRequest) {
         // Validate input
         if (registerRequest.getEmail() == null || registerRequest.getEmail().trim().isEmpty()) {
@@ -93,6 +141,27 @@ public class AuthServiceImpl implements AuthService {
         String hashedPassword = passwordEncoder.encode(registerRequest.getPasswordHash());
         registerRequest.setPasswordHash(hashedPassword);
 
+        LoginResponseDto response = transactionTemplate.execute(status -> createUser(registerRequest));
+        mergeGuestCart(registerRequest.getGuestCartId(), response.getUser().getId());
+        return response;
+    }
+
+    /**
+     * Move what the visitor put in the cart before logging in into their
+     * cart. A failed merge doesn't fail the login.
+     */
+    private void mergeGuestCart(UUID guestCartId, UUID userId) {
+        if (guestCartId == null) {
+            return;
+        }
+        try {
+            cartService.mergeGuestCart(guestCartId, userId);
+        } catch (RuntimeException e) {
+            log.warn("Could not merge guest cart {} into the cart of user {}: {}", guestCartId, userId, e.getMessage());
+        }
+    }
+
+    private LoginResponseDto createUser(RegisterRequestDto registerRequest) {
         // Map DTO to entity
         User user = userMapper.toUser(registerRequest);
 
@@ -120,17 +189,17 @@ public class AuthServiceImpl implements AuthService {
         userRoleRepository.save(userRole);
 
         // Get user roles and permissions
-        var roleNames = userRoleRepository.findRoleNamesByUserId(savedUser.getId());
-        var permissionNames = userRoleRepository.findPermissionNamesByUserId(savedUser.getId());
+        var roleNames = userRoleCache.roleNames(savedUser.getId());
+        var permissionNames = userRoleCache.permissionNames(roleNames);
 
         // Map to response DTO
         UserResponseDto userDto = userMapper.toUserResponseDto(savedUser);
         userDto.setRoles(new HashSet<>(roleNames));
         userDto.setPermissions(new HashSet<>(permissionNames));
 
-        // Generate JWT tokens with email and roles
-        String accessToken = jwtMiddleware.generateToken(savedUser.getEmail(), savedUser.getId(), userDto.getRoles());
-        String refreshToken = jwtMiddleware.generateRefreshToken(savedUser.getEmail());
+        // Generate JWT tokens with email, roles and permissions
+        String accessToken = jwtMiddleware.generateToken(savedUser.getEmail(), savedUser.getId(), userDto.getRoles(), userDto.getPermissions());
+        String refreshToken = refreshTokenService.issue(savedUser.getEmail(), savedUser.getId(), null);
 
         return new LoginResponseDto(accessToken, refreshToken, userDto);
     }
@@ -144,8 +213,8 @@ public class AuthServiceImpl implements AuthService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        var roleNames = userRoleRepository.findRoleNamesByUserId(user.getId());
-        var permissionNames = userRoleRepository.findPermissionNamesByUserId(user.getId());
+        var roleNames = userRoleCache.roleNames(user.getId());
+        var permissionNames = userRoleCache.permissionNames(roleNames);
 
         UserResponseDto userDto = userMapper.toUserResponseDto(user);
         userDto.setRoles(new HashSet<>(roleNames));
@@ -163,8 +232,8 @@ public class AuthServiceImpl implements AuthService {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        var roleNames = userRoleRepository.findRoleNamesByUserId(user.getId());
-        var permissionNames = userRoleRepository.findPermissionNamesByUserId(user.getId());
+        var roleNames = userRoleCache.roleNames(user.getId());
+        var permissionNames = userRoleCache.permissionNames(roleNames);
 
         UserResponseDto userDto = userMapper.toUserResponseDto(user);
         userDto.setRoles(new HashSet<>(roleNames));
@@ -183,8 +252,8 @@ public class AuthServiceImpl implements AuthService {
 
         User updatedUser = userRepository.save(user);
 
-        var roleNames = userRoleRepository.findRoleNamesByUserId(user.getId());
-        var permissionNames = userRoleRepository.findPermissionNamesByUserId(user.getId());
+        var roleNames = userRoleCache.roleNames(user.getId());
+        var permissionNames = userRoleCache.permissionNames(roleNames);
 
         UserResponseDto userDto = userMapper.toUserResponseDto(updatedUser);
         userDto.setRoles(new HashSet<>(roleNames));
@@ -193,8 +262,10 @@ public class AuthServiceImpl implements AuthService {
         return userDto;
     }
 
+    /**
+     * Not transactional: both hashes run without holding a database connection.
+     */
     @Override
-    @Transactional
     public void changePassword(User user, ChangePasswordRequest request) {
 
         if (!passwordEncoder.matches(request.currentPassword(), user.getPasswordHash())) {
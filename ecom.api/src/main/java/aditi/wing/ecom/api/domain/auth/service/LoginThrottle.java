@@ -0,0 +1,61 @@
+package aditi.wing.ecom.api.domain.auth.service;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import aditi.wing.ecom.api.domain.auth.exception.TooManyRequestsException;
+
+/**
+ * Fixed-window attempt counters per client IP and per account for the
+ * endpoints that hash a password, checked before any hashing is done. A window
+ * starts with the first attempt and every attempt counts, successful or not.
+ *
+ * Counters are in memory, so each API node throttles on its own.
+ */
+@Component
+public class LoginThrottle {
+
+    private final Cache<String, AtomicInteger> attempts;
+    private final Duration window;
+    private final int perIp;
+    private final int perAccount;
+
+    public LoginThrottle(
+            @Value("${app.security.login-throttle.window:1m}") Duration window,
+            @Value("${app.security.login-throttle.per-ip:30}") int perIp,
+            @Value("${app.security.login-throttle.per-account:10}") int perAccount) {
+        this.window = window;
+        this.perIp = perIp;
+        this.perAccount = perAccount;
+        this.attempts = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfter(Expiry.creating((String key, AtomicInteger count) -> window))
+                .build();
+    }
+
+    /**
+     * Count an attempt from the IP, and for the account when one is given.
+     *
+     * @throws TooManyRequestsException if either is over its limit
+     */
+    public void acquire(String ip, String account) {
+        boolean ipAllowed = count("ip:" + ip) <= perIp;
+        boolean accountAllowed = account == null
+                || count("account:" + account.trim().toLowerCase(Locale.ROOT)) <= perAccount;
+        if (!ipAllowed || !accountAllowed) {
+            throw new TooManyRequestsException("Too many attempts, please try again later", window);
+        }
+    }
+
+    private int count(String key) {
+        return attempts.get(key, k -> new AtomicInteger()).incrementAndGet();
+    }
+}
@@ -0,0 +1,85 @@
+package aditi.wing.ecom.api.domain.auth.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Builds the password encoder from the configured algorithm and cost.
+ *
+ * Hashes are stored with an {id} prefix naming their algorithm, so every
+ * algorithm listed here can still be verified after the configured one
+ * changes; hashes from before the prefix existed are BCrypt. A stored hash
+ * made with another algorithm or a lower cost reports
+ * {@link PasswordEncoder#upgradeEncoding} and is rehashed on the next
+ * successful login.
+ */
+public final class PasswordEncoders {
+
+    public static final String BCRYPT = "bcrypt";
+    public static final String PBKDF2 = "pbkdf2";
+    public static final String ARGON2 = "argon2";
+
+    private static final int ARGON2_SALT_LENGTH = 16;
+    private static final int ARGON2_HASH_LENGTH = 32;
+
+    /**
+     * Cost parameters of each algorithm. Only those of the configured
+     * algorithm matter: the others are only ever used to verify.
+     */
+    public record Costs(
+            int bcryptStrength,
+            int pbkdf2Iterations,
+            int argon2MemoryKib,
+            int argon2Iterations,
+            int argon2Parallelism) {
+    }
+
+    private PasswordEncoders() {
+    }
+
+    /**
+     * Argon2 is computed by BouncyCastle (org.bouncycastle:bcprov-jdk18on),
+     * which is not a dependency by default.
+     */
+    public static boolean isArgon2Available() {
+        return ClassUtils.isPresent("org.bouncycastle.crypto.generators.Argon2BytesGenerator",
+                PasswordEncoders.class.getClassLoader());
+    }
+
+    public static PasswordEncoder delegating(String algorithm, Costs costs) {
+        String idForEncode = algorithm.toLowerCase();
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, single(BCRYPT, costs));
+        encoders.put(PBKDF2, single(PBKDF2, costs));
+        if (isArgon2Available()) {
+            encoders.put(ARGON2, single(ARGON2, costs));
+        }
+        if (!encoders.containsKey(idForEncode)) {
+            throw new IllegalStateException("Unsupported password hashing algorithm '" + algorithm
+                    + "' (supported: " + encoders.keySet() + "; argon2 needs BouncyCastle)");
+        }
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(idForEncode, encoders);
+        encoder.setDefaultPasswordEncoderForMatches(encoders.get(BCRYPT));
+        return encoder;
+    }
+
+    /**
+     * The encoder of one algorithm, without the {id} prefix.
+     */
+    public static PasswordEncoder single(String algorithm, Costs costs) {
+        return switch (algorithm.toLowerCase()) {
+            case BCRYPT -> new BCryptPasswordEncoder(costs.bcryptStrength());
+            case PBKDF2 -> new Pbkdf2PasswordEncoder(costs.pbkdf2Iterations());
+            case ARGON2 -> new Argon2PasswordEncoder(ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH,
+                    costs.argon2Parallelism(), costs.argon2MemoryKib(), costs.argon2Iterations());
+            default -> throw new IllegalStateException("Unsupported password hashing algorithm: " + algorithm);
+        };
+    }
+}
@@ -0,0 +1,140 @@
+package aditi.wing.ecom.api.domain.auth.service;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import aditi.wing.ecom.api.domain.auth.service.PasswordEncoders.Costs;
+
+/**
+ * Picks the cost of a password hashing algorithm that takes about the target
+ * time per hash on this machine, and prints the matching properties. Run it on
+ * the hardware the API runs on, with the packaged jar:
+ *
+ * <pre>
+ * java -cp ecom.api.jar -Dloader.main=aditi.wing.ecom.api.domain.auth.service.PasswordHashCalibrator \
+ *     org.springframework.boot.loader.launch.PropertiesLauncher pbkdf2 250ms
+ * </pre>
+ *
+ * A higher cost makes stolen hashes slower to crack, but each login then holds
+ * a hashing thread longer: a node verifies at most threads / time-per-hash
+ * logins per second.
+ */
+public final class PasswordHashCalibrator {
+
+    public static final Costs DEFAULT_COSTS = new Costs(12, 600_000, 19_456, 2, 1);
+
+    private static final String SAMPLE_PASSWORD = "calibration-Pa55word!";
+    private static final int SAMPLES = 5;
+
+    /**
+     * A calibrated cost and the measured time of one hash with it.
+     */
+    public record Result(String algorithm, Costs costs, String property, int value, Duration timePerHash) {
+    }
+
+    private PasswordHashCalibrator() {
+    }
+
+    public static void main(String[] args) {
+        String algorithm = args.length > 0 ? args[0] : PasswordEncoders.PBKDF2;
+        Duration target = args.length > 1 ? DurationStyle.detectAndParse(args[1]) : Duration.ofMillis(250);
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        Result result = calibrate(algorithm, target);
+        double loginsPerSecond = threads * 1000.0 / Math.max(1, result.timePerHash().toMillis());
+
+        System.out.printf("Calibrated %s for %d ms per hash on %d processor(s):%n",
+                result.algorithm(), target.toMillis(), Runtime.getRuntime().availableProcessors());
+        System.out.printf("  app.security.password-hashing.algorithm=%s%n", result.algorithm());
+        System.out.printf("  %s=%d%n", result.property(), result.value());
+        System.out.printf("Measured %d ms per hash: about %.1f logins/s with %d hashing thread(s).%n",
+                result.timePerHash().toMillis(), loginsPerSecond, threads);
+    }
+
+    public static Result calibrate(String algorithm, Duration target) {
+        double targetMs = target.toNanos() / 1e6;
+        return switch (algorithm.toLowerCase()) {
+            case PasswordEncoders.BCRYPT -> calibrateBcrypt(targetMs);
+            case PasswordEncoders.PBKDF2 -> calibratePbkdf2(targetMs);
+            case PasswordEncoders.ARGON2 -> {
+                if (!PasswordEncoders.isArgon2Available()) {
+                    throw new IllegalStateException("argon2 needs BouncyCastle (org.bouncycastle:bcprov-jdk18on)");
+                }
+                yield calibrateArgon2(targetMs);
+            }
+            default -> throw new IllegalArgumentException("Unsupported password hashing algorithm: " + algorithm);
+        };
+    }
+
+    // Each step of strength doubles the work
+    private static Result calibrateBcrypt(double targetMs) {
+        int base = 8;
+        double baseMs = measure(PasswordEncoders.BCRYPT, withBcrypt(base));
+        int strength = base;
+        while (strength < 31 && baseMs * Math.pow(2, strength + 1 - base) <= targetMs) {
+            strength++;
+        }
+        double ms = measure(PasswordEncoders.BCRYPT, withBcrypt(strength));
+        if (ms > targetMs * 1.2 && strength > 4) {
+            strength--;
+            ms = measure(PasswordEncoders.BCRYPT, withBcrypt(strength));
+        }
+        return new Result(PasswordEncoders.BCRYPT, withBcrypt(strength),
+                "app.security.password-hashing.bcrypt.strength", strength, toDuration(ms));
+    }
+
+    // Work is linear in iterations; rounded down to 10,000
+    private static Result calibratePbkdf2(double targetMs) {
+        int base = 100_000;
+        double perIteration = measure(PasswordEncoders.PBKDF2, withPbkdf2(base)) / base;
+        int iterations = (int) Math.max(10_000, Math.floor(targetMs / perIteration / 10_000) * 10_000);
+        double ms = measure(PasswordEncoders.PBKDF2, withPbkdf2(iterations));
+        return new Result(PasswordEncoders.PBKDF2, withPbkdf2(iterations),
+                "app.security.password-hashing.pbkdf2.iterations", iterations, toDuration(ms));
+    }
+
+    // Memory stays at the default (OWASP minimum); passes over it are linear
+    private static Result calibrateArgon2(double targetMs) {
+        double perPass = measure(PasswordEncoders.ARGON2, withArgon2(1));
+        int passes = (int) Math.max(1, Math.floor(targetMs / perPass));
+        double ms = measure(PasswordEncoders.ARGON2, withArgon2(passes));
+        return new Result(PasswordEncoders.ARGON2, withArgon2(passes),
+                "app.security.password-hashing.argon2.iterations", passes, toDuration(ms));
+    }
+
+    // Median of a few hashes after one warm-up
+    private static double measure(String algorithm, Costs costs) {
+        PasswordEncoder encoder = PasswordEncoders.single(algorithm, costs);
+        encoder.encode(SAMPLE_PASSWORD);
+        double[] samples = new double[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            samples[i] = (System.nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+
+    private static Duration toDuration(double ms) {
+        return Duration.ofNanos((long) (ms * 1e6));
+    }
+
+    private static Costs withBcrypt(int strength) {
+        return new Costs(strength, DEFAULT_COSTS.pbkdf2Iterations(), DEFAULT_COSTS.argon2MemoryKib(),
+                DEFAULT_COSTS.argon2Iterations(), DEFAULT_COSTS.argon2Parallelism());
+    }
+
+    private static Costs withPbkdf2(int iterations) {
+        return new Costs(DEFAULT_COSTS.bcryptStrength(), iterations, DEFAULT_COSTS.argon2MemoryKib(),
+                DEFAULT_COSTS.argon2Iterations(), DEFAULT_COSTS.argon2Parallelism());
+    }
+
+    private static Costs withArgon2(int iterations) {
+        return new Costs(DEFAULT_COSTS.bcryptStrength(), DEFAULT_COSTS.pbkdf2Iterations(),
+                DEFAULT_COSTS.argon2MemoryKib(), iterations, DEFAULT_COSTS.argon2Parallelism());
+    }
+}
@@ -0,0 +1,76 @@
+package aditi.wing.ecom.api.domain.auth.service;
+
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+import org.springframework.security.crypto.password.AbstractValidatingPasswordEncoder;
+
+/**
+ * PBKDF2-HMAC-SHA256 from the JDK, storing its iteration count with the hash
+ * as {@code iterations$salt$hash} (Base64). Unlike Spring's encoder of the
+ * same name, the cost can then be raised without breaking existing hashes,
+ * and hashes below the configured count report that they need an upgrade.
+ */
+class Pbkdf2PasswordEncoder extends AbstractValidatingPasswordEncoder {
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_LENGTH = 16;
+    private static final int HASH_LENGTH = 32;
+
+    private final SecureRandom random = new SecureRandom();
+    private final int iterations;
+
+    Pbkdf2PasswordEncoder(int iterations) {
+        this.iterations = iterations;
+    }
+
+    @Override
+    protected String encodeNonNullPassword(String rawPassword) {
+        byte[] salt = new byte[SALT_LENGTH];
+        random.nextBytes(salt);
+        Base64.Encoder base64 = Base64.getEncoder().withoutPadding();
+        return iterations + "$" + base64.encodeToString(salt) + "$"
+                + base64.encodeToString(hash(rawPassword, salt, iterations, HASH_LENGTH));
+    }
+
+    @Override
+    protected boolean matchesNonNull(String rawPassword, String encodedPassword) {
+        String[] parts = encodedPassword.split("\\$");
+        if (parts.length != 3) {
+            return false;
+        }
+        try {
+            int storedIterations = Integer.parseInt(parts[0]);
+            byte[] salt = Base64.getDecoder().decode(parts[1]);
+            byte[] expected = Base64.getDecoder().decode(parts[2]);
+            return MessageDigest.isEqual(expected, hash(rawPassword, salt, storedIterations, expected.length));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    @Override
+    protected boolean upgradeEncodingNonNull(String encodedPassword) {
+        try {
+            return Integer.parseInt(encodedPassword.substring(0, encodedPassword.indexOf('$'))) < iterations;
+        } catch (RuntimeException e) {
+            return true;
+        }
+    }
+
+    private static byte[] hash(String rawPassword, byte[] salt, int iterations, int length) {
+        PBEKeySpec spec = new PBEKeySpec(rawPassword.toCharArray(), salt, iterations, length * 8);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
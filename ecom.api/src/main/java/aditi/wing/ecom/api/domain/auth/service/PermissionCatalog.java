@@ -0,0 +1,127 @@
+package aditi.wing.ecom.api.domain.auth.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import aditi.wing.ecom.api.domain.auth.repository.PermissionRepository;
+import aditi.wing.ecom.api.domain.auth.repository.RolePermissionRepository;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Encodes a set of permission names as a bitset over the permission catalog
+ * sorted by name, so an access token can carry all of a user's permissions in
+ * a few bytes (27 permissions: 6 Base64 characters).
+ *
+ * Permission IDs are random UUIDs, so the bit positions come from the sorted
+ * names, and the encoding carries a version: a fingerprint of the catalog and
+ * of which roles grant which permissions when it was made. A token made before
+ * either changed has an unknown version and is not decoded, see {@link #decode},
+ * so its permissions are worked out again from its roles.
+ */
+@Component
+@RequiredArgsConstructor
+public class PermissionCatalog {
+
+    private final PermissionRepository permissionRepository;
+    private final RolePermissionRepository rolePermissionRepository;
+
+    private volatile Catalog catalog;
+
+    private record Catalog(List<String> names, Map<String, Integer> positions, String version) {
+    }
+
+    /**
+     * Permissions as carried in a token: catalog version and Base64url bitset.
+     */
+    public record Encoded(String version, String bits) {
+    }
+
+    public Encoded encode(Collection<String> permissionNames) {
+        Catalog current = catalog();
+        BitSet bits = new BitSet(current.names().size());
+        for (String name : permissionNames) {
+            Integer position = current.positions().get(name);
+            if (position != null) {
+                bits.set(position);
+            }
+        }
+        return new Encoded(current.version(), Base64.getUrlEncoder().withoutPadding().encodeToString(bits.toByteArray()));
+    }
+
+    /**
+     * @return the permission names, or empty when the bitset was made with
+     *         another version of the catalog
+     */
+    public Optional<Set<String>> decode(String version, String bits) {
+        Catalog current = catalog();
+        if (version == null || bits == null || !version.equals(current.version())) {
+            return Optional.empty();
+        }
+        BitSet set;
+        try {
+            set = BitSet.valueOf(Base64.getUrlDecoder().decode(bits));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        Set<String> names = new HashSet<>();
+        for (int i = set.nextSetBit(0); i >= 0 && i < current.names().size(); i = set.nextSetBit(i + 1)) {
+            names.add(current.names().get(i));
+        }
+        return Optional.of(names);
+    }
+
+    // After the CommandLineRunners, so permissions seeded by DataLoader are included
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.security.role-cache.reload-interval:10m}",
+            initialDelayString = "${app.security.role-cache.reload-interval:10m}")
+    public void reload() {
+        List<String> names = permissionRepository.findAllNames().stream().sorted().toList();
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            positions.put(names.get(i), i);
+        }
+        List<String> grants = rolePermissionRepository.findAllRolePermissionNames().stream()
+                .map(row -> row.getRoleName() + ":" + row.getPermissionName())
+                .sorted()
+                .toList();
+        catalog = new Catalog(names, Map.copyOf(positions), fingerprint(names, grants));
+    }
+
+    private Catalog catalog() {
+        Catalog current = catalog;
+        if (current == null) {
+            // Used before the application was ready
+            reload();
+            current = catalog;
+        }
+        return current;
+    }
+
+    // 8 hex characters of SHA-256 over the sorted names and role:permission grants
+    private static String fingerprint(List<String> names, List<String> grants) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest((String.join("\n", names) + "\n\n" + String.join("\n", grants))
+                            .getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 4);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package aditi.wing.ecom.api.domain.auth.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import aditi.wing.ecom.api.common.middleware.JwtMiddleware;
+import aditi.wing.ecom.api.domain.auth.model.RefreshToken;
+import aditi.wing.ecom.api.domain.auth.repository.RefreshTokenRepository;
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Rotating refresh tokens. Each login starts a family; exchanging a refresh
+ * token marks it used and issues its successor in the same family, so a
+ * session is extended by one signature instead of a password hash.
+ *
+ * A token that is presented again after it was used means it was copied: the
+ * whole family is revoked and both the thief and the user have to log in.
+ * The repository updates commit on their own, so the revocation sticks even
+ * though the request fails.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenService {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JwtMiddleware jwtMiddleware;
+
+    @Value("${jwt.refresh.expiration}")
+    private long refreshExpirationMs;
+
+    /**
+     * The owner of an exchanged refresh token and the family its successor joins.
+     */
+    public record Exchange(UUID userId, UUID familyId) {
+    }
+
+    /**
+     * Issue a refresh token in the given family, or in a new one when null.
+     */
+    public String issue(String email, UUID userId, UUID familyId) {
+        UUID tokenId = UUID.randomUUID();
+        UUID family = familyId != null ? familyId : UUID.randomUUID();
+        Instant expiresAt = Instant.now().plusMillis(refreshExpirationMs);
+
+        refreshTokenRepository.save(RefreshToken.builder()
+                .id(hashId(tokenId.toString()))
+                .familyId(family)
+                .userId(userId)
+                .expiresAt(expiresAt)
+                .revoked(false)
+                .build());
+        return jwtMiddleware.generateRefreshToken(email, userId, tokenId, family, expiresAt);
+    }
+
+    /**
+     * Mark the refresh token used. The caller issues the successor.
+     *
+     * @throws RuntimeException if the token is invalid, expired, revoked or
+     *                          was already used (its family is then revoked)
+     */
+    public Exchange exchange(String refreshToken) {
+        Claims claims = refreshClaims(refreshToken);
+        UUID id = hashId(claims.getId());
+
+        if (refreshTokenRepository.markUsed(id, Instant.now()) == 1) {
+            return new Exchange(UUID.fromString(claims.get("userId", String.class)),
+                    UUID.fromString(claims.get("fid", String.class)));
+        }
+
+        RefreshToken stored = refreshTokenRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Invalid refresh token"));
+        if (stored.getUsedAt() != null && !stored.isRevoked()) {
+            refreshTokenRepository.revokeFamily(stored.getFamilyId());
+            log.warn("Refresh token reuse detected for user {}; revoked token family {}",
+                    stored.getUserId(), stored.getFamilyId());
+        }
+        throw new RuntimeException("Invalid refresh token");
+    }
+
+    /**
+     * End the session the refresh token belongs to (logout).
+     */
+    public void revoke(String refreshToken) {
+        Claims claims = refreshClaims(refreshToken);
+        refreshTokenRepository.revokeFamily(UUID.fromString(claims.get("fid", String.class)));
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.revocation.purge-interval:1h}")
+    public void purge() {
+        int deleted = refreshTokenRepository.deleteExpired(Instant.now());
+        if (deleted > 0) {
+            log.debug("Purged {} expired refresh tokens", deleted);
+        }
+    }
+
+    private Claims refreshClaims(String refreshToken) {
+        Claims claims = jwtMiddleware.verify(refreshToken)
+                .orElseThrow(() -> new RuntimeException("Invalid refresh token"));
+        // Tokens from before rotation have no family and cannot be exchanged
+        if (!JwtMiddleware.isRefreshToken(claims)
+                || claims.getId() == null
+                || claims.get("userId", String.class) == null
+                || claims.get("fid", String.class) == null) {
+            throw new RuntimeException("Invalid refresh token");
+        }
+        return claims;
+    }
+
+    // First 128 bits of SHA-256(jti): fits a native uuid column
+    private static UUID hashId(String tokenId) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(tokenId.getBytes(StandardCharsets.UTF_8));
+            ByteBuffer buffer = ByteBuffer.wrap(digest);
+            return new UUID(buffer.getLong(), buffer.getLong());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
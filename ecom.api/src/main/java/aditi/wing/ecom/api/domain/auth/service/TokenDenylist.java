@@ -0,0 +1,136 @@
+package aditi.wing.ecom.api.domain.auth.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import aditi.wing.ecom.api.domain.auth.model.RevokedToken;
+import aditi.wing.ecom.api.domain.auth.repository.RevokedTokenRepository;
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tokens revoked before their expiry, checked on every authenticated request.
+ *
+ * Revocations are stored in the revoked_tokens table and mirrored on each API
+ * node as an exact set of jti values fronted by a {@link RevocationBloomFilter},
+ * so the check for a token that was never revoked is a few bit tests with no
+ * I/O. Each node polls the table for revocations made elsewhere, so a logout
+ * takes effect everywhere within app.security.revocation.sync-interval.
+ * Entries are dropped, locally and in the table, once the token has expired.
+ *
+ * Tokens issued without a jti claim cannot be revoked; they simply run out.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenDenylist {
+
+    // Re-read this far back on each poll: rows committed late still get picked up
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    @Value("${app.security.revocation.expected-tokens:100000}")
+    private int expectedTokens;
+
+    private final Map<UUID, Instant> revoked = new ConcurrentHashMap<>();
+    private volatile RevocationBloomFilter filter = new RevocationBloomFilter(1, 0.01);
+    private volatile Instant syncedUntil = Instant.EPOCH;
+
+    public boolean isRevoked(Claims claims) {
+        UUID jti = jti(claims);
+        return jti != null && filter.mightContain(jti) && revoked.containsKey(jti);
+    }
+
+    /**
+     * Revoke the token with these (verified) claims until it expires.
+     *
+     * @return false if the token has no jti and cannot be revoked
+     */
+    public boolean revoke(Claims claims) {
+        UUID jti = jti(claims);
+        Date expiration = claims.getExpiration();
+        if (jti == null || expiration == null) {
+            return false;
+        }
+        String userId = claims.get("userId", String.class);
+        RevokedToken token = RevokedToken.builder()
+                .jti(jti)
+                .userId(userId != null ? UUID.fromString(userId) : null)
+                .expiresAt(expiration.toInstant())
+                .revokedAt(Instant.now())
+                .build();
+        revokedTokenRepository.save(token);
+        add(token);
+        return true;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+        sync();
+    }
+
+    /**
+     * Pick up revocations made on other nodes.
+     */
+    @Scheduled(initialDelayString = "${app.security.revocation.sync-interval:5s}",
+            fixedDelayString = "${app.security.revocation.sync-interval:5s}")
+    public void sync() {
+        Instant now = Instant.now();
+        Instant since = syncedUntil.equals(Instant.EPOCH) ? Instant.EPOCH : syncedUntil.minus(SYNC_OVERLAP);
+        revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(since, now).forEach(this::add);
+        syncedUntil = now;
+    }
+
+    /**
+     * Drop expired tokens from the table and the local set, and rebuild the
+     * filter without them.
+     */
+    @Scheduled(fixedDelayString = "${app.security.revocation.purge-interval:1h}")
+    public void purge() {
+        int deleted = revokedTokenRepository.deleteExpired(Instant.now());
+        rebuild();
+        if (deleted > 0) {
+            log.debug("Purged {} expired revoked tokens", deleted);
+        }
+    }
+
+    private synchronized void add(RevokedToken token) {
+        if (token.getExpiresAt().isAfter(Instant.now()) && revoked.put(token.getJti(), token.getExpiresAt()) == null) {
+            filter.add(token.getJti());
+        }
+    }
+
+    // Synchronized with add, so no revocation lands in the filter being replaced
+    private synchronized void rebuild() {
+        Instant now = Instant.now();
+        revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+        RevocationBloomFilter rebuilt = new RevocationBloomFilter(Math.max(expectedTokens, revoked.size() * 2), 0.01);
+        revoked.keySet().forEach(rebuilt::add);
+        filter = rebuilt;
+    }
+
+    private static UUID jti(Claims claims) {
+        String id = claims.getId();
+        if (id == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package aditi.wing.ecom.api.domain.auth.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import aditi.wing.ecom.api.domain.auth.event.UserRolesChangedEvent;
+import aditi.wing.ecom.api.domain.auth.projection.RolePermissionNameProjection;
+import aditi.wing.ecom.api.domain.auth.projection.UserRoleNameProjection;
+import aditi.wing.ecom.api.domain.auth.repository.RolePermissionRepository;
+import aditi.wing.ecom.api.domain.auth.repository.UserRoleRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Role and permission names of users without the joins on every request.
+ *
+ * The role to permissions map is small and only changes with a deployment,
+ * so it is loaded whole at startup and reloaded every
+ * app.security.role-cache.reload-interval. Each user's role names are cached
+ * until a user_roles row of theirs changes (see {@link UserRolesChangedEvent}),
+ * with the TTL as a safety net. Metrics are published as cache.* meters
+ * tagged cache=user-roles.
+ *
+ * The time of that change is also kept for as long as an access token lives,
+ * so tokens issued before it are known to carry stale roles and permissions
+ * (see {@link #rolesChangedSince}). The event is local: on other instances
+ * such a token keeps its old roles until it expires (jwt.expiration).
+ */
+@Component
+@Slf4j
+public class UserRoleCache {
+
+    private final UserRoleRepository userRoleRepository;
+    private final RolePermissionRepository rolePermissionRepository;
+    private final Cache<UUID, Set<String>> userRoles;
+    private final Cache<UUID, Instant> rolesChangedAt;
+
+    private volatile Map<String, Set<String>> rolePermissions;
+
+    public UserRoleCache(
+            UserRoleRepository userRoleRepository,
+            RolePermissionRepository rolePermissionRepository,
+            @Value("${app.security.role-cache.max-size:100000}") long maxSize,
+            @Value("${app.security.role-cache.ttl:1h}") Duration ttl,
+            @Value("${jwt.expiration}") long accessTokenLifetimeMs,
+            MeterRegistry meterRegistry) {
+        this.userRoleRepository = userRoleRepository;
+        this.rolePermissionRepository = rolePermissionRepository;
+        this.userRoles = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.rolesChangedAt = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(accessTokenLifetimeMs))
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, userRoles, "user-roles");
+    }
+
+    public Set<String> roleNames(UUID userId) {
+        return userRoles.get(userId, id -> Set.copyOf(userRoleRepository.findRoleNamesByUserId(id)));
+    }
+
+    /**
+     * Role names of several users; the ones not cached are loaded in one query.
+     */
+    public Map<UUID, Set<String>> roleNames(Collection<UUID> userIds) {
+        return userRoles.getAll(userIds, missing -> {
+            Map<UUID, Set<String>> loaded = new HashMap<>();
+            missing.forEach(id -> loaded.put(id, new HashSet<>()));
+            for (UserRoleNameProjection row : userRoleRepository.findRoleNamesByUserIdIn(Set.copyOf(missing))) {
+                loaded.get(row.getUserId()).add(row.getRoleName());
+            }
+            loaded.replaceAll((id, names) -> Set.copyOf(names));
+            return loaded;
+        });
+    }
+
+    /**
+     * Union of the permissions of the given roles.
+     */
+    public Set<String> permissionNames(Collection<String> roleNames) {
+        Map<String, Set<String>> permissions = rolePermissions();
+        return roleNames.stream()
+                .flatMap(role -> permissions.getOrDefault(role, Set.of()).stream())
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Whether the user's roles changed on this instance after the given time,
+     * so a token issued then carries roles and permissions that may be stale.
+     * Token issue times are in whole seconds; a change in the same second
+     * counts as later.
+     */
+    public boolean rolesChangedSince(UUID userId, Instant issuedAt) {
+        Instant changedAt = rolesChangedAt.getIfPresent(userId);
+        return changedAt != null && (issuedAt == null || !changedAt.isBefore(issuedAt));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRolesChanged(UserRolesChangedEvent event) {
+        userRoles.invalidate(event.userId());
+        rolesChangedAt.put(event.userId(), Instant.now());
+    }
+
+    // After the CommandLineRunners, so roles seeded by DataLoader are included
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.security.role-cache.reload-interval:10m}",
+            initialDelayString = "${app.security.role-cache.reload-interval:10m}")
+    public void reload() {
+        List<RolePermissionNameProjection> rows = rolePermissionRepository.findAllRolePermissionNames();
+        Map<String, Set<String>> loaded = new HashMap<>();
+        for (RolePermissionNameProjection row : rows) {
+            loaded.computeIfAbsent(row.getRoleName(), role -> new TreeSet<>()).add(row.getPermissionName());
+        }
+        loaded.replaceAll((role, names) -> Set.copyOf(names));
+        rolePermissions = Map.copyOf(loaded);
+        log.debug("Loaded {} permissions for {} roles", rows.size(), loaded.size());
+    }
+
+    private Map<String, Set<String>> rolePermissions() {
+        Map<String, Set<String>> permissions = rolePermissions;
+        if (permissions == null) {
+            // Used before the application was ready
+            reload();
+            permissions = rolePermissions;
+        }
+        return permissions;
+    }
+}
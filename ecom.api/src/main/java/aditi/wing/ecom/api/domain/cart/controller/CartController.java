@@ -1,7 +1,9 @@
 package aditi.wing.ecom.api.domain.cart.controller;
 
 import aditi.wing.ecom.api.domain.cart.dto.AddToCartRequest;
+import aditi.wing.ecom.api.domain.cart.dto.CartBatchRequest;
 import aditi.wing.ecom.api.domain.cart.dto.CartResponse;
+import aditi.wing.ecom.api.domain.cart.dto.CartValidationResponse;
 import aditi.wing.ecom.api.domain.cart.dto.UpdateCartItemRequest;
 import aditi.wing.ecom.api.domain.cart.service.CartService;
 import jakarta.validation.Valid;
@@ -28,9 +30,8 @@ public class CartController {
             @PathVariable UUID userId,
             @Valid @RequestBody AddToCartRequest request) {
 
-        CartResponse response = CartResponse.from(
-                cartService.addToCart(userId, request.getProductId(), request.getQuantity())
-        );
+        CartResponse response =
+                cartService.addToCart(userId, request.getProductId(), request.getQuantity());
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
@@ -38,12 +39,29 @@ public class CartController {
     public ResponseEntity<CartResponse> getCart(
             @PathVariable UUID userId) {
 
-        CartResponse response = CartResponse.from(
-                cartService.getCartByUserId(userId)
-        );
+        CartResponse response = cartService.getCartByUserId(userId);
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Apply several add/update/remove operations at once, all or none.
+     */
+    @PostMapping("/{userId}/batch")
+    public ResponseEntity<CartResponse> applyToCart(
+            @PathVariable UUID userId,
+            @Valid @RequestBody CartBatchRequest request) {
+
+        return ResponseEntity.ok(cartService.applyToCart(userId, request.getOperations()));
+    }
+
+    /**
+     * Reprice the cart and check stock before checkout.
+     */
+    @PostMapping("/{userId}/validate")
+    public ResponseEntity<CartValidationResponse> validateCart(@PathVariable UUID userId) {
+        return ResponseEntity.ok(cartService.validateCart(userId));
+    }
+
     @PatchMapping("/items/{cartItemId}")
     public ResponseEntity<Void> updateItemQuantity(
             @PathVariable UUID cartItemId,
@@ -64,4 +82,53 @@ public class CartController {
         cartService.clearCart(cartId);
         return ResponseEntity.noContent().build();
     }
+
+    // ── Guest carts, keyed by a session ID the client generates ──
+
+    @PostMapping("/guest/{sessionId}/items")
+    public ResponseEntity<CartResponse> addItemToGuestCart(
+            @PathVariable UUID sessionId,
+            @Valid @RequestBody AddToCartRequest request) {
+
+        CartResponse response =
+                cartService.addToGuestCart(sessionId, request.getProductId(), request.getQuantity());
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @GetMapping("/guest/{sessionId}")
+    public ResponseEntity<CartResponse> getGuestCart(@PathVariable UUID sessionId) {
+        return ResponseEntity.ok(cartService.getGuestCart(sessionId));
+    }
+
+    @PostMapping("/guest/{sessionId}/batch")
+    public ResponseEntity<CartResponse> applyToGuestCart(
+            @PathVariable UUID sessionId,
+            @Valid @RequestBody CartBatchRequest request) {
+
+        return ResponseEntity.ok(cartService.applyToGuestCart(sessionId, request.getOperations()));
+    }
+
+    @PostMapping("/guest/{sessionId}/validate")
+    public ResponseEntity<CartValidationResponse> validateGuestCart(@PathVariable UUID sessionId) {
+        return ResponseEntity.ok(cartService.validateGuestCart(sessionId));
+    }
+
+    @PatchMapping("/guest/{sessionId}/items/{cartItemId}")
+    public ResponseEntity<Void> updateGuestItemQuantity(
+            @PathVariable UUID sessionId,
+            @PathVariable UUID cartItemId,
+            @Valid @RequestBody UpdateCartItemRequest request) {
+
+        cartService.updateGuestQuantity(sessionId, cartItemId, request.getQuantity());
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/guest/{sessionId}/items/{cartItemId}")
+    public ResponseEntity<Void> removeGuestItem(
+            @PathVariable UUID sessionId,
+            @PathVariable UUID cartItemId) {
+
+        cartService.removeGuestItem(sessionId, cartItemId);
+        return ResponseEntity.noContent().build();
+    }
 }
\ No newline at end of file
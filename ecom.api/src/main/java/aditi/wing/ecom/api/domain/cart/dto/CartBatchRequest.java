@@ -0,0 +1,41 @@
+package aditi.wing.ecom.api.domain.cart.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Several cart changes applied together, in order: either all of them are
+ * applied or none.
+ */
+@Data
+public class CartBatchRequest {
+
+    @NotEmpty(message = "At least one operation is required")
+    @Size(max = 100, message = "At most 100 operations per request")
+    private List<@Valid @NotNull Operation> operations;
+
+    public enum Type {
+        ADD,    // productId, quantity: add to what is in the cart
+        UPDATE, // cartItemId, quantity: set the quantity
+        REMOVE  // cartItemId
+    }
+
+    @Data
+    public static class Operation {
+
+        @NotNull(message = "Operation type is required")
+        private Type type;
+
+        private UUID productId;
+
+        private UUID cartItemId;
+
+        private int quantity;
+    }
+}
@@ -5,6 +5,7 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 import aditi.wing.ecom.api.domain.cart.model.CartItem;
+import aditi.wing.ecom.api.domain.cart.store.HotCart;
 import lombok.Builder;
 import lombok.Data;
 
@@ -39,4 +40,20 @@ public class CartItemResponse {
                 .updatedAt(item.getUpdatedAt())
                 .build();
     }
+
+    public static CartItemResponse from(HotCart.Line line) {
+        return CartItemResponse.builder()
+                .cartItemId(line.getId())
+                .productId(line.getProductId())
+                .sellerId(line.getSellerId())
+                .productName(line.getProductName())
+                .imageUrl(line.getImageUrl())
+                .category(line.getCategory())
+                .unitPrice(line.getPrice())
+                .quantity(line.getQuantity())
+                .subtotal(line.getPrice().multiply(BigDecimal.valueOf(line.getQuantity())))
+                .addedAt(line.getCreatedAt())
+                .updatedAt(line.getUpdatedAt())
+                .build();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package aditi.wing.ecom.api.domain.cart.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One cart line checked against the product as it is now.
+ */
+@Data
+@Builder
+public class CartLineValidation {
+
+    public enum Issue {
+        PRICE_CHANGED,
+        INSUFFICIENT_STOCK,
+        PRODUCT_INACTIVE
+    }
+
+    private UUID cartItemId;
+    private UUID productId;
+    private String productName;
+    private int quantity;
+    private BigDecimal previousPrice;  // price in the cart before this check
+    private BigDecimal unitPrice;      // price charged at checkout
+    private long availableStock;       // units this cart can still buy
+    private List<Issue> issues;
+}
@@ -1,6 +1,7 @@
 package aditi.wing.ecom.api.domain.cart.dto;
 
 import aditi.wing.ecom.api.domain.cart.model.Cart;
+import aditi.wing.ecom.api.domain.cart.store.HotCart;
 import lombok.Builder;
 import lombok.Data;
 
@@ -27,6 +28,19 @@ public class CartResponse {
                 .map(CartItemResponse::from)
                 .collect(Collectors.toList());
 
+        return from(cart.getId(), cart.getUser().getId(), itemResponses, cart.getCreatedAt(), cart.getUpdatedAt());
+    }
+
+    public static CartResponse from(HotCart cart) {
+        List<CartItemResponse> itemResponses = cart.getLines().stream()
+                .map(CartItemResponse::from)
+                .collect(Collectors.toList());
+
+        return from(cart.getId(), cart.getUserId(), itemResponses, cart.getCreatedAt(), cart.getUpdatedAt());
+    }
+
+    private static CartResponse from(UUID cartId, UUID userId, List<CartItemResponse> itemResponses,
+                                     LocalDateTime createdAt, LocalDateTime updatedAt) {
         int totalItems = itemResponses.stream()
                 .mapToInt(CartItemResponse::getQuantity)
                 .sum();
@@ -36,13 +50,13 @@ public class CartResponse {
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
 
         return CartResponse.builder()
-                .cartId(cart.getId())
-                .userId(cart.getUser().getId())
+                .cartId(cartId)
+                .userId(userId)
                 .items(itemResponses)
                 .totalItems(totalItems)
                 .totalPrice(totalPrice)
-                .createdAt(cart.getCreatedAt())
-                .updatedAt(cart.getUpdatedAt())
+                .createdAt(createdAt)
+                .updatedAt(updatedAt)
                 .build();
     }
 }
\ No newline at end of file
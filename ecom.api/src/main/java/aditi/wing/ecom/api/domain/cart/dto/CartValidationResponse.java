@@ -0,0 +1,23 @@
+package aditi.wing.ecom.api.domain.cart.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Result of checking a cart before checkout. Lines whose price changed have
+ * already been repriced in the cart.
+ */
+@Data
+@Builder
+public class CartValidationResponse {
+
+    private UUID cartId;
+    private boolean valid;                 // no line blocks checkout; price changes don't
+    private List<CartLineValidation> items;
+    private BigDecimal previousTotalPrice; // total before repricing
+    private BigDecimal totalPrice;         // total at current prices
+}
@@ -2,7 +2,8 @@ package aditi.wing.ecom.api.domain.cart.model;
 
 import aditi.wing.ecom.api.domain.auth.model.User;
 import jakarta.persistence.*;
-import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -11,13 +12,14 @@ import java.util.UUID;
 
 @Entity
 @Table(name="cart")
-@Data
+@Getter
+@Setter
 public class Cart {
     @Id
     @GeneratedValue
     private UUID id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name="user_id")
     private User user;
 
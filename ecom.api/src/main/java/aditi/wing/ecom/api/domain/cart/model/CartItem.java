@@ -2,7 +2,8 @@ package aditi.wing.ecom.api.domain.cart.model;
 
 import aditi.wing.ecom.api.domain.seller.model.Product;
 import jakarta.persistence.*;
-import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -11,18 +12,19 @@ import java.util.UUID;
 @Entity
 @Table(name = "cart_items",
         uniqueConstraints = @UniqueConstraint(columnNames = {"cart_id","product_id"}))
-@Data
+@Getter
+@Setter
 public class CartItem {
 
     @Id
     @GeneratedValue
     private UUID id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cart_id")
     private Cart cart;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id")
     private Product product;
 
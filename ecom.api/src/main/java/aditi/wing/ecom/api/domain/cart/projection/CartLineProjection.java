@@ -0,0 +1,29 @@
+package aditi.wing.ecom.api.domain.cart.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One cart item with the product details shown for it. A cart without items
+ * is one row with only the cart columns set.
+ *
+ * A record filled by a JPQL constructor expression rather than an interface
+ * projection: cart reads return a row per item, and the proxy Spring Data
+ * puts behind each interface row costs more than loading the entities.
+ */
+public record CartLineProjection(
+        UUID cartId,
+        LocalDateTime cartCreatedAt,
+        LocalDateTime cartUpdatedAt,
+        UUID itemId,
+        Integer quantity,
+        BigDecimal price,
+        LocalDateTime itemCreatedAt,
+        LocalDateTime itemUpdatedAt,
+        UUID productId,
+        UUID sellerId,
+        String productName,
+        String imageUrl,
+        String category) {
+}
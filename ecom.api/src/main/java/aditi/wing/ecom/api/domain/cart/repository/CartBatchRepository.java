@@ -0,0 +1,125 @@
+package aditi.wing.ecom.api.domain.cart.repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Cart and cart item writes from the hot cart store, one JDBC batch per
+ * statement for all the carts of a flush. Joins the surrounding transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CartBatchRepository {
+
+    private static final String INSERT_CART_SQL = "INSERT INTO cart"
+            + " (id, user_id, created_at, updated_at) VALUES (?, ?, ?, ?)";
+
+    private static final String INSERT_GUEST_CART_SQL = "INSERT INTO cart"
+            + " (id, session_id, expires_at, created_at, updated_at) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String DELETE_GUEST_ITEMS_SQL = "DELETE FROM cart_items"
+            + " WHERE cart_id IN (SELECT id FROM cart WHERE user_id IS NULL AND session_id IS NOT NULL)";
+
+    private static final String DELETE_GUEST_CARTS_SQL = "DELETE FROM cart"
+            + " WHERE user_id IS NULL AND session_id IS NOT NULL";
+
+    private static final String TOUCH_CART_SQL = "UPDATE cart SET updated_at = ? WHERE id = ?";
+
+    private static final String INSERT_ITEM_SQL = "INSERT INTO cart_items"
+            + " (id, cart_id, product_id, quantity, price, created_at, updated_at)"
+            + " VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_ITEM_SQL = "UPDATE cart_items"
+            + " SET quantity = ?, price = ?, updated_at = ? WHERE id = ?";
+
+    private static final String DELETE_ITEM_SQL = "DELETE FROM cart_items WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record CartRow(UUID id, UUID userId, LocalDateTime createdAt, LocalDateTime updatedAt) {
+    }
+
+    public record GuestCartRow(UUID id, String sessionId, LocalDateTime expiresAt,
+                               LocalDateTime createdAt, LocalDateTime updatedAt) {
+    }
+
+    public record ItemRow(UUID id, UUID cartId, UUID productId, int quantity, BigDecimal price,
+                          LocalDateTime createdAt, LocalDateTime updatedAt) {
+    }
+
+    public void insertCarts(List<CartRow> carts) {
+        if (!carts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_CART_SQL, carts.stream()
+                    .map(cart -> new Object[] { cart.id(), cart.userId(),
+                            timestamp(cart.createdAt()), timestamp(cart.updatedAt()) })
+                    .toList());
+        }
+    }
+
+    public void insertGuestCarts(List<GuestCartRow> carts) {
+        if (!carts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_GUEST_CART_SQL, carts.stream()
+                    .map(cart -> new Object[] { cart.id(), cart.sessionId(), timestamp(cart.expiresAt()),
+                            timestamp(cart.createdAt()), timestamp(cart.updatedAt()) })
+                    .toList());
+        }
+    }
+
+    /**
+     * Delete all guest carts and their items.
+     *
+     * @return the number of guest carts deleted
+     */
+    public int deleteGuestCarts() {
+        jdbcTemplate.update(DELETE_GUEST_ITEMS_SQL);
+        return jdbcTemplate.update(DELETE_GUEST_CARTS_SQL);
+    }
+
+    public void touchCarts(List<CartRow> carts) {
+        if (!carts.isEmpty()) {
+            jdbcTemplate.batchUpdate(TOUCH_CART_SQL, carts.stream()
+                    .map(cart -> new Object[] { timestamp(cart.updatedAt()), cart.id() })
+                    .toList());
+        }
+    }
+
+    public void insertItems(List<ItemRow> items) {
+        if (!items.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ITEM_SQL, items.stream()
+                    .map(item -> new Object[] { item.id(), item.cartId(), item.productId(), item.quantity(),
+                            item.price(), timestamp(item.createdAt()), timestamp(item.updatedAt()) })
+                    .toList());
+        }
+    }
+
+    /**
+     * Rows that no longer exist (e.g. the cart was checked out) are skipped.
+     */
+    public void updateItems(List<ItemRow> items) {
+        if (!items.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_ITEM_SQL, items.stream()
+                    .map(item -> new Object[] { item.quantity(), item.price(), timestamp(item.updatedAt()), item.id() })
+                    .toList());
+        }
+    }
+
+    public void deleteItems(List<UUID> itemIds) {
+        if (!itemIds.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_ITEM_SQL, itemIds.stream()
+                    .map(id -> new Object[] { id })
+                    .toList());
+        }
+    }
+
+    private static Timestamp timestamp(LocalDateTime time) {
+        return time != null ? Timestamp.valueOf(time) : null;
+    }
+}
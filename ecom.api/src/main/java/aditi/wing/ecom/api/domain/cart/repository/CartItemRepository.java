@@ -4,6 +4,8 @@ import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import aditi.wing.ecom.api.domain.cart.model.CartItem;
 
@@ -12,5 +14,8 @@ public interface CartItemRepository extends JpaRepository<CartItem, UUID> {
 
     void deleteByCartId(UUID cartId);
 
+    @Query("SELECT ci.cart.user.id FROM CartItem ci WHERE ci.id = :cartItemId")
+    Optional<UUID> findUserIdById(@Param("cartItemId") UUID cartItemId);
+
     void deleteByProduct_Id(UUID productId);
 }
@@ -2,10 +2,13 @@ package aditi.wing.ecom.api.domain.cart.repository;
 
 import aditi.wing.ecom.api.domain.auth.model.User;
 import aditi.wing.ecom.api.domain.cart.model.Cart;
+import aditi.wing.ecom.api.domain.cart.projection.CartLineProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -14,4 +17,18 @@ public interface CartRepository extends JpaRepository<Cart, UUID> {
     Optional<Cart> findByUserId(@Param("userId") UUID userId);
     @Query("SELECT c FROM Cart c LEFT JOIN FETCH c.items ci LEFT JOIN FETCH ci.product WHERE c.user = :user")
     Optional<Cart> findByUserWithItems(@Param("user") User user);
+    /**
+     * The user's cart as flat rows, without loading the user or any entity.
+     */
+    @Query("SELECT new aditi.wing.ecom.api.domain.cart.projection.CartLineProjection(" +
+            "c.id, c.createdAt, c.updatedAt, ci.id, ci.quantity, ci.price, ci.createdAt, ci.updatedAt, " +
+            "p.id, p.sellerId, p.name, p.imageUrl, p.category) " +
+            "FROM Cart c LEFT JOIN c.items ci LEFT JOIN ci.product p " +
+            "WHERE c.user.id = :userId ORDER BY ci.createdAt, ci.id")
+    List<CartLineProjection> findLinesByUserId(@Param("userId") UUID userId);
+    @Query("SELECT DISTINCT c FROM Cart c LEFT JOIN FETCH c.items ci LEFT JOIN FETCH ci.product"
+            + " WHERE c.user IS NULL AND c.sessionId IS NOT NULL AND c.expiresAt > :now")
+    List<Cart> findGuestCartsWithItems(@Param("now") LocalDateTime now);
+    @Query("SELECT c.user.id FROM Cart c WHERE c.id = :cartId")
+    Optional<UUID> findUserIdById(@Param("cartId") UUID cartId);
 }
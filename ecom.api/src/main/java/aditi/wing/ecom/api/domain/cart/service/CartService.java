@@ -1,18 +1,48 @@
 package aditi.wing.ecom.api.domain.cart.service;
 
-import aditi.wing.ecom.api.domain.cart.model.Cart;
-import aditi.wing.ecom.api.domain.seller.model.Product;
+import aditi.wing.ecom.api.domain.cart.dto.CartBatchRequest;
+import aditi.wing.ecom.api.domain.cart.dto.CartResponse;
+import aditi.wing.ecom.api.domain.cart.dto.CartValidationResponse;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface CartService {
-    Cart addToCart(UUID userId,UUID productId, int quantity);
+    CartResponse addToCart(UUID userId,UUID productId, int quantity);
 
-    Cart getCartByUserId(UUID userId);
+    CartResponse getCartByUserId(UUID userId);
 
     void removeItem(UUID cartItemID);
 
     void updateQuantity(UUID cartItemId, int quantity);
 
     void clearCart(UUID cartId);
+
+    /**
+     * Apply the operations in order, all or none, and return the cart.
+     */
+    CartResponse applyToCart(UUID userId, List<CartBatchRequest.Operation> operations);
+
+    /**
+     * Check every line against current product data, repricing lines whose
+     * price changed, and report what changed or blocks checkout.
+     */
+    CartValidationResponse validateCart(UUID userId);
+
+    CartResponse addToGuestCart(UUID sessionId, UUID productId, int quantity);
+
+    CartResponse getGuestCart(UUID sessionId);
+
+    void updateGuestQuantity(UUID sessionId, UUID cartItemId, int quantity);
+
+    void removeGuestItem(UUID sessionId, UUID cartItemId);
+
+    CartResponse applyToGuestCart(UUID sessionId, List<CartBatchRequest.Operation> operations);
+
+    CartValidationResponse validateGuestCart(UUID sessionId);
+
+    /**
+     * Move the guest cart's items into the user's cart (on login or register).
+     */
+    void mergeGuestCart(UUID sessionId, UUID userId);
 }
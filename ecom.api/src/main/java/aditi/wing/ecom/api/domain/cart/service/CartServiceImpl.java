@@ -1,49 +1,188 @@
 package aditi.wing.ecom.api.domain.cart.service;
 
-import aditi.wing.ecom.api.domain.auth.model.User;
-import aditi.wing.ecom.api.domain.auth.repository.UserRepository;
-import aditi.wing.ecom.api.domain.cart.model.Cart;
-import aditi.wing.ecom.api.domain.cart.model.CartItem;
-import aditi.wing.ecom.api.domain.cart.repository.CartItemRepository;
-import aditi.wing.ecom.api.domain.cart.repository.CartRepository;
+import aditi.wing.ecom.api.domain.cart.dto.CartBatchRequest;
+import aditi.wing.ecom.api.domain.cart.dto.CartLineValidation;
+import aditi.wing.ecom.api.domain.cart.dto.CartResponse;
+import aditi.wing.ecom.api.domain.cart.dto.CartValidationResponse;
+import aditi.wing.ecom.api.domain.cart.store.GuestCartStore;
+import aditi.wing.ecom.api.domain.cart.store.HotCart;
+import aditi.wing.ecom.api.domain.cart.store.HotCartStore;
+import aditi.wing.ecom.api.domain.inventory.service.StockReservationLedger;
+import aditi.wing.ecom.api.domain.product.dto.ProductPublicDto;
+import aditi.wing.ecom.api.domain.product.service.ProductService;
 import aditi.wing.ecom.api.domain.seller.model.Product;
 import aditi.wing.ecom.api.domain.seller.repository.ProductRepository;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+/**
+ * Cart operations on the in-memory copies held by {@link HotCartStore} (users,
+ * written to the database in the background) and {@link GuestCartStore}
+ * (visitors, merged on login). Only the product (for its stock and price) is
+ * read per change; validation reads the products of the whole cart from the
+ * product detail cache, with one query for the ones not cached.
+ *
+ * In flash-sale mode a user's cart holds its units in the reservation ledger.
+ * Guest carts hold nothing: their session IDs are chosen by the client, so
+ * anyone could hold the whole stock by rotating them. Their stock is checked
+ * again when they are merged, which takes the holds for the user.
+ */
 @Service
-@Transactional
 @RequiredArgsConstructor
 public class CartServiceImpl implements CartService {
 
-    private final CartRepository cartRepository;
-    private final CartItemRepository cartItemRepository;
+    private final HotCartStore hotCartStore;
+    private final GuestCartStore guestCartStore;
     private final ProductRepository productRepository;
-    private final UserRepository userRepository;
+    private final ProductService productService;
+    private final StockReservationLedger reservationLedger;
 
     @Override
-    public Cart addToCart(UUID userId, UUID productId, int quantity) {
-        if (quantity <= 0) {
-            throw new IllegalArgumentException("Quantity must be greater than zero");
+    public CartResponse addToCart(UUID userId, UUID productId, int quantity) {
+        Product product = productInStock(productId, quantity);
+        return hotCartStore.update(userId, cart -> add(cart, userId, product, quantity));
+    }
+
+    @Override
+    public CartResponse getCartByUserId(UUID userId) {
+        return hotCartStore.read(userId, CartResponse::from);
+    }
+
+    @Override
+    public void updateQuantity(UUID cartItemId, int qty) {
+        UUID userId = ownerOfItem(cartItemId);
+        UUID productId = hotCartStore.read(userId, cart -> line(cart, cartItemId).getProductId());
+        productInStock(productId, qty);
+        hotCartStore.update(userId, cart -> setQuantity(cart, userId, cartItemId, qty));
+    }
+
+    @Override
+    public void clearCart(UUID cartId) {
+        UUID userId = hotCartStore.ownerOf(cartId);
+        if (userId == null) {
+            throw new RuntimeException("Cart not found with id: " + cartId);
         }
+        hotCartStore.update(userId, cart -> {
+            if (!cart.getId().equals(cartId)) {
+                throw new RuntimeException("Cart not found with id: " + cartId);
+            }
+            cart.clear();
+            return cart;
+        });
+        reservationLedger.releaseAll(userId);
+    }
 
-        // Fetch user first so we can set the relationship on Cart
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found: " + userId));
-
-        // Find existing cart or create a new one
-        // FIX: was returning cartRepository.save(c) early which made everything below unreachable
-        Cart cart = cartRepository.findByUserId(userId)
-                .orElseGet(() -> {
-                    Cart c = new Cart();
-                    c.setUser(user);
-                    c.setCreatedAt(LocalDateTime.now());
-                    return cartRepository.save(c);
-                });
+    @Override
+    public void removeItem(UUID cartItemId) {
+        UUID userId = ownerOfItem(cartItemId);
+        UUID productId = hotCartStore.update(userId, cart -> remove(cart, cartItemId));
+        reservationLedger.release(userId, productId);
+    }
+
+    @Override
+    public CartResponse applyToCart(UUID userId, List<CartBatchRequest.Operation> operations) {
+        Map<UUID, Product> products = productsFor(operations, hotCartStore.read(userId, cart -> List.copyOf(cart.getLines())));
+        return hotCartStore.update(userId, cart -> apply(cart, userId, operations, products));
+    }
+
+    @Override
+    public CartValidationResponse validateCart(UUID userId) {
+        Map<UUID, ProductPublicDto> products = currentProducts(hotCartStore.read(userId, cart -> List.copyOf(cart.getLines())));
+        return hotCartStore.update(userId, cart -> validate(cart, userId, products));
+    }
+
+    @Override
+    public CartResponse addToGuestCart(UUID sessionId, UUID productId, int quantity) {
+        Product product = productInStock(productId, quantity);
+        return guestCartStore.update(sessionId, cart -> add(cart, null, product, quantity));
+    }
+
+    @Override
+    public CartResponse getGuestCart(UUID sessionId) {
+        return guestCartStore.read(sessionId, CartResponse::from);
+    }
+
+    @Override
+    public void updateGuestQuantity(UUID sessionId, UUID cartItemId, int qty) {
+        UUID productId = guestCartStore.read(sessionId, cart -> line(cart, cartItemId).getProductId());
+        productInStock(productId, qty);
+        guestCartStore.update(sessionId, cart -> setQuantity(cart, null, cartItemId, qty));
+    }
+
+    @Override
+    public void removeGuestItem(UUID sessionId, UUID cartItemId) {
+        guestCartStore.read(sessionId, cart -> line(cart, cartItemId));
+        guestCartStore.update(sessionId, cart -> remove(cart, cartItemId));
+    }
+
+    @Override
+    public CartResponse applyToGuestCart(UUID sessionId, List<CartBatchRequest.Operation> operations) {
+        Map<UUID, Product> products = productsFor(operations, guestCartStore.read(sessionId, cart -> List.copyOf(cart.getLines())));
+        return guestCartStore.update(sessionId, cart -> apply(cart, null, operations, products));
+    }
+
+    @Override
+    public CartValidationResponse validateGuestCart(UUID sessionId) {
+        List<HotCart.Line> lines = guestCartStore.read(sessionId, cart -> List.copyOf(cart.getLines()));
+        if (lines.isEmpty()) {
+            // Don't start a cart just to report it empty
+            return guestCartStore.read(sessionId, cart -> validate(cart, null, Map.of()));
+        }
+        Map<UUID, ProductPublicDto> products = currentProducts(lines);
+        return guestCartStore.update(sessionId, cart -> validate(cart, null, products));
+    }
+
+    /**
+     * Add the guest's quantities to the user's cart with one product query.
+     * Lines are capped at the stock left and held for the user; lines of
+     * products that are gone, inactive or sold out are dropped.
+     */
+    @Override
+    public void mergeGuestCart(UUID sessionId, UUID userId) {
+        HotCart guest = guestCartStore.take(sessionId);
+        if (guest == null) {
+            return;
+        }
+        // Nobody else can see the guest cart any more
+        List<HotCart.Line> lines = List.copyOf(guest.getLines());
+        if (lines.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, Product> products = productRepository.findAllById(
+                        lines.stream().map(HotCart.Line::getProductId).toList()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        hotCartStore.update(userId, cart -> {
+            for (HotCart.Line line : lines) {
+                Product product = products.get(line.getProductId());
+                if (product == null || product.getStatus() == Product.ProductStatus.INACTIVE) {
+                    continue;
+                }
+                int current = cart.quantityOf(product.getId());
+                int merged = Math.min(current + line.getQuantity(), product.getStockQuantity());
+                if (merged > current && reservationLedger.hold(userId, product.getId(), merged)) {
+                    cart.put(product, merged);
+                }
+            }
+            return cart;
+        });
+    }
+
+    private Product productInStock(UUID productId, int quantity) {
+        positive(quantity);
 
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new RuntimeException("Product not found: " + productId));
@@ -54,85 +193,246 @@ public class CartServiceImpl implements CartService {
                             ", Available: " + product.getStockQuantity()
             );
         }
+        return product;
+    }
 
-        cartItemRepository.findByCartIdAndProductId(cart.getId(), productId)
-                .ifPresentOrElse(
-                        existingItem -> {
-                            int newQty = existingItem.getQuantity() + quantity;
-                            if (product.getStockQuantity() < newQty) {
-                                throw new RuntimeException(
-                                        "Not enough stock for total quantity: " + newQty +
-                                                ", Available: " + product.getStockQuantity()
-                                );
-                            }
-                            existingItem.setQuantity(newQty);
-                            existingItem.setUpdatedAt(LocalDateTime.now());
-                            cartItemRepository.save(existingItem);
-                        },
-                        () -> {
-                            CartItem newItem = new CartItem();
-                            newItem.setCart(cart);
-                            newItem.setProduct(product);
-                            newItem.setQuantity(quantity);
-                            newItem.setPrice(product.getPrice());
-                            newItem.setCreatedAt(LocalDateTime.now());
-                            newItem.setUpdatedAt(LocalDateTime.now());
-                            cartItemRepository.save(newItem);
-                            cart.getItems().add(newItem);
-                        }
-                );
+    private CartResponse add(HotCart cart, UUID ownerId, Product product, int quantity) {
+        int newQty = cart.quantityOf(product.getId()) + quantity;
+        if (product.getStockQuantity() < newQty) {
+            throw new RuntimeException(
+                    "Not enough stock for total quantity: " + newQty +
+                            ", Available: " + product.getStockQuantity()
+            );
+        }
+        holdStock(ownerId, product.getId(), newQty);
+        cart.put(product, newQty);
+        return CartResponse.from(cart);
+    }
 
-        return cartRepository.save(cart);
+    private HotCart.Line setQuantity(HotCart cart, UUID ownerId, UUID cartItemId, int qty) {
+        HotCart.Line item = line(cart, cartItemId);
+        holdStock(ownerId, item.getProductId(), qty);
+        cart.setQuantity(item, qty);
+        return item;
     }
-    @Override
-    public Cart getCartByUserId(UUID userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found: " + userId));
-
-        return cartRepository.findByUserId(userId)
-                .orElseGet(() -> {
-                    Cart newCart = new Cart();
-                    newCart.setUser(user);
-                    newCart.setCreatedAt(LocalDateTime.now());
-                    return cartRepository.save(newCart);
-                });
+
+    /**
+     * Products of the added and updated lines, loaded with one query.
+     */
+    private Map<UUID, Product> productsFor(List<CartBatchRequest.Operation> operations,
+                                           Collection<HotCart.Line> lines) {
+        Map<UUID, UUID> itemProducts = lines.stream()
+                .collect(Collectors.toMap(HotCart.Line::getId, HotCart.Line::getProductId));
+        Set<UUID> productIds = new HashSet<>();
+        for (CartBatchRequest.Operation operation : operations) {
+            if (operation.getType() == CartBatchRequest.Type.ADD && operation.getProductId() != null) {
+                productIds.add(operation.getProductId());
+            } else if (operation.getType() == CartBatchRequest.Type.UPDATE
+                    && itemProducts.containsKey(operation.getCartItemId())) {
+                productIds.add(itemProducts.get(operation.getCartItemId()));
+            }
+        }
+        return productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
     }
 
-    @Override
-    public void updateQuantity(UUID cartItemId, int qty) {
-        if (qty <= 0) {
-            throw new IllegalArgumentException("Quantity must be greater than zero");
+    /**
+     * Work out the final quantity of every product the operations touch and
+     * check all of them before changing anything, so a failing operation
+     * leaves the cart and the stock holds as they were. Guest carts (no
+     * owner) take no holds.
+     */
+    private CartResponse apply(HotCart cart, UUID ownerId, List<CartBatchRequest.Operation> operations,
+                               Map<UUID, Product> products) {
+        Map<UUID, Integer> quantities = new LinkedHashMap<>();
+        for (CartBatchRequest.Operation operation : operations) {
+            switch (operation.getType()) {
+                case ADD -> {
+                    if (operation.getProductId() == null) {
+                        throw new IllegalArgumentException("Product ID is required");
+                    }
+                    UUID productId = operation.getProductId();
+                    positive(operation.getQuantity());
+                    if (!products.containsKey(productId)) {
+                        throw new RuntimeException("Product not found: " + productId);
+                    }
+                    quantities.put(productId,
+                            quantities.getOrDefault(productId, cart.quantityOf(productId)) + operation.getQuantity());
+                }
+                case UPDATE -> {
+                    positive(operation.getQuantity());
+                    quantities.put(line(cart, operation.getCartItemId()).getProductId(), operation.getQuantity());
+                }
+                case REMOVE -> quantities.put(line(cart, operation.getCartItemId()).getProductId(), 0);
+            }
         }
 
-        CartItem item = cartItemRepository.findById(cartItemId)
-                .orElseThrow(() -> new RuntimeException("Cart item not found: " + cartItemId));
+        quantities.forEach((productId, quantity) -> {
+            Product product = products.get(productId);
+            if (quantity > 0 && product == null) {
+                // The cart item changed between reading the cart and applying
+                throw new RuntimeException("Product not found: " + productId);
+            }
+            if (quantity > 0 && product.getStockQuantity() < quantity) {
+                throw new RuntimeException(
+                        "Not enough stock for " + product.getName() + ". Requested: " + quantity +
+                                ", Available: " + product.getStockQuantity()
+                );
+            }
+        });
 
-        Product product = item.getProduct();
-        if (product.getStockQuantity() < qty) {
-            throw new RuntimeException(
-                    "Not enough stock. Requested: " + qty +
-                            ", Available: " + product.getStockQuantity()
-            );
+        // Take the extra units first; returning units can't fail
+        Map<UUID, Integer> held = new LinkedHashMap<>();
+        for (Map.Entry<UUID, Integer> entry : quantities.entrySet()) {
+            UUID productId = entry.getKey();
+            int current = cart.quantityOf(productId);
+            if (entry.getValue() <= current) {
+                continue;
+            }
+            if (ownerId != null && !reservationLedger.hold(ownerId, productId, entry.getValue())) {
+                held.forEach((heldId, previous) -> {
+                    if (previous > 0) {
+                        reservationLedger.hold(ownerId, heldId, previous);
+                    } else {
+                        reservationLedger.release(ownerId, heldId);
+                    }
+                });
+                throw new RuntimeException(
+                        "Not enough stock. Requested: " + entry.getValue() +
+                                ", Available: " + reservationLedger.available(productId)
+                );
+            }
+            held.put(productId, current);
         }
 
-        item.setQuantity(qty);
-        item.setUpdatedAt(LocalDateTime.now());
-        cartItemRepository.save(item);
+        quantities.forEach((productId, quantity) -> {
+            if (quantity == 0) {
+                cart.lineOf(productId).ifPresent(cart::remove);
+                if (ownerId != null) {
+                    reservationLedger.release(ownerId, productId);
+                }
+            } else if (quantity != cart.quantityOf(productId)) {
+                if (ownerId != null && !held.containsKey(productId)) {
+                    reservationLedger.hold(ownerId, productId, quantity);
+                }
+                cart.put(products.get(productId), quantity);
+            }
+        });
+        return CartResponse.from(cart);
     }
 
-    @Override
-    public void clearCart(UUID cartId) {
-        if (!cartRepository.existsById(cartId)) {
-            throw new RuntimeException("Cart not found with id: " + cartId);
+    private Map<UUID, ProductPublicDto> currentProducts(Collection<HotCart.Line> lines) {
+        return productService.getProductsByIds(lines.stream().map(HotCart.Line::getProductId).toList());
+    }
+
+    /**
+     * Reprice every line to its product's current price and check it is
+     * still for sale with enough stock. Lines added since the products were
+     * read are checked like the rest; deleted products read as inactive.
+     */
+    private CartValidationResponse validate(HotCart cart, UUID ownerId, Map<UUID, ProductPublicDto> products) {
+        List<CartLineValidation> items = new ArrayList<>();
+        BigDecimal previousTotal = BigDecimal.ZERO;
+        BigDecimal total = BigDecimal.ZERO;
+        boolean valid = true;
+
+        for (HotCart.Line line : List.copyOf(cart.getLines())) {
+            ProductPublicDto product = products.get(line.getProductId());
+            BigDecimal previousPrice = line.getPrice();
+            List<CartLineValidation.Issue> issues = new ArrayList<>();
+            long available = 0;
+
+            // Sold out is a stock issue, reported below
+            if (product == null || Product.ProductStatus.INACTIVE.name().equals(product.getStatus())) {
+                issues.add(CartLineValidation.Issue.PRODUCT_INACTIVE);
+            } else {
+                if (product.getPrice().compareTo(previousPrice) != 0) {
+                    issues.add(CartLineValidation.Issue.PRICE_CHANGED);
+                    cart.reprice(line, product.getPrice());
+                }
+                available = availableTo(ownerId, product);
+                if (available < line.getQuantity()) {
+                    issues.add(CartLineValidation.Issue.INSUFFICIENT_STOCK);
+                }
+            }
+            if (issues.contains(CartLineValidation.Issue.PRODUCT_INACTIVE)
+                    || issues.contains(CartLineValidation.Issue.INSUFFICIENT_STOCK)) {
+                valid = false;
+            }
+
+            BigDecimal quantity = BigDecimal.valueOf(line.getQuantity());
+            previousTotal = previousTotal.add(previousPrice.multiply(quantity));
+            total = total.add(line.getPrice().multiply(quantity));
+            items.add(CartLineValidation.builder()
+                    .cartItemId(line.getId())
+                    .productId(line.getProductId())
+                    .productName(line.getProductName())
+                    .quantity(line.getQuantity())
+                    .previousPrice(previousPrice)
+                    .unitPrice(line.getPrice())
+                    .availableStock(available)
+                    .issues(issues)
+                    .build());
         }
-        cartItemRepository.deleteByCartId(cartId);
+
+        return CartValidationResponse.builder()
+                .cartId(cart.getId())
+                .valid(valid)
+                .items(items)
+                .previousTotalPrice(previousTotal)
+                .totalPrice(total)
+                .build();
     }
 
-    @Override
-    public void removeItem(UUID cartItemId) {
-        if (!cartItemRepository.existsById(cartItemId)) {
+    /**
+     * Units the owner can buy: in flash-sale mode what is left in the ledger
+     * plus what the owner already holds (nothing for a guest), otherwise the
+     * product's stock.
+     */
+    private long availableTo(UUID ownerId, ProductPublicDto product) {
+        if (reservationLedger.isEnabled()) {
+            long held = ownerId != null ? reservationLedger.held(ownerId, product.getId()) : 0;
+            return reservationLedger.available(product.getId()) + held;
+        }
+        return product.getStockQuantity();
+    }
+
+    private static void positive(int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be greater than zero");
+        }
+    }
+
+    private UUID remove(HotCart cart, UUID cartItemId) {
+        HotCart.Line item = line(cart, cartItemId);
+        cart.remove(item);
+        return item.getProductId();
+    }
+
+    private UUID ownerOfItem(UUID cartItemId) {
+        UUID userId = hotCartStore.ownerOf(cartItemId);
+        if (userId == null) {
             throw new RuntimeException("Cart item not found: " + cartItemId);
         }
-        cartItemRepository.deleteById(cartItemId);
+        return userId;
+    }
+
+    private static HotCart.Line line(HotCart cart, UUID cartItemId) {
+        return cart.line(cartItemId)
+                .orElseThrow(() -> new RuntimeException("Cart item not found: " + cartItemId));
+    }
+
+    /**
+     * In flash-sale mode, hold the cart quantity of a user's cart in the
+     * reservation ledger so it can't be sold to someone else before checkout.
+     * Guest carts (no owner) hold nothing.
+     */
+    private void holdStock(UUID ownerId, UUID productId, int quantity) {
+        if (ownerId != null && !reservationLedger.hold(ownerId, productId, quantity)) {
+            throw new RuntimeException(
+                    "Not enough stock. Requested: " + quantity +
+                            ", Available: " + reservationLedger.available(productId)
+            );
+        }
     }
 }
\ No newline at end of file
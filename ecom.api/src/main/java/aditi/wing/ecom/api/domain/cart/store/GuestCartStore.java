@@ -0,0 +1,211 @@
+package aditi.wing.ecom.api.domain.cart.store;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.Scheduler;
+
+import aditi.wing.ecom.api.domain.cart.model.Cart;
+import aditi.wing.ecom.api.domain.cart.repository.CartBatchRepository;
+import aditi.wing.ecom.api.domain.cart.repository.CartBatchRepository.GuestCartRow;
+import aditi.wing.ecom.api.domain.cart.repository.CartBatchRepository.ItemRow;
+import aditi.wing.ecom.api.domain.cart.repository.CartRepository;
+import aditi.wing.ecom.api.domain.seller.event.ProductChangedEvent;
+import aditi.wing.ecom.api.domain.seller.model.Product;
+import aditi.wing.ecom.api.domain.seller.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Carts of visitors who are not logged in, keyed by a session ID the client
+ * generates. They live only in memory: browsing never writes to the database,
+ * and the cart is merged into the user's cart when the visitor logs in or
+ * registers.
+ *
+ * Each cart expires app.cart.guest.ttl after it was last used. Caffeine keeps
+ * variable expirations in a hierarchical timer wheel, so expiring abandoned
+ * carts costs O(1) per cart without scanning the store, and its scheduler
+ * removes them on time even without traffic. Guest carts take no stock
+ * holds, so expiring one returns nothing. Metrics are published as cache.*
+ * meters tagged cache=guest-carts.
+ *
+ * On graceful shutdown the carts are written to the cart table with only
+ * session_id and expires_at set, and read back (and deleted) on the next
+ * start, so a deployment doesn't empty them.
+ */
+@Component
+@Slf4j
+public class GuestCartStore {
+
+    private final CartRepository cartRepository;
+    private final CartBatchRepository cartBatchRepository;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<UUID, HotCart> carts;
+
+    public GuestCartStore(
+            CartRepository cartRepository,
+            CartBatchRepository cartBatchRepository,
+            ProductRepository productRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${app.cart.guest.max-size:100000}") long maxSize,
+            @Value("${app.cart.guest.ttl:24h}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        this.cartRepository = cartRepository;
+        this.cartBatchRepository = cartBatchRepository;
+        this.productRepository = productRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.carts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.accessing((UUID sessionId, HotCart cart) -> ttl))
+                .scheduler(Scheduler.systemScheduler())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, carts, "guest-carts");
+    }
+
+    /**
+     * Run a read on the guest cart. A session without a cart reads an empty
+     * one, which is not kept.
+     */
+    public <T> T read(UUID sessionId, Function<HotCart, T> reader) {
+        HotCart cart = carts.getIfPresent(sessionId);
+        if (cart == null) {
+            return reader.apply(HotCart.empty(null));
+        }
+        synchronized (cart) {
+            return reader.apply(cart);
+        }
+    }
+
+    /**
+     * Change the guest cart, starting one if the session has none.
+     */
+    public <T> T update(UUID sessionId, Function<HotCart, T> change) {
+        while (true) {
+            HotCart cart = carts.get(sessionId, id -> HotCart.empty(null));
+            synchronized (cart) {
+                // Merged while we were getting it: start a new one
+                if (!cart.isDiscarded()) {
+                    return change.apply(cart);
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove the guest cart for merging into a user's cart.
+     *
+     * @return the cart, or null if the session has none
+     */
+    public HotCart take(UUID sessionId) {
+        HotCart cart = carts.asMap().remove(sessionId);
+        if (cart != null) {
+            synchronized (cart) {
+                cart.discard();
+            }
+        }
+        return cart;
+    }
+
+    /**
+     * Show current product details and drop lines of deleted products.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.stockOnly()) {
+            return;
+        }
+        Set<UUID> productIds = event.productIds();
+        List<HotCart> affected = carts.asMap().values().stream()
+                .filter(cart -> {
+                    synchronized (cart) {
+                        return cart.containsAny(productIds);
+                    }
+                })
+                .toList();
+        if (affected.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        for (HotCart cart : affected) {
+            synchronized (cart) {
+                cart.refreshProducts(productIds, products);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore() {
+        Policy.VarExpiration<UUID, HotCart> expiration = carts.policy().expireVariably().orElseThrow();
+        int restored = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Cart> saved = cartRepository.findGuestCartsWithItems(now);
+            for (Cart cart : saved) {
+                expiration.put(UUID.fromString(cart.getSessionId()), HotCart.of(cart, null),
+                        Duration.between(now, cart.getExpiresAt()));
+            }
+            // Expired ones too
+            cartBatchRepository.deleteGuestCarts();
+            return saved.size();
+        });
+        if (restored > 0) {
+            log.info("Restored {} guest carts saved at shutdown", restored);
+        }
+    }
+
+    @PreDestroy
+    public void save() {
+        Policy.VarExpiration<UUID, HotCart> expiration = carts.policy().expireVariably().orElseThrow();
+        List<GuestCartRow> cartRows = new ArrayList<>();
+        List<ItemRow> itemRows = new ArrayList<>();
+        for (Map.Entry<UUID, HotCart> entry : carts.asMap().entrySet()) {
+            HotCart cart = entry.getValue();
+            synchronized (cart) {
+                if (cart.getLines().isEmpty()) {
+                    continue;
+                }
+                LocalDateTime expiresAt = LocalDateTime.now().plus(
+                        expiration.getExpiresAfter(entry.getKey()).orElse(Duration.ZERO));
+                cartRows.add(new GuestCartRow(cart.getId(), entry.getKey().toString(), expiresAt,
+                        cart.getCreatedAt(), cart.getUpdatedAt()));
+                itemRows.addAll(cart.rows());
+            }
+        }
+        if (cartRows.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                cartBatchRepository.insertGuestCarts(cartRows);
+                cartBatchRepository.insertItems(itemRows);
+            });
+            log.info("Saved {} guest carts for the next start", cartRows.size());
+        } catch (RuntimeException e) {
+            log.error("Could not save {} guest carts at shutdown: {}", cartRows.size(), e.getMessage());
+        }
+    }
+}
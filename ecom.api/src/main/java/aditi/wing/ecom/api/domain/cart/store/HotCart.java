@@ -0,0 +1,353 @@
+package aditi.wing.ecom.api.domain.cart.store;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import aditi.wing.ecom.api.domain.cart.model.Cart;
+import aditi.wing.ecom.api.domain.cart.model.CartItem;
+import aditi.wing.ecom.api.domain.cart.projection.CartLineProjection;
+import aditi.wing.ecom.api.domain.cart.repository.CartBatchRepository.CartRow;
+import aditi.wing.ecom.api.domain.cart.repository.CartBatchRepository.ItemRow;
+import aditi.wing.ecom.api.domain.seller.model.Product;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * A cart held in memory by {@link HotCartStore}. Lines are keyed by product,
+ * like the (cart_id, product_id) unique constraint on cart_items.
+ *
+ * Every change bumps a version on the cart and on the lines it touched; the
+ * store writes what changed since the versions it last wrote, so any number
+ * of clicks between two flushes costs one row write per line. Not
+ * thread-safe: callers hold the cart's monitor.
+ */
+@Getter
+public final class HotCart {
+
+    private final UUID id;
+    private final UUID userId;
+    private final LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    @Getter(AccessLevel.NONE)
+    private final Map<UUID, Line> lines = new LinkedHashMap<>();
+    @Getter(AccessLevel.NONE)
+    private final List<UUID> removedItemIds = new ArrayList<>();
+    @Getter(AccessLevel.NONE)
+    private boolean persisted;
+    @Getter(AccessLevel.NONE)
+    private long version;
+    @Getter(AccessLevel.NONE)
+    private long flushedVersion;
+    @Getter(AccessLevel.PACKAGE)
+    private boolean discarded;
+    @Getter(AccessLevel.PACKAGE)
+    private boolean checkingOut;
+    // Changes were taken and are being written
+    @Getter(AccessLevel.PACKAGE)
+    private boolean writing;
+
+    private HotCart(UUID id, UUID userId, LocalDateTime createdAt, LocalDateTime updatedAt, boolean persisted) {
+        this.id = id;
+        this.userId = userId;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.persisted = persisted;
+    }
+
+    /**
+     * A cart the user doesn't have yet, or a guest cart when userId is null.
+     * It is only written once it has changed.
+     */
+    static HotCart empty(UUID userId) {
+        LocalDateTime now = LocalDateTime.now();
+        return new HotCart(UUID.randomUUID(), userId, now, now, false);
+    }
+
+    /**
+     * Copy of a cart loaded with its items and their products.
+     */
+    static HotCart of(Cart cart, UUID userId) {
+        HotCart hot = new HotCart(cart.getId(), userId, cart.getCreatedAt(), cart.getUpdatedAt(), true);
+        for (CartItem item : cart.getItems()) {
+            Line line = new Line(item.getId(), item.getProduct().getId(), item.getPrice(), item.getCreatedAt());
+            line.describe(item.getProduct());
+            hot.load(line, item.getQuantity(), item.getUpdatedAt());
+        }
+        return hot;
+    }
+
+    /**
+     * Copy of a cart read as rows (see CartRepository.findLinesByUserId).
+     *
+     * @return null when there are no rows: the user has no cart
+     */
+    static HotCart of(List<CartLineProjection> rows, UUID userId) {
+        if (rows.isEmpty()) {
+            return null;
+        }
+        CartLineProjection first = rows.get(0);
+        HotCart hot = new HotCart(first.cartId(), userId, first.cartCreatedAt(), first.cartUpdatedAt(), true);
+        for (CartLineProjection row : rows) {
+            if (row.itemId() == null) {
+                continue;
+            }
+            Line line = new Line(row.itemId(), row.productId(), row.price(), row.itemCreatedAt());
+            line.describe(row.sellerId(), row.productName(), row.imageUrl(), row.category());
+            hot.load(line, row.quantity(), row.itemUpdatedAt());
+        }
+        return hot;
+    }
+
+    private void load(Line line, int quantity, LocalDateTime updatedAt) {
+        line.quantity = quantity;
+        line.updatedAt = updatedAt;
+        line.persisted = true;
+        line.written = true;
+        lines.put(line.productId, line);
+    }
+
+    public Collection<Line> getLines() {
+        return Collections.unmodifiableCollection(lines.values());
+    }
+
+    public int quantityOf(UUID productId) {
+        Line line = lines.get(productId);
+        return line != null ? line.quantity : 0;
+    }
+
+    public Optional<Line> lineOf(UUID productId) {
+        return Optional.ofNullable(lines.get(productId));
+    }
+
+    public Optional<Line> line(UUID cartItemId) {
+        return lines.values().stream().filter(line -> line.id.equals(cartItemId)).findFirst();
+    }
+
+    /**
+     * Set the quantity of the product, adding a line at its current price when
+     * the cart doesn't have one yet.
+     */
+    public Line put(Product product, int quantity) {
+        Line line = lines.computeIfAbsent(product.getId(), productId -> {
+            Line added = new Line(UUID.randomUUID(), productId, product.getPrice(), LocalDateTime.now());
+            added.describe(product);
+            return added;
+        });
+        line.quantity = quantity;
+        touch(line);
+        return line;
+    }
+
+    public void setQuantity(Line line, int quantity) {
+        line.quantity = quantity;
+        touch(line);
+    }
+
+    /**
+     * Charge the line at the product's current price from now on.
+     */
+    public void reprice(Line line, BigDecimal price) {
+        line.price = price;
+        touch(line);
+    }
+
+    public void remove(Line line) {
+        if (lines.remove(line.productId, line)) {
+            if (line.written) {
+                removedItemIds.add(line.id);
+            }
+            touch(null);
+        }
+    }
+
+    public void clear() {
+        List.copyOf(lines.values()).forEach(this::remove);
+    }
+
+    /**
+     * Refresh the product details shown on the lines of the given products,
+     * dropping lines of products that were deleted. Prices stay as added until
+     * the cart is validated.
+     */
+    void refreshProducts(Set<UUID> productIds, Map<UUID, Product> products) {
+        for (Line line : List.copyOf(lines.values())) {
+            if (!productIds.contains(line.productId)) {
+                continue;
+            }
+            Product product = products.get(line.productId);
+            if (product == null) {
+                remove(line);
+            } else {
+                line.describe(product);
+            }
+        }
+    }
+
+    boolean containsAny(Set<UUID> productIds) {
+        return lines.keySet().stream().anyMatch(productIds::contains);
+    }
+
+    boolean isDirty() {
+        return version != flushedVersion;
+    }
+
+    void discard() {
+        discarded = true;
+        writing = false;
+    }
+
+    void startCheckout() {
+        checkingOut = true;
+    }
+
+    /**
+     * The checkout is over. When the order was placed it deleted the cart's
+     * items, so the lines are dropped without anything left to write.
+     */
+    void endCheckout(boolean ordered) {
+        checkingOut = false;
+        if (ordered) {
+            lines.clear();
+            removedItemIds.clear();
+            flushedVersion = version;
+        }
+    }
+
+    /**
+     * What changed since the last flush. Removed items are handed over; give
+     * them back with {@link #restore} if the write fails. Until then the cart
+     * is writing and nothing else may take its changes.
+     */
+    Changes changes() {
+        writing = true;
+        Changes changes = new Changes(this, version,
+                new CartRow(id, userId, createdAt, updatedAt), !persisted);
+        changes.deletes.addAll(removedItemIds);
+        removedItemIds.clear();
+        for (Line line : lines.values()) {
+            if (line.version == line.flushedVersion) {
+                continue;
+            }
+            ItemRow row = new ItemRow(line.id, id, line.productId, line.quantity, line.price,
+                    line.createdAt, line.updatedAt);
+            (line.persisted ? changes.updates : changes.inserts).add(row);
+            changes.lines.add(new Written(line, line.version));
+            // From here on the row may exist, so a removal must delete it
+            line.written = true;
+        }
+        return changes;
+    }
+
+    void flushed(Changes changes) {
+        writing = false;
+        persisted = true;
+        flushedVersion = Math.max(flushedVersion, changes.version);
+        for (Written written : changes.lines) {
+            written.line.persisted = true;
+            written.line.flushedVersion = Math.max(written.line.flushedVersion, written.version);
+        }
+    }
+
+    void restore(Changes changes) {
+        writing = false;
+        removedItemIds.addAll(changes.deletes);
+    }
+
+    /**
+     * All lines as rows, for carts written whole (guest carts at shutdown).
+     */
+    List<ItemRow> rows() {
+        return lines.values().stream()
+                .map(line -> new ItemRow(line.id, id, line.productId, line.quantity, line.price,
+                        line.createdAt, line.updatedAt))
+                .toList();
+    }
+
+    private void touch(Line line) {
+        LocalDateTime now = LocalDateTime.now();
+        if (line != null) {
+            line.updatedAt = now;
+            line.version++;
+        }
+        updatedAt = now;
+        version++;
+    }
+
+    @Getter
+    public static final class Line {
+
+        private final UUID id;
+        private final UUID productId;
+        private BigDecimal price;
+        private final LocalDateTime createdAt;
+        private UUID sellerId;
+        private String productName;
+        private String imageUrl;
+        private String category;
+        private int quantity;
+        private LocalDateTime updatedAt;
+
+        @Getter(AccessLevel.NONE)
+        private long version;
+        @Getter(AccessLevel.NONE)
+        private long flushedVersion;
+        @Getter(AccessLevel.NONE)
+        private boolean persisted;
+        @Getter(AccessLevel.NONE)
+        private boolean written;
+
+        private Line(UUID id, UUID productId, BigDecimal price, LocalDateTime createdAt) {
+            this.id = id;
+            this.productId = productId;
+            this.price = price;
+            this.createdAt = createdAt;
+            this.updatedAt = createdAt;
+        }
+
+        private void describe(Product product) {
+            describe(product.getSellerId(), product.getName(), product.getImageUrl(), product.getCategory());
+        }
+
+        private void describe(UUID sellerId, String productName, String imageUrl, String category) {
+            this.sellerId = sellerId;
+            this.productName = productName;
+            this.imageUrl = imageUrl;
+            this.category = category;
+        }
+    }
+
+    private record Written(Line line, long version) {
+    }
+
+    /**
+     * Rows to write for one cart, and the versions they were taken at.
+     */
+    static final class Changes {
+
+        final HotCart cart;
+        final long version;
+        final CartRow cartRow;
+        final boolean insertCart;
+        final List<ItemRow> inserts = new ArrayList<>();
+        final List<ItemRow> updates = new ArrayList<>();
+        final List<UUID> deletes = new ArrayList<>();
+        private final List<Written> lines = new ArrayList<>();
+
+        private Changes(HotCart cart, long version, CartRow cartRow, boolean insertCart) {
+            this.cart = cart;
+            this.version = version;
+            this.cartRow = cartRow;
+            this.insertCart = insertCart;
+        }
+    }
+}
@@ -0,0 +1,450 @@
+package aditi.wing.ecom.api.domain.cart.store;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import aditi.wing.ecom.api.domain.auth.repository.UserRepository;
+import aditi.wing.ecom.api.domain.cart.repository.CartBatchRepository;
+import aditi.wing.ecom.api.domain.cart.repository.CartBatchRepository.CartRow;
+import aditi.wing.ecom.api.domain.cart.repository.CartItemRepository;
+import aditi.wing.ecom.api.domain.cart.repository.CartRepository;
+import aditi.wing.ecom.api.domain.seller.event.ProductChangedEvent;
+import aditi.wing.ecom.api.domain.seller.model.Product;
+import aditi.wing.ecom.api.domain.seller.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Active carts kept in memory, keyed by user ID, with write-behind to the
+ * cart and cart_items tables.
+ *
+ * Reads and changes work on the in-memory {@link HotCart} under its monitor;
+ * changed carts are written every app.cart.hot-store.flush-interval in one
+ * transaction with a JDBC batch per statement, coalescing every change made
+ * since the last flush. Checkout writes the buyer's cart in the order
+ * transaction and holds changes to it until that transaction ends, and
+ * shutdown writes everything left, so only a crash loses at most one
+ * interval of cart edits.
+ *
+ * Caffeine bounds the store by count and idle time. A changed cart that is
+ * evicted before its flush stays reachable through the dirty map and is
+ * served from there if it comes back. Cart and item IDs are resolved to their
+ * owner through a bounded index, falling back to the database for anything
+ * older than a flush. Metrics are published as cache.* meters tagged
+ * cache=hot-carts, plus cart.hot-store.dirty and cart.hot-store.flush. The
+ * store assumes a single API instance.
+ */
+@Component
+@Slf4j
+public class HotCartStore {
+
+    private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final CartBatchRepository cartBatchRepository;
+    private final UserRepository userRepository;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Cache<UUID, HotCart> carts;
+    private final Cache<UUID, UUID> owners;
+    private final Map<UUID, HotCart> dirty = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Timer flushTimer;
+
+    public HotCartStore(
+            CartRepository cartRepository,
+            CartItemRepository cartItemRepository,
+            CartBatchRepository cartBatchRepository,
+            UserRepository userRepository,
+            ProductRepository productRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.cart.hot-store.max-size:10000}") long maxSize,
+            @Value("${app.cart.hot-store.idle-ttl:30m}") Duration idleTtl,
+            MeterRegistry meterRegistry) {
+        this.cartRepository = cartRepository;
+        this.cartItemRepository = cartItemRepository;
+        this.cartBatchRepository = cartBatchRepository;
+        this.userRepository = userRepository;
+        this.productRepository = productRepository;
+
+        // Flushes commit on their own, whatever transaction the caller has open
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.carts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(idleTtl)
+                .recordStats()
+                .build();
+        this.owners = Caffeine.newBuilder()
+                .maximumSize(maxSize * 16)
+                .expireAfterWrite(idleTtl)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, carts, "hot-carts");
+        Gauge.builder("cart.hot-store.dirty", dirty, Map::size)
+                .description("Carts changed since they were last written")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("cart.hot-store.flush")
+                .description("Time to write the changed carts of one flush")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run a read on the user's cart, loading it (or starting an empty one)
+     * when it isn't in memory.
+     *
+     * @throws RuntimeException if the user does not exist
+     */
+    public <T> T read(UUID userId, Function<HotCart, T> reader) {
+        while (true) {
+            HotCart cart = carts.get(userId, this::load);
+            synchronized (cart) {
+                if (!cart.isDiscarded()) {
+                    return reader.apply(cart);
+                }
+            }
+        }
+    }
+
+    /**
+     * Change the user's cart. Exceptions thrown by the change propagate;
+     * whatever it did to the cart before throwing is kept.
+     *
+     * @throws RuntimeException if the user does not exist
+     */
+    public <T> T update(UUID userId, Function<HotCart, T> change) {
+        return apply(userId, change, true);
+    }
+
+    /**
+     * Owner of a cart or cart item ID.
+     */
+    public UUID ownerOf(UUID cartOrItemId) {
+        UUID owner = owners.getIfPresent(cartOrItemId);
+        if (owner != null) {
+            return owner;
+        }
+        return cartItemRepository.findUserIdById(cartOrItemId)
+                .or(() -> cartRepository.findUserIdById(cartOrItemId))
+                .orElse(null);
+    }
+
+    /**
+     * Place an order from the user's cart. Must run inside the order
+     * transaction, which reads the cart from the database and deletes its
+     * items.
+     *
+     * The cart's pending rows are written in that transaction first. From
+     * then until it completes, changes to the cart wait and flushes skip it,
+     * so nothing lands between what the order read and what it deleted. Once
+     * the order commits the copy is emptied; if it rolls back the copy keeps
+     * its lines, still to be written.
+     */
+    public <T> T checkout(UUID userId, Supplier<T> placeOrder) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Checkout must run inside the order transaction");
+        }
+        HotCart[] checkedOut = new HotCart[1];
+        HotCart.Changes changes = apply(userId, cart -> {
+            cart.startCheckout();
+            checkedOut[0] = cart;
+            // A flush that took the changes before us finishes (or gives them back) first
+            awaitWrite(cart);
+            return cart.isDirty() ? cart.changes() : null;
+        }, false);
+        HotCart cart = checkedOut[0];
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                endCheckout(cart, changes, status == STATUS_COMMITTED);
+            }
+        });
+        if (changes != null) {
+            flushTimer.record(() -> writeRows(List.of(changes)));
+        }
+        return placeOrder.get();
+    }
+
+    @Scheduled(fixedDelayString = "${app.cart.hot-store.flush-interval:2s}")
+    public void flush() {
+        if (!dirty.isEmpty()) {
+            flush(List.copyOf(dirty.values()));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        if (!dirty.isEmpty()) {
+            log.error("{} carts could not be written before shutdown", dirty.size());
+        }
+    }
+
+    /**
+     * Show current product details on hot lines and drop lines of deleted
+     * products; their rows were deleted with the product.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.stockOnly()) {
+            return;
+        }
+        Set<UUID> productIds = event.productIds();
+        List<HotCart> affected = hotCarts().stream()
+                .filter(cart -> {
+                    synchronized (cart) {
+                        return cart.containsAny(productIds);
+                    }
+                })
+                .toList();
+        if (affected.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        for (HotCart cart : affected) {
+            synchronized (cart) {
+                cart.refreshProducts(productIds, products);
+                if (cart.isDirty()) {
+                    dirty.put(cart.getUserId(), cart);
+                }
+            }
+        }
+    }
+
+    /**
+     * Every use of a cart but a plain read goes through here: it waits for a
+     * checkout of the cart to finish.
+     */
+    private <T> T apply(UUID userId, Function<HotCart, T> function, boolean change) {
+        while (true) {
+            HotCart cart = carts.get(userId, this::load);
+            synchronized (cart) {
+                awaitCheckout(cart);
+                // Dropped while we were getting it: the next get reloads
+                if (cart.isDiscarded()) {
+                    continue;
+                }
+                try {
+                    return function.apply(cart);
+                } finally {
+                    if (change) {
+                        index(cart);
+                        if (cart.isDirty()) {
+                            dirty.put(userId, cart);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static void awaitCheckout(HotCart cart) {
+        while (cart.isCheckingOut()) {
+            try {
+                cart.wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while the cart was being checked out", e);
+            }
+        }
+    }
+
+    private static void awaitWrite(HotCart cart) {
+        while (cart.isWriting()) {
+            try {
+                cart.wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while the cart was being written", e);
+            }
+        }
+    }
+
+    private void endCheckout(HotCart cart, HotCart.Changes changes, boolean ordered) {
+        synchronized (cart) {
+            if (changes != null) {
+                if (ordered) {
+                    cart.flushed(changes);
+                } else {
+                    cart.restore(changes);
+                }
+            }
+            cart.endCheckout(ordered);
+            if (cart.isDirty()) {
+                dirty.put(cart.getUserId(), cart);
+            } else {
+                dirty.remove(cart.getUserId(), cart);
+            }
+            cart.notifyAll();
+        }
+    }
+
+    private HotCart load(UUID userId) {
+        HotCart pending = dirty.get(userId);
+        if (pending != null) {
+            return pending;
+        }
+
+        HotCart cart = HotCart.of(cartRepository.findLinesByUserId(userId), userId);
+        if (cart == null) {
+            if (!userRepository.existsById(userId)) {
+                throw new RuntimeException("User not found: " + userId);
+            }
+            cart = HotCart.empty(userId);
+        }
+        index(cart);
+        return cart;
+    }
+
+    private void index(HotCart cart) {
+        owners.put(cart.getId(), cart.getUserId());
+        cart.getLines().forEach(line -> owners.put(line.getId(), cart.getUserId()));
+    }
+
+    private void discard(HotCart cart) {
+        synchronized (cart) {
+            cart.discard();
+            cart.notifyAll();
+            carts.asMap().remove(cart.getUserId(), cart);
+            dirty.remove(cart.getUserId(), cart);
+        }
+    }
+
+    private Collection<HotCart> hotCarts() {
+        Map<HotCart, Boolean> all = new IdentityHashMap<>();
+        carts.asMap().values().forEach(cart -> all.put(cart, true));
+        dirty.values().forEach(cart -> all.put(cart, true));
+        return all.keySet();
+    }
+
+    private void flush(List<HotCart> candidates) {
+        flushLock.lock();
+        try {
+            List<HotCart.Changes> changes = new ArrayList<>(candidates.size());
+            for (HotCart cart : candidates) {
+                synchronized (cart) {
+                    // A checkout wrote it and the order transaction now owns its rows
+                    if (!cart.isDiscarded() && cart.isDirty() && !cart.isCheckingOut()) {
+                        changes.add(cart.changes());
+                    }
+                }
+            }
+            if (changes.isEmpty()) {
+                return;
+            }
+
+            try {
+                flushTimer.record(() -> write(changes));
+                changes.forEach(this::flushed);
+            } catch (DataAccessException e) {
+                // One bad cart must not hold back the others: write them one by one
+                log.warn("Writing {} carts failed, retrying one by one: {}", changes.size(), e.getMessage());
+                changes.forEach(this::restore);
+                candidates.forEach(this::flushAlone);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushAlone(HotCart cart) {
+        HotCart.Changes changes;
+        synchronized (cart) {
+            if (cart.isDiscarded() || !cart.isDirty() || cart.isCheckingOut()) {
+                return;
+            }
+            changes = cart.changes();
+        }
+        try {
+            write(List.of(changes));
+            flushed(changes);
+        } catch (DataIntegrityViolationException e) {
+            // The user or a product is gone: the database is right, drop our copy
+            log.error("Dropping cart {} of user {} that can no longer be written: {}",
+                    cart.getId(), cart.getUserId(), e.getMessage());
+            discard(cart);
+        } catch (DataAccessException e) {
+            log.warn("Writing cart {} failed, will retry: {}", cart.getId(), e.getMessage());
+            restore(changes);
+        }
+    }
+
+    private void write(List<HotCart.Changes> changes) {
+        transactionTemplate.executeWithoutResult(status -> writeRows(changes));
+    }
+
+    /**
+     * Batch the rows of the given changes in the caller's transaction.
+     */
+    private void writeRows(List<HotCart.Changes> changes) {
+        List<CartRow> inserts = new ArrayList<>();
+        List<CartRow> touches = new ArrayList<>();
+        List<CartBatchRepository.ItemRow> itemInserts = new ArrayList<>();
+        List<CartBatchRepository.ItemRow> itemUpdates = new ArrayList<>();
+        List<UUID> itemDeletes = new ArrayList<>();
+        for (HotCart.Changes change : changes) {
+            (change.insertCart ? inserts : touches).add(change.cartRow);
+            itemInserts.addAll(change.inserts);
+            itemUpdates.addAll(change.updates);
+            itemDeletes.addAll(change.deletes);
+        }
+
+        cartBatchRepository.insertCarts(inserts);
+        cartBatchRepository.touchCarts(touches);
+        // Deletes first: a product removed and added again gets a new row
+        cartBatchRepository.deleteItems(itemDeletes);
+        cartBatchRepository.insertItems(itemInserts);
+        cartBatchRepository.updateItems(itemUpdates);
+    }
+
+    private void flushed(HotCart.Changes changes) {
+        HotCart cart = changes.cart;
+        synchronized (cart) {
+            cart.flushed(changes);
+            if (!cart.isDirty()) {
+                dirty.remove(cart.getUserId(), cart);
+            }
+            cart.notifyAll();
+        }
+    }
+
+    private void restore(HotCart.Changes changes) {
+        synchronized (changes.cart) {
+            changes.cart.restore(changes);
+            changes.cart.notifyAll();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package aditi.wing.ecom.api.domain.inventory.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import aditi.wing.ecom.api.common.base.IdBasedModel;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Stock sold through the reservation ledger, written in the same transaction
+ * as the order and applied to products.stock_quantity later in batches.
+ * The applied flag is set in the same transaction as the stock update, so a
+ * crash can neither lose a sale nor apply it twice.
+ */
+@Entity
+@Table(name = "stock_movements", indexes = {
+        @Index(name = "idx_stock_movements_pending", columnList = "applied, product_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockMovement extends IdBasedModel {
+
+    @Column(name = "product_id", nullable = false)
+    private UUID productId;
+
+    @Column(name = "order_id", nullable = false)
+    private UUID orderId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(nullable = false)
+    private boolean applied;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @Builder.Default
+    private Instant createdAt = Instant.now();
+}
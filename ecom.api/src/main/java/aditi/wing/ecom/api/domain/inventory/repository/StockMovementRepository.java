@@ -0,0 +1,32 @@
+package aditi.wing.ecom.api.domain.inventory.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import aditi.wing.ecom.api.domain.inventory.model.StockMovement;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+public interface StockMovementRepository extends JpaRepository<StockMovement, UUID> {
+
+    @Query("SELECT COALESCE(SUM(m.quantity), 0) FROM StockMovement m WHERE m.productId = :productId AND m.applied = false")
+    long sumPendingQuantity(UUID productId);
+
+    // SKIP LOCKED: concurrent reconcilers never pick up the same rows
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT m FROM StockMovement m WHERE m.applied = false ORDER BY m.createdAt")
+    List<StockMovement> findPending(Limit limit);
+
+    @Modifying
+    @Query("UPDATE StockMovement m SET m.applied = true WHERE m.id IN :ids")
+    int markApplied(Collection<UUID> ids);
+}
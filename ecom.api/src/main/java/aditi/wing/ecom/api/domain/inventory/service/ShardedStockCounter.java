@@ -0,0 +1,64 @@
+package aditi.wing.ecom.api.domain.inventory.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Available units of one product split across independent CAS cells, so
+ * concurrent reservations for a hot product rarely touch the same cell.
+ * A request is served from a random starting cell and may drain several
+ * cells; if the cells together cannot cover it, everything taken is put
+ * back and the request fails.
+ */
+class ShardedStockCounter {
+
+    private static final int MAX_SHARDS = 64;
+
+    private final AtomicLongArray shards;
+
+    ShardedStockCounter(long available) {
+        // Smallest power of two covering the processor count, so the index can be masked
+        int processors = Runtime.getRuntime().availableProcessors();
+        int count = Math.min(MAX_SHARDS, Integer.highestOneBit(processors * 2 - 1));
+        shards = new AtomicLongArray(count);
+        long units = Math.max(0, available);
+        for (int i = 0; i < count; i++) {
+            shards.set(i, units / count + (i < units % count ? 1 : 0));
+        }
+    }
+
+    boolean tryAcquire(long quantity) {
+        int count = shards.length();
+        int start = ThreadLocalRandom.current().nextInt(count);
+        long taken = 0;
+        for (int n = 0; n < count && taken < quantity; n++) {
+            int index = (start + n) & (count - 1);
+            long current;
+            long take;
+            do {
+                current = shards.get(index);
+                take = Math.min(current, quantity - taken);
+            } while (take > 0 && !shards.compareAndSet(index, current, current - take));
+            taken += take;
+        }
+        if (taken < quantity) {
+            release(taken);
+            return false;
+        }
+        return true;
+    }
+
+    void release(long quantity) {
+        if (quantity > 0) {
+            shards.addAndGet(ThreadLocalRandom.current().nextInt(shards.length()), quantity);
+        }
+    }
+
+    long available() {
+        long sum = 0;
+        for (int i = 0; i < shards.length(); i++) {
+            sum += shards.get(i);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,85 @@
+package aditi.wing.ecom.api.domain.inventory.service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import aditi.wing.ecom.api.domain.inventory.model.StockMovement;
+import aditi.wing.ecom.api.domain.inventory.repository.StockMovementRepository;
+import aditi.wing.ecom.api.domain.seller.event.ProductChangedEvent;
+import aditi.wing.ecom.api.domain.seller.repository.ProductStockRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Applies pending {@link StockMovement}s to products.stock_quantity, one
+ * aggregated UPDATE per product per batch. The movements are marked applied
+ * in the same transaction, so each sale is applied exactly once even if the
+ * process dies mid-batch.
+ */
+@Component
+@Slf4j
+public class StockReconciler {
+
+    private final StockMovementRepository stockMovementRepository;
+    private final ProductStockRepository productStockRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Counter oversold;
+
+    @Value("${app.inventory.reservations.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.inventory.reconcile-batch-size:1000}")
+    private int batchSize;
+
+    public StockReconciler(
+            StockMovementRepository stockMovementRepository,
+            ProductStockRepository productStockRepository,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry) {
+        this.stockMovementRepository = stockMovementRepository;
+        this.productStockRepository = productStockRepository;
+        this.eventPublisher = eventPublisher;
+        this.oversold = Counter.builder("inventory.stock.oversold")
+                .description("Products whose applied sales exceeded their stock")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventory.reconcile-interval:5s}")
+    @Transactional
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        List<StockMovement> movements = stockMovementRepository.findPending(Limit.of(batchSize));
+        if (movements.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, Integer> totals = new LinkedHashMap<>();
+        for (StockMovement movement : movements) {
+            totals.merge(movement.getProductId(), movement.getQuantity(), Integer::sum);
+        }
+        List<UUID> oversoldIds = productStockRepository.applySales(totals);
+        if (!oversoldIds.isEmpty()) {
+            // The ledger let through more than there was; the stock was set to zero
+            oversold.increment(oversoldIds.size());
+            log.error("Sales of {} units exceed the stock of products {}",
+                    oversoldIds.stream().map(totals::get).toList(), oversoldIds);
+        }
+        stockMovementRepository.markApplied(movements.stream().map(StockMovement::getId).toList());
+
+        eventPublisher.publishEvent(ProductChangedEvent.stockSold(totals.keySet(),
+                productStockRepository.findSoldOut(totals.keySet())));
+        log.debug("Applied {} stock movements to {} products", movements.size(), totals.size());
+    }
+}
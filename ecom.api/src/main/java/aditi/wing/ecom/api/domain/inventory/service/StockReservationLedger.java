@@ -0,0 +1,309 @@
+package aditi.wing.ecom.api.domain.inventory.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import aditi.wing.ecom.api.domain.inventory.model.StockMovement;
+import aditi.wing.ecom.api.domain.inventory.repository.StockMovementRepository;
+import aditi.wing.ecom.api.domain.seller.event.ProductChangedEvent;
+import aditi.wing.ecom.api.domain.seller.repository.ProductStockRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory stock reservations for flash sales (app.inventory.reservations.enabled).
+ *
+ * Each product's available units live in a {@link ShardedStockCounter}, loaded
+ * on first use as products.stock_quantity minus sales not yet applied (read in
+ * one statement), units held by reservations and units of checkouts still
+ * committing. Reservations are kept per product and indexed by owner. Adding to the
+ * cart holds units for the buyer for a TTL; checkout turns the hold into a sale
+ * recorded as {@link StockMovement} rows in the order transaction, and
+ * {@link StockReconciler} applies those to the products table in batches.
+ *
+ * Nothing here is durable on purpose: after a crash, reservations are simply
+ * gone and the counters are rebuilt from the database, where every committed
+ * sale is either applied or still pending, never both. The counters assume a
+ * single API instance.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockReservationLedger {
+
+    private final ProductStockRepository productStockRepository;
+    private final StockMovementRepository stockMovementRepository;
+
+    @Value("${app.inventory.reservations.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.inventory.reservations.ttl:15m}")
+    private Duration ttl;
+
+    private final Map<UUID, ShardedStockCounter> counters = new ConcurrentHashMap<>();
+    private final Map<UUID, AtomicLong> committing = new ConcurrentHashMap<>();
+    // Product ID -> owner ID -> hold
+    private final Map<UUID, Map<UUID, Reservation>> reservations = new ConcurrentHashMap<>();
+    // Owner ID -> products held, updated together with the hold
+    private final Map<UUID, Set<UUID>> heldProducts = new ConcurrentHashMap<>();
+
+    private record Reservation(long quantity, Instant expiresAt) {
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Hold exactly the given quantity of a product for the owner, taking or
+     * returning the difference to what is already held, and restart the TTL.
+     *
+     * @return false when not enough stock is left; the existing hold is kept
+     */
+    public boolean hold(UUID ownerId, UUID productId, int quantity) {
+        if (!enabled) {
+            return true;
+        }
+        ShardedStockCounter counter = counter(productId);
+        boolean[] held = { true };
+        holdsOn(productId).compute(ownerId, (owner, existing) -> {
+            // An expired hold still owns its units until the sweeper returns them
+            long delta = quantity - (existing != null ? existing.quantity() : 0);
+            if (delta > 0 && !counter.tryAcquire(delta)) {
+                held[0] = false;
+                return existing;
+            }
+            if (delta < 0) {
+                counter.release(-delta);
+            }
+            index(owner, productId);
+            return new Reservation(quantity, Instant.now().plus(ttl));
+        });
+        return held[0];
+    }
+
+    public void release(UUID ownerId, UUID productId) {
+        if (!enabled) {
+            return;
+        }
+        Reservation reservation = take(ownerId, productId, null);
+        if (reservation != null) {
+            giveBack(productId, reservation.quantity());
+        }
+    }
+
+    public void releaseAll(UUID ownerId) {
+        if (!enabled) {
+            return;
+        }
+        Set<UUID> productIds = heldProducts.get(ownerId);
+        if (productIds != null) {
+            List.copyOf(productIds).forEach(productId -> release(ownerId, productId));
+        }
+    }
+
+    /**
+     * Units of the product that can still be reserved.
+     */
+    public long available(UUID productId) {
+        return enabled ? counter(productId).available() : 0;
+    }
+
+    /**
+     * Units of the product held for the owner, expired or not.
+     */
+    public long held(UUID ownerId, UUID productId) {
+        Map<UUID, Reservation> holds = enabled ? reservations.get(productId) : null;
+        Reservation reservation = holds != null ? holds.get(ownerId) : null;
+        return reservation != null ? reservation.quantity() : 0;
+    }
+
+    /**
+     * Turn the owner's holds into a sale of the given quantities, topping up
+     * from the free pool where a hold is missing or short. Must run inside the
+     * order transaction: the units are returned if it rolls back.
+     *
+     * @return IDs of products without enough stock; when not empty nothing was
+     *         taken and the owner's holds on the products checked so far are
+     *         returned to the pool
+     */
+    public List<UUID> checkout(UUID ownerId, Map<UUID, Integer> quantities) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Checkout must run inside a transaction");
+        }
+
+        Map<UUID, Integer> taken = new TreeMap<>();
+        for (Map.Entry<UUID, Integer> line : new TreeMap<>(quantities).entrySet()) {
+            UUID productId = line.getKey();
+            int quantity = line.getValue();
+            ShardedStockCounter counter = counter(productId);
+
+            // Committing before the hold goes: a counter loaded in between may
+            // count the units twice, never as free
+            committing(productId).addAndGet(quantity);
+            Reservation reservation = take(ownerId, productId, null);
+            long held = reservation != null ? reservation.quantity() : 0;
+            if (held >= quantity) {
+                counter.release(held - quantity);
+            } else if (!counter.tryAcquire(quantity - held)) {
+                counter.release(held);
+                committing(productId).addAndGet(-quantity);
+                taken.forEach((id, units) -> {
+                    giveBack(id, units);
+                    committing(id).addAndGet(-units);
+                });
+                return List.of(productId);
+            }
+            taken.put(productId, quantity);
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                taken.forEach((productId, quantity) -> {
+                    committing(productId).addAndGet(-quantity);
+                    if (status != STATUS_COMMITTED) {
+                        giveBack(productId, quantity);
+                    }
+                });
+            }
+        });
+        return List.of();
+    }
+
+    /**
+     * Record the sale made by {@link #checkout} so it survives a crash and
+     * is applied to the products table by the reconciler.
+     */
+    public void recordSale(UUID orderId, Map<UUID, Integer> quantities) {
+        List<StockMovement> movements = new ArrayList<>(quantities.size());
+        quantities.forEach((productId, quantity) -> movements.add(StockMovement.builder()
+                .productId(productId)
+                .orderId(orderId)
+                .quantity(quantity)
+                .applied(false)
+                .createdAt(Instant.now())
+                .build()));
+        stockMovementRepository.saveAll(movements);
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventory.reservations.sweep-interval:10s}")
+    public void expireReservations() {
+        if (!enabled) {
+            return;
+        }
+        Instant now = Instant.now();
+        int expired = 0;
+        for (Map.Entry<UUID, Map<UUID, Reservation>> holds : reservations.entrySet()) {
+            UUID productId = holds.getKey();
+            for (Map.Entry<UUID, Reservation> entry : holds.getValue().entrySet()) {
+                Reservation reservation = entry.getValue();
+                if (reservation.expiresAt().isBefore(now) && take(entry.getKey(), productId, reservation) != null) {
+                    giveBack(productId, reservation.quantity());
+                    expired++;
+                }
+            }
+        }
+        if (expired > 0) {
+            log.debug("Returned {} expired stock reservations", expired);
+        }
+    }
+
+    /**
+     * Stock may have been set directly (seller updates) or a batch applied:
+     * reload the counter from the database on next use.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (enabled) {
+            event.productIds().forEach(counters::remove);
+        }
+    }
+
+    private void giveBack(UUID productId, long quantity) {
+        // Without a counter the units are counted when it is next loaded
+        ShardedStockCounter counter = counters.get(productId);
+        if (counter != null) {
+            counter.release(quantity);
+        }
+    }
+
+    private Map<UUID, Reservation> holdsOn(UUID productId) {
+        return reservations.computeIfAbsent(productId, id -> new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Remove the owner's hold on the product, only if it is still the
+     * expected one when given.
+     */
+    private Reservation take(UUID ownerId, UUID productId, Reservation expected) {
+        Map<UUID, Reservation> holds = reservations.get(productId);
+        if (holds == null) {
+            return null;
+        }
+        Reservation[] taken = new Reservation[1];
+        holds.computeIfPresent(ownerId, (owner, reservation) -> {
+            if (expected != null && reservation != expected) {
+                return reservation;
+            }
+            taken[0] = reservation;
+            unindex(owner, productId);
+            return null;
+        });
+        return taken[0];
+    }
+
+    // Both run under the hold's map entry, so the index never disagrees with the holds
+    private void index(UUID ownerId, UUID productId) {
+        heldProducts.compute(ownerId, (owner, productIds) -> {
+            Set<UUID> held = productIds != null ? productIds : ConcurrentHashMap.newKeySet();
+            held.add(productId);
+            return held;
+        });
+    }
+
+    private void unindex(UUID ownerId, UUID productId) {
+        heldProducts.computeIfPresent(ownerId, (owner, productIds) -> {
+            productIds.remove(productId);
+            return productIds.isEmpty() ? null : productIds;
+        });
+    }
+
+    private AtomicLong committing(UUID productId) {
+        return committing.computeIfAbsent(productId, id -> new AtomicLong());
+    }
+
+    private ShardedStockCounter counter(UUID productId) {
+        ShardedStockCounter counter = counters.get(productId);
+        if (counter != null) {
+            return counter;
+        }
+
+        // Loaded outside the map so the database read doesn't block other products
+        long stock = productStockRepository.findAvailableStock(productId)
+                .orElseThrow(() -> new RuntimeException("Product not found: " + productId));
+        long held = holdsOn(productId).values().stream()
+                .mapToLong(Reservation::quantity)
+                .sum();
+        long available = stock - held - committing(productId).get();
+
+        ShardedStockCounter loaded = new ShardedStockCounter(available);
+        ShardedStockCounter existing = counters.putIfAbsent(productId, loaded);
+        return existing != null ? existing : loaded;
+    }
+}
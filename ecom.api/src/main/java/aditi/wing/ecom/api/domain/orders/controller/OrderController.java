@@ -1,5 +1,6 @@
 package aditi.wing.ecom.api.domain.orders.controller;
 
+import aditi.wing.ecom.api.common.middleware.AuthenticatedUser;
 import aditi.wing.ecom.api.domain.auth.model.User;
 import aditi.wing.ecom.api.domain.auth.repository.UserRepository;
 import aditi.wing.ecom.api.domain.orders.dto.OrderRequest;
@@ -7,14 +8,12 @@ import aditi.wing.ecom.api.domain.orders.dto.OrderResponse;
 import aditi.wing.ecom.api.domain.orders.dto.PlaceOrderRequest;
 import aditi.wing.ecom.api.domain.orders.enums.OrderStatus;
 import aditi.wing.ecom.api.domain.orders.service.OrderService;
-import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.security.Principal;
 import java.util.List;
 import java.util.UUID;
 
@@ -28,24 +27,24 @@ public class OrderController {
 
     @PostMapping
     public ResponseEntity<OrderResponse> placeOrder(
-            Principal principal,
+            AuthenticatedUser user,
             @RequestBody @Valid PlaceOrderRequest request) {
-        User user = userRepository.findByEmail(principal.getName())
-                .orElseThrow(() -> new EntityNotFoundException("User not found"));
+        // Reference only: the order needs the buyer's ID, not a users row
+        User buyer = userRepository.getReferenceById(user.userId());
         return ResponseEntity.status(HttpStatus.CREATED)
-                .body(orderService.placeOrder(user, request));
+                .body(orderService.placeOrder(buyer, request));
     }
 
     @GetMapping("/mine")
-    public ResponseEntity<List<OrderResponse>> getMyOrders(Principal principal) {
-        return ResponseEntity.ok(orderService.getOrdersByBuyer(principal.getName()));
+    public ResponseEntity<List<OrderResponse>> getMyOrders(AuthenticatedUser user) {
+        return ResponseEntity.ok(orderService.getOrdersByBuyer(user.userId()));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<OrderResponse> getOrder(
             @PathVariable UUID id,
-            Principal principal) {
-        return ResponseEntity.ok(orderService.getOrder(id, principal.getName()));
+            AuthenticatedUser user) {
+        return ResponseEntity.ok(orderService.getOrder(id, user.userId()));
     }
 
     @PatchMapping("/{id}/status")
@@ -11,7 +11,7 @@ import java.util.UUID;
 
 public interface OrderService {
     OrderResponse placeOrder(User user, PlaceOrderRequest request);
-    OrderResponse getOrder(UUID id, String userEmail);
-    List<OrderResponse> getOrdersByBuyer(String userEmail);
+    OrderResponse getOrder(UUID id, UUID buyerId);
+    List<OrderResponse> getOrdersByBuyer(UUID buyerId);
     OrderResponse updateStatus(UUID id, OrderStatus status);
 }
\ No newline at end of file
@@ -3,10 +3,11 @@ package aditi.wing.ecom.api.domain.orders.service;
 import aditi.wing.ecom.api.domain.address.model.Address;
 import aditi.wing.ecom.api.domain.address.repository.AddressRepository;
 import aditi.wing.ecom.api.domain.auth.model.User;
-import aditi.wing.ecom.api.domain.auth.repository.UserRepository;
 import aditi.wing.ecom.api.domain.cart.model.Cart;
 import aditi.wing.ecom.api.domain.cart.model.CartItem;
 import aditi.wing.ecom.api.domain.cart.repository.CartRepository;
+import aditi.wing.ecom.api.domain.cart.store.HotCartStore;
+import aditi.wing.ecom.api.domain.inventory.service.StockReservationLedger;
 import aditi.wing.ecom.api.domain.orders.dto.OrderItemRequest;
 import aditi.wing.ecom.api.domain.orders.dto.OrderRequest;
 import aditi.wing.ecom.api.domain.orders.dto.OrderResponse;
@@ -14,18 +15,21 @@ import aditi.wing.ecom.api.domain.orders.dto.PlaceOrderRequest;
 import aditi.wing.ecom.api.domain.orders.enums.OrderStatus;
 import aditi.wing.ecom.api.domain.orders.mapper.OrderMapper;
 import aditi.wing.ecom.api.domain.orders.model.Order;
-import aditi.wing.ecom.api.domain.orders.model.OrderItem;
 import aditi.wing.ecom.api.domain.orders.repository.OrderRepository;
+import aditi.wing.ecom.api.domain.seller.event.ProductChangedEvent;
 import aditi.wing.ecom.api.domain.seller.model.Product;
-import aditi.wing.ecom.api.domain.seller.repository.ProductRepository;
+import aditi.wing.ecom.api.domain.seller.repository.ProductStockRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -33,11 +37,13 @@ import java.util.UUID;
 public class OrderServiceImpl implements OrderService {
 
     private final CartRepository cartRepository;
+    private final HotCartStore hotCartStore;
     private final OrderRepository orderRepository;
     private final OrderMapper orderMapper;
-    private final UserRepository userRepository;
     private final AddressRepository addressRepository;
-    private final ProductRepository productRepository;
+    private final ProductStockRepository productStockRepository;
+    private final StockReservationLedger reservationLedger;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -46,6 +52,12 @@ public class OrderServiceImpl implements OrderService {
         Address address = addressRepository.findByIdAndUser(request.shippingAddressId(), user)
                 .orElseThrow(() -> new EntityNotFoundException("Address not found"));
 
+        // Cart edits are written behind: the store writes the ones so far and holds
+        // new ones until this transaction ends, then empties its copy if it committed
+        return hotCartStore.checkout(user.getId(), () -> createOrder(user, address));
+    }
+
+    private OrderResponse createOrder(User user, Address address) {
         Cart cart = cartRepository.findByUserWithItems(user)
                 .orElseThrow(() -> new EntityNotFoundException("Cart is empty"));
 
@@ -53,61 +65,85 @@ public class OrderServiceImpl implements OrderService {
             throw new IllegalStateException("Cannot place order with empty cart");
         }
 
-        List<OrderItem> orderItems = new ArrayList<>();
-        BigDecimal total = BigDecimal.ZERO;
-
+        // The buyer pays the price shown in the cart, which must be the current
+        // one: cart validation reprices the cart and shows what changed.
+        // OUT_OF_STOCK products are left to the stock check below
         for (CartItem cartItem : cart.getItems()) {
             Product product = cartItem.getProduct();
-
-            if (product.getStockQuantity() < cartItem.getQuantity()) {
+            if (product.getStatus() == Product.ProductStatus.INACTIVE) {
+                throw new IllegalStateException("Product is no longer available: " + product.getName());
+            }
+            if (product.getPrice().compareTo(cartItem.getPrice()) != 0) {
                 throw new IllegalStateException(
-                        "Insufficient stock for product: " + product.getName()
+                        "Price changed for product: " + product.getName() + "; review the cart and try again"
                 );
             }
+        }
 
-            product.setStockQuantity(product.getStockQuantity() - cartItem.getQuantity());
-            if (product.getStockQuantity() == 0) {
-                product.setStatus(Product.ProductStatus.OUT_OF_STOCK);
-            }
-            productRepository.save(product);
+        Map<UUID, Integer> quantities = new LinkedHashMap<>();
+        for (CartItem cartItem : cart.getItems()) {
+            quantities.merge(cartItem.getProduct().getId(), cartItem.getQuantity(), Integer::sum);
+        }
+
+        // Flash-sale mode takes stock from the reservation ledger; otherwise a
+        // conditional UPDATE per product in one batch: no read-modify-write, so no oversell
+        List<UUID> insufficient = reservationLedger.isEnabled()
+                ? reservationLedger.checkout(user.getId(), quantities)
+                : productStockRepository.decrementStock(quantities);
+        if (!insufficient.isEmpty()) {
+            Product product = cart.getItems().stream()
+                    .map(CartItem::getProduct)
+                    .filter(p -> p.getId().equals(insufficient.get(0)))
+                    .findFirst()
+                    .orElseThrow();
+            throw new IllegalStateException(
+                    "Insufficient stock for product: " + product.getName()
+            );
+        }
 
-            OrderItemRequest itemRequest = new OrderItemRequest(
+        List<OrderItemRequest> orderItems = new ArrayList<>();
+        BigDecimal total = BigDecimal.ZERO;
+
+        for (CartItem cartItem : cart.getItems()) {
+            Product product = cartItem.getProduct();
+
+            orderItems.add(new OrderItemRequest(
                     product.getId(),
                     product.getSellerId(),
                     product.getName(),
                     product.getImageUrl(),
                     cartItem.getQuantity(),
                     cartItem.getPrice()
-            );
-
-            orderItems.add(orderMapper.toItemEntity(itemRequest));
+            ));
             total = total.add(cartItem.getPrice()
                     .multiply(BigDecimal.valueOf(cartItem.getQuantity())));
         }
 
         // ← use formatted string instead of UUID
-        OrderRequest orderRequest = new OrderRequest(
-                total,
-                formatAddress(address),
-                orderItems.stream()
-                        .map(item -> new OrderItemRequest(
-                                item.getProductId(),
-                                item.getSellerId(),
-                                item.getProductName(),
-                                item.getProductImageUrl(),
-                                item.getQuantity(),
-                                item.getPrice()
-                        ))
-                        .toList()
-        );
+        OrderRequest orderRequest = new OrderRequest(total, formatAddress(address), orderItems);
 
         Order order = orderMapper.toEntity(orderRequest);
         order.setBuyerId(user.getId());
-        Order savedOrder = orderRepository.saveAndFlush(order);
+        Order savedOrder = orderRepository.save(order);
+        if (reservationLedger.isEnabled()) {
+            reservationLedger.recordSale(savedOrder.getId(), quantities);
+        }
 
         cart.getItems().clear();
         cartRepository.save(cart);
 
+        // One flush for the order, its items and the cart item deletes, grouped into
+        // JDBC batches by hibernate.jdbc.batch_size; it also sets createdAt for the response
+        orderRepository.flush();
+
+        // Cached product details and search state are refreshed once this commits,
+        // listing validators only if something sold out; ledger sales reach the
+        // products table (and publish) when reconciled
+        if (!reservationLedger.isEnabled()) {
+            eventPublisher.publishEvent(ProductChangedEvent.stockSold(quantities.keySet(),
+                    productStockRepository.findSoldOut(quantities.keySet())));
+        }
+
         return orderMapper.toResponse(savedOrder);
     }
 
@@ -130,15 +166,12 @@ public class OrderServiceImpl implements OrderService {
 
 
     @Override
-    public OrderResponse getOrder(UUID id, String userEmail) {
+    public OrderResponse getOrder(UUID id, UUID buyerId) {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
 
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        // Security Check: Does the Buyer ID on the order match the ID of the logged-in email?
-        if (!order.getBuyerId().equals(user.getId())) {
+        // Security Check: Does the Buyer ID on the order match the logged-in user?
+        if (!order.getBuyerId().equals(buyerId)) {
             throw new RuntimeException("Access Denied: You do not own this order.");
         }
 
@@ -146,11 +179,8 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
-    public List<OrderResponse> getOrdersByBuyer(String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        return orderRepository.findAllByBuyerId(user.getId())
+    public List<OrderResponse> getOrdersByBuyer(UUID buyerId) {
+        return orderRepository.findAllByBuyerId(buyerId)
                 .stream()
                 .map(orderMapper::toResponse)
                 .toList();
@@ -0,0 +1,61 @@
+package aditi.wing.ecom.api.domain.product.cache;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import aditi.wing.ecom.api.domain.seller.event.ProductChangedEvent;
+
+/**
+ * Version counter for everything derived from the product catalog (listings,
+ * search results, facets). Used as the validator for conditional GETs on those
+ * responses, so a matching If-None-Match is answered before any query runs.
+ *
+ * The counter starts at the boot time, so validators from a previous run never
+ * match, and is bumped after the caches and the search index have applied a
+ * {@link ProductChangedEvent} (they listen with {@code @Order(0)}), so a new
+ * tag is never handed out alongside stale results.
+ *
+ * Sales that sell nothing out leave the version alone: they change no
+ * status, facet or in-stock flag, only stock counts, so a listing revalidated
+ * against an older tag may show counts from before them. Product detail
+ * responses are refreshed per product and always show the current stock.
+ */
+@Component
+public class CatalogVersion {
+
+    private volatile State state = new State(System.currentTimeMillis(), 0,
+            Instant.now().truncatedTo(ChronoUnit.SECONDS));
+
+    /**
+     * A version and the time it was reached, truncated to whole seconds like
+     * the HTTP date it is compared against.
+     */
+    public record State(long epoch, long version, Instant lastModified) {
+
+        public String etag() {
+            return "\"" + Long.toHexString(epoch) + "-" + version + "\"";
+        }
+    }
+
+    public State current() {
+        return state;
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!event.availabilityChanged()) {
+            return;
+        }
+        bump();
+    }
+
+    private synchronized void bump() {
+        state = new State(state.epoch(), state.version() + 1, Instant.now().truncatedTo(ChronoUnit.SECONDS));
+    }
+}
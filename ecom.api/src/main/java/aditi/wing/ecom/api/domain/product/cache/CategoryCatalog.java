@@ -0,0 +1,79 @@
+package aditi.wing.ecom.api.domain.product.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import aditi.wing.ecom.api.domain.seller.event.ProductChangedEvent;
+import aditi.wing.ecom.api.domain.seller.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Cached list of distinct product categories. Rebuilt lazily from a
+ * SELECT DISTINCT projection after any {@link ProductChangedEvent}, so the
+ * storefront never has to load products just to render the category menu.
+ */
+@Component
+@RequiredArgsConstructor
+public class CategoryCatalog {
+
+    private final ProductRepository productRepository;
+
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    /**
+     * Sorted category names and a strong ETag derived from their content,
+     * so every instance serves the same tag for the same list.
+     */
+    public record Snapshot(List<String> categories, String etag) {
+    }
+
+    public Snapshot get() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        return rebuild();
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.stockOnly()) {
+            return;
+        }
+        invalidate();
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    private synchronized Snapshot rebuild() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+
+        long startGeneration = generation.get();
+        List<String> categories = productRepository.findDistinctCategories().stream()
+                .sorted()
+                .toList();
+        String etag = "\"" + DigestUtils.md5DigestAsHex(
+                String.join("\n", categories).getBytes(StandardCharsets.UTF_8)) + "\"";
+        Snapshot rebuilt = new Snapshot(categories, etag);
+
+        // Don't publish a list that was read while an invalidation came in
+        if (generation.get() == startGeneration) {
+            snapshot = rebuilt;
+        }
+        return rebuilt;
+    }
+}
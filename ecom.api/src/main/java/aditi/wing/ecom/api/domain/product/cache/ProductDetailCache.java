@@ -0,0 +1,139 @@
+package aditi.wing.ecom.api.domain.product.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import aditi.wing.ecom.api.domain.product.dto.ProductPublicDto;
+import aditi.wing.ecom.api.domain.seller.event.ProductChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Read-through cache of product detail DTOs keyed by product ID.
+ * Caffeine bounds it by approximate size in bytes with W-TinyLFU admission,
+ * so one-off lookups don't push out hot products, and entries expire after
+ * a TTL as a safety net.
+ *
+ * Committed changes invalidate entries through {@link ProductChangedEvent}.
+ * Each invalidation also bumps a striped version counter; a load that saw the
+ * version change while it was reading the database drops what it cached, so a
+ * value read before a commit can never outlive that commit's invalidation.
+ * Metrics are published as cache.* meters tagged cache=product-detail.
+ */
+@Component
+public class ProductDetailCache {
+
+    private static final int VERSION_STRIPES = 1024;
+
+    private final Cache<UUID, ProductPublicDto> cache;
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    public ProductDetailCache(
+            @Value("${app.catalog.product-cache.max-size:32MB}") DataSize maxSize,
+            @Value("${app.catalog.product-cache.ttl:10m}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher(ProductDetailCache::weigh)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "product-detail");
+    }
+
+    /**
+     * Return the cached DTO or load it with the given function. Exceptions from
+     * the loader (e.g. product not found) propagate and nothing is cached.
+     */
+    public ProductPublicDto get(UUID productId, Function<UUID, ProductPublicDto> loader) {
+        ProductPublicDto cached = cache.getIfPresent(productId);
+        if (cached != null) {
+            return cached;
+        }
+
+        int stripe = stripe(productId);
+        long version = versions.get(stripe);
+        ProductPublicDto loaded = loader.apply(productId);
+        cache.put(productId, loaded);
+
+        // An invalidation ran while we were loading: what we read may predate it
+        if (versions.get(stripe) != version) {
+            cache.invalidate(productId);
+        }
+        return loaded;
+    }
+
+    /**
+     * Return the cached DTOs of the given products, loading all the missing
+     * ones with a single call to the loader. Products the loader doesn't
+     * return are left out of the result and nothing is cached for them.
+     */
+    public Map<UUID, ProductPublicDto> getAll(Collection<UUID> productIds,
+                                              Function<Set<UUID>, Map<UUID, ProductPublicDto>> loader) {
+        Map<UUID, ProductPublicDto> found = new HashMap<>(cache.getAllPresent(productIds));
+        Set<UUID> missing = new LinkedHashSet<>(productIds);
+        missing.removeAll(found.keySet());
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        Map<UUID, Long> seen = new HashMap<>();
+        missing.forEach(productId -> seen.put(productId, versions.get(stripe(productId))));
+        Map<UUID, ProductPublicDto> loaded = loader.apply(missing);
+        loaded.forEach((productId, product) -> {
+            cache.put(productId, product);
+            if (versions.get(stripe(productId)) != seen.get(productId)) {
+                cache.invalidate(productId);
+            }
+        });
+        found.putAll(loaded);
+        return found;
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        event.productIds().forEach(this::invalidate);
+    }
+
+    public void invalidate(UUID productId) {
+        versions.incrementAndGet(stripe(productId));
+        cache.invalidate(productId);
+    }
+
+    private static int stripe(UUID productId) {
+        return (productId.hashCode() & Integer.MAX_VALUE) % VERSION_STRIPES;
+    }
+
+    /**
+     * Rough retained size in bytes: object headers and boxed fields plus two
+     * bytes per character of the string fields.
+     */
+    private static int weigh(UUID productId, ProductPublicDto product) {
+        return 256 + 2 * (length(product.getName())
+                + length(product.getDescription())
+                + length(product.getCategory())
+                + length(product.getImageUrl())
+                + length(product.getStatus()));
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+}
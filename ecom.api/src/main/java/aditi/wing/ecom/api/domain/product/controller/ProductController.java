@@ -1,11 +1,14 @@
 package aditi.wing.ecom.api.domain.product.controller;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,8 +16,14 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import aditi.wing.ecom.api.domain.product.cache.CatalogVersion;
+import aditi.wing.ecom.api.domain.product.cache.CategoryCatalog;
+import aditi.wing.ecom.api.domain.product.dto.ProductFacetsDto;
 import aditi.wing.ecom.api.domain.product.dto.ProductPublicDto;
+import aditi.wing.ecom.api.domain.product.dto.ProductSearchResultDto;
+import aditi.wing.ecom.api.domain.product.dto.ProductSliceDto;
 import aditi.wing.ecom.api.domain.product.service.ProductService;
 import lombok.RequiredArgsConstructor;
 
@@ -23,8 +32,14 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class ProductController {
 
+    // Clients and proxies may store responses but must revalidate before reuse
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePublic();
+
     private final ProductService productService;
 
+    @Value("${app.catalog.categories-max-age:60s}")
+    private Duration categoriesMaxAge;
+
     /**
      * Get all products with pagination and filtering
      * GET /api/products
@@ -36,8 +51,12 @@ public class ProductController {
      * - category: Filter by category
      * - minPrice: Minimum price
      * - maxPrice: Maximum price
-     * - sortBy: Sort field (default: createdAt)
+     * - sortBy: Sort field (default: createdAt, or relevance when searching)
      * - sortDir: Sort direction (asc/desc, default: desc)
+     *
+     * Listing responses (this one, /search, /facets and the cursor listing) are
+     * validated by the catalog version: a matching If-None-Match or
+     * If-Modified-Since gets 304 before any query runs.
      */
     @GetMapping
     public ResponseEntity<Page<ProductPublicDto>> getProducts(
@@ -47,49 +66,169 @@ public class ProductController {
             @RequestParam(required = false) String category,
             @RequestParam(required = false) BigDecimal minPrice,
             @RequestParam(required = false) BigDecimal maxPrice,
-            @RequestParam(defaultValue = "createdAt") String sortBy,
-            @RequestParam(defaultValue = "desc") String sortDir) {
+            @RequestParam(required = false) String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir,
+            WebRequest request) {
 
         try {
-            // Validate page size
-            if (size > 100) {
-                size = 100; // Max 100 items per page
-            }
-            if (size < 1) {
-                size = 20;
-            }
-            if (page < 0) {
-                page = 0;
+            CatalogVersion.State catalog = productService.getCatalogState();
+            if (request.checkNotModified(catalog.etag(), catalog.lastModified().toEpochMilli())) {
+                return notModified();
             }
 
-            // Create sort
-            Sort sort = sortDir.equalsIgnoreCase("asc")
-                    ? Sort.by(sortBy).ascending()
-                    : Sort.by(sortBy).descending();
-
-            // Create pageable
-            Pageable pageable = PageRequest.of(page, size, sort);
+            Pageable pageable = pageRequest(page, size, search, sortBy, sortDir);
 
             // Get products with filters
             Page<ProductPublicDto> products = productService.getProducts(
                     search, category, minPrice, maxPrice, pageable);
 
-            return ResponseEntity.ok(products);
+            return validated(catalog).body(products);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(null);
         }
     }
 
+    /**
+     * Get one page of products together with facet counts for the whole match set
+     * GET /api/products/search
+     *
+     * Takes the same query parameters as GET /api/products and returns
+     * { products: Page, facets: { total, inStock, outOfStock, categories, priceBuckets } }.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchProducts(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir,
+            WebRequest request) {
+
+        try {
+            CatalogVersion.State catalog = productService.getCatalogState();
+            if (request.checkNotModified(catalog.etag(), catalog.lastModified().toEpochMilli())) {
+                return notModified();
+            }
+
+            Pageable pageable = pageRequest(page, size, search, sortBy, sortDir);
+            ProductSearchResultDto result = productService.searchWithFacets(
+                    search, category, minPrice, maxPrice, pageable);
+            return validated(catalog).body(result);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("Failed to retrieve products"));
+        }
+    }
+
+    /**
+     * Get facet counts (categories, price buckets, stock) for the current filter
+     * GET /api/products/facets
+     *
+     * Query Parameters:
+     * - search, category, minPrice, maxPrice: Same filters as GET /api/products
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<?> getFacets(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            WebRequest request) {
+
+        try {
+            CatalogVersion.State catalog = productService.getCatalogState();
+            if (request.checkNotModified(catalog.etag(), catalog.lastModified().toEpochMilli())) {
+                return notModified();
+            }
+
+            ProductFacetsDto facets = productService.getProductFacets(search, category, minPrice, maxPrice);
+            return validated(catalog).body(facets);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("Failed to retrieve facets"));
+        }
+    }
+
+    /**
+     * Get products with keyset (cursor) pagination
+     * GET /api/products?cursor=
+     *
+     * Selected whenever the cursor parameter is present; send it empty for the
+     * first page and then pass back nextCursor. Avoids OFFSET scans and the
+     * COUNT(*) query, so every page costs the same however deep it is.
+     *
+     * Query Parameters:
+     * - cursor: Opaque cursor from the previous page (empty for the first page)
+     * - size: Page size (default: 20)
+     * - search, category, minPrice, maxPrice: Same filters as above
+     * - sortBy: createdAt, price or name (default: createdAt)
+     * - sortDir: Sort direction (asc/desc, default: desc)
+     */
+    @GetMapping(params = "cursor")
+    public ResponseEntity<?> getProductsByCursor(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir,
+            WebRequest request) {
+
+        try {
+            CatalogVersion.State catalog = productService.getCatalogState();
+            if (request.checkNotModified(catalog.etag(), catalog.lastModified().toEpochMilli())) {
+                return notModified();
+            }
+
+            if (size > 100) {
+                size = 100;
+            }
+            if (size < 1) {
+                size = 20;
+            }
+
+            Sort.Direction direction = sortDir.equalsIgnoreCase("asc")
+                    ? Sort.Direction.ASC
+                    : Sort.Direction.DESC;
+
+            ProductSliceDto slice = productService.getProductsByCursor(
+                    cursor, size, search, category, minPrice, maxPrice, sortBy, direction);
+            return validated(catalog).body(slice);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("Failed to retrieve products"));
+        }
+    }
+
     /**
      * Get product by ID
      * GET /api/products/{id}
+     *
+     * ETag and Last-Modified come from the product's updatedAt and stock.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<?> getProductById(@PathVariable String id) {
+    public ResponseEntity<?> getProductById(@PathVariable String id, WebRequest request) {
         try {
+            // Served from the product cache, so a revalidation costs no query
             ProductPublicDto product = productService.getProductById(id);
-            return ResponseEntity.ok(product);
+            String etag = "\"" + product.getUpdatedAt().toEpochMilli() + "-" + product.getStockQuantity() + "\"";
+            if (request.checkNotModified(etag, product.getUpdatedAt().toEpochMilli())) {
+                return notModified();
+            }
+
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .lastModified(product.getUpdatedAt())
+                    .cacheControl(REVALIDATE)
+                    .body(product);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(new ErrorResponse(e.getMessage()));
@@ -102,17 +241,75 @@ public class ProductController {
     /**
      * Get all categories
      * GET /api/products/categories
+     *
+     * Served from the category cache with a strong ETag; Spring answers a
+     * matching If-None-Match with 304 Not Modified and no body.
      */
     @GetMapping("/categories")
     public ResponseEntity<?> getCategories() {
         try {
-            return ResponseEntity.ok(productService.getAllCategories());
+            CategoryCatalog.Snapshot categories = productService.getCategorySnapshot();
+            return ResponseEntity.ok()
+                    .eTag(categories.etag())
+                    .cacheControl(CacheControl.maxAge(categoriesMaxAge).cachePublic().mustRevalidate())
+                    .body(categories.categories());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ErrorResponse("Failed to retrieve categories"));
         }
     }
 
+    /**
+     * 200 builder carrying the catalog validators
+     */
+    private ResponseEntity.BodyBuilder validated(CatalogVersion.State catalog) {
+        return ResponseEntity.ok()
+                .eTag(catalog.etag())
+                .lastModified(catalog.lastModified())
+                .cacheControl(REVALIDATE);
+    }
+
+    /**
+     * checkNotModified has already set the status and validators
+     */
+    private <T> ResponseEntity<T> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .cacheControl(REVALIDATE)
+                .build();
+    }
+
+    /**
+     * Clamp the paging parameters and build the sort; searches without an
+     * explicit sort are ranked by relevance.
+     */
+    private Pageable pageRequest(int page, int size, String search, String sortBy, String sortDir) {
+        // Validate page size
+        if (size > 100) {
+            size = 100; // Max 100 items per page
+        }
+        if (size < 1) {
+            size = 20;
+        }
+        if (page < 0) {
+            page = 0;
+        }
+
+        boolean hasSearch = search != null && !search.trim().isEmpty();
+        if (sortBy == null || sortBy.isBlank()) {
+            sortBy = hasSearch ? "relevance" : "createdAt";
+        }
+        Sort sort;
+        if (sortBy.equalsIgnoreCase("relevance")) {
+            sort = Sort.unsorted();
+        } else {
+            sort = sortDir.equalsIgnoreCase("asc")
+                    ? Sort.by(sortBy).ascending()
+                    : Sort.by(sortBy).descending();
+        }
+
+        return PageRequest.of(page, size, sort);
+    }
+
     private record ErrorResponse(String message) {
     }
 }
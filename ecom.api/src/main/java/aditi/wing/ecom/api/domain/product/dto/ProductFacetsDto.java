@@ -0,0 +1,43 @@
+package aditi.wing.ecom.api.domain.product.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Facet counts for the products matching the current catalog filter.
+ * Categories are ordered by count; price buckets cover [min, max) and the
+ * last bucket has no max.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductFacetsDto {
+    private long total;
+    private long inStock;
+    private long outOfStock;
+    private List<CategoryCount> categories;
+    private List<PriceBucket> priceBuckets;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class CategoryCount {
+        private String category;
+        private long count;
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class PriceBucket {
+        private BigDecimal min;
+        private BigDecimal max;
+        private long count;
+    }
+}
@@ -26,5 +26,6 @@ public class ProductPublicDto {
     private String imageUrl;
     private String status;
     private Instant createdAt;
+    private Instant updatedAt;
     private boolean inStock;
 }
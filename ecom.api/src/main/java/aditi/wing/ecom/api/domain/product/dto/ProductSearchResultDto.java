@@ -0,0 +1,20 @@
+package aditi.wing.ecom.api.domain.product.dto;
+
+import org.springframework.data.domain.Page;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One page of catalog results together with the facets of the whole match set.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductSearchResultDto {
+    private Page<ProductPublicDto> products;
+    private ProductFacetsDto facets;
+}
@@ -0,0 +1,23 @@
+package aditi.wing.ecom.api.domain.product.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One page of a cursor (keyset) listing. Pass nextCursor back to fetch the
+ * following page; it is null on the last page. No total count is computed.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductSliceDto {
+    private List<ProductPublicDto> content;
+    private String nextCursor;
+    private boolean hasNext;
+    private int size;
+}
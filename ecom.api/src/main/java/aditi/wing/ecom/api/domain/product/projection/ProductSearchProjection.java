@@ -0,0 +1,15 @@
+package aditi.wing.ecom.api.domain.product.projection;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+public interface ProductSearchProjection {
+    UUID getId();
+    String getName();
+    String getDescription();
+    String getCategory();
+    BigDecimal getPrice();
+    Integer getStockQuantity();
+    Instant getCreatedAt();
+}
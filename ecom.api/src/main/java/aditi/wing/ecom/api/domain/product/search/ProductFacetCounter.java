@@ -0,0 +1,75 @@
+package aditi.wing.ecom.api.domain.product.search;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import aditi.wing.ecom.api.domain.product.dto.ProductFacetsDto;
+
+/**
+ * Accumulates facet counts from grouped rows of (category, price bucket, in stock).
+ * Each database path emits one row per group; the in-memory index feeds one row
+ * per hit with a count of 1.
+ */
+public class ProductFacetCounter {
+
+    /**
+     * Exclusive upper bounds of the price buckets; the last bucket is open-ended.
+     */
+    public static final List<BigDecimal> PRICE_BUCKET_BOUNDS = List.of(
+            new BigDecimal("25"),
+            new BigDecimal("50"),
+            new BigDecimal("100"),
+            new BigDecimal("250"),
+            new BigDecimal("500"),
+            new BigDecimal("1000"));
+
+    private final Map<String, Long> categories = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final long[] buckets = new long[PRICE_BUCKET_BOUNDS.size() + 1];
+    private long inStock;
+    private long total;
+
+    public static int bucketOf(BigDecimal price) {
+        for (int i = 0; i < PRICE_BUCKET_BOUNDS.size(); i++) {
+            if (price.compareTo(PRICE_BUCKET_BOUNDS.get(i)) < 0) {
+                return i;
+            }
+        }
+        return PRICE_BUCKET_BOUNDS.size();
+    }
+
+    public void add(String category, int bucket, boolean stocked, long count) {
+        if (category != null && !category.trim().isEmpty()) {
+            categories.merge(category, count, Long::sum);
+        }
+        buckets[bucket] += count;
+        if (stocked) {
+            inStock += count;
+        }
+        total += count;
+    }
+
+    public ProductFacetsDto toDto() {
+        List<ProductFacetsDto.CategoryCount> categoryCounts = new ArrayList<>(categories.size());
+        categories.forEach((category, count) -> categoryCounts.add(new ProductFacetsDto.CategoryCount(category, count)));
+        categoryCounts.sort(Comparator.comparingLong(ProductFacetsDto.CategoryCount::getCount).reversed());
+
+        List<ProductFacetsDto.PriceBucket> priceBuckets = new ArrayList<>(buckets.length);
+        for (int i = 0; i < buckets.length; i++) {
+            BigDecimal min = i == 0 ? BigDecimal.ZERO : PRICE_BUCKET_BOUNDS.get(i - 1);
+            BigDecimal max = i < PRICE_BUCKET_BOUNDS.size() ? PRICE_BUCKET_BOUNDS.get(i) : null;
+            priceBuckets.add(new ProductFacetsDto.PriceBucket(min, max, buckets[i]));
+        }
+
+        return ProductFacetsDto.builder()
+                .total(total)
+                .inStock(inStock)
+                .outOfStock(total - inStock)
+                .categories(categoryCounts)
+                .priceBuckets(priceBuckets)
+                .build();
+    }
+}
@@ -0,0 +1,187 @@
+package aditi.wing.ecom.api.domain.product.search;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import aditi.wing.ecom.api.domain.product.dto.ProductFacetsDto;
+import aditi.wing.ecom.api.domain.seller.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * PostgreSQL full-text search over the generated products.search_vector column.
+ * The column and its GIN index are created from db/product-fulltext.sql at startup,
+ * independently of Hibernate's ddl-auto. On any other database the search stays
+ * unavailable and callers fall back to the LIKE path.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductFullTextSearch {
+
+    private static final String SCHEMA_SCRIPT = "db/product-fulltext.sql";
+
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "createdAt", "p.created_at",
+            "price", "p.price",
+            "name", "p.name");
+
+    private final DataSource dataSource;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.catalog.search-mode:index}")
+    private ProductSearchMode searchMode;
+
+    private volatile boolean available;
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void installSchema() {
+        if (searchMode != ProductSearchMode.FULLTEXT) {
+            return;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            String database = connection.getMetaData().getDatabaseProductName();
+            if (!"PostgreSQL".equalsIgnoreCase(database)) {
+                log.warn("Full-text product search needs PostgreSQL but found {}, using LIKE search", database);
+                return;
+            }
+            new ResourceDatabasePopulator(new ClassPathResource(SCHEMA_SCRIPT)).populate(connection);
+            available = true;
+            log.info("Full-text product search enabled");
+        } catch (Exception e) {
+            log.error("Failed to install full-text product search, using LIKE search", e);
+        }
+    }
+
+    /**
+     * Match ACTIVE products with websearch_to_tsquery. Unsorted requests are
+     * ordered by ts_rank; otherwise by the requested column.
+     */
+    @SuppressWarnings("unchecked")
+    public Page<Product> search(
+            String search,
+            String category,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            Pageable pageable) {
+
+        Map<String, Object> params = new LinkedHashMap<>();
+        String from = fromClause(search, category, minPrice, maxPrice, params);
+
+        Query select = entityManager.createNativeQuery(
+                "SELECT p.*" + from + " ORDER BY " + orderBy(pageable.getSort()), Product.class);
+        Query count = entityManager.createNativeQuery("SELECT count(*)" + from);
+        params.forEach((name, value) -> {
+            select.setParameter(name, value);
+            count.setParameter(name, value);
+        });
+        select.setFirstResult((int) pageable.getOffset());
+        select.setMaxResults(pageable.getPageSize());
+
+        List<Product> content = select.getResultList();
+        long total = ((Number) count.getSingleResult()).longValue();
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /**
+     * Facet counts over the same match set as {@link #search}, in one grouped query.
+     */
+    @SuppressWarnings("unchecked")
+    public ProductFacetsDto facets(
+            String search,
+            String category,
+            BigDecimal minPrice,
+            BigDecimal maxPrice) {
+
+        Map<String, Object> params = new LinkedHashMap<>();
+        String from = fromClause(search, category, minPrice, maxPrice, params);
+
+        StringBuilder bucket = new StringBuilder("CASE");
+        List<BigDecimal> bounds = ProductFacetCounter.PRICE_BUCKET_BOUNDS;
+        for (int i = 0; i < bounds.size(); i++) {
+            bucket.append(" WHEN p.price < ").append(bounds.get(i).toPlainString()).append(" THEN ").append(i);
+        }
+        bucket.append(" ELSE ").append(bounds.size()).append(" END");
+
+        Query query = entityManager.createNativeQuery(
+                "SELECT p.category, " + bucket + ", p.stock_quantity > 0, count(*)" + from
+                        + " GROUP BY 1, 2, 3");
+        params.forEach(query::setParameter);
+
+        ProductFacetCounter counter = new ProductFacetCounter();
+        for (Object[] row : (List<Object[]>) query.getResultList()) {
+            counter.add((String) row[0], ((Number) row[1]).intValue(), Boolean.TRUE.equals(row[2]),
+                    ((Number) row[3]).longValue());
+        }
+        return counter.toDto();
+    }
+
+    private String fromClause(
+            String search,
+            String category,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            Map<String, Object> params) {
+
+        StringBuilder from = new StringBuilder()
+                .append(" FROM products p, websearch_to_tsquery('english', :search) ts_query")
+                .append(" WHERE p.status = 'ACTIVE' AND p.search_vector @@ ts_query");
+        params.put("search", search);
+
+        if (category != null && !category.trim().isEmpty()) {
+            from.append(" AND lower(p.category) = :category");
+            params.put("category", category.toLowerCase(Locale.ROOT));
+        }
+        if (minPrice != null) {
+            from.append(" AND p.price >= :minPrice");
+            params.put("minPrice", minPrice);
+        }
+        if (maxPrice != null) {
+            from.append(" AND p.price <= :maxPrice");
+            params.put("maxPrice", maxPrice);
+        }
+        return from.toString();
+    }
+
+    private String orderBy(Sort sort) {
+        List<String> clauses = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            String column = SORT_COLUMNS.get(order.getProperty());
+            if (column != null) {
+                clauses.add(column + (order.isAscending() ? " ASC" : " DESC"));
+            }
+        }
+        if (clauses.isEmpty()) {
+            clauses.add("ts_rank(p.search_vector, ts_query) DESC");
+        }
+        clauses.add("p.id");
+        return String.join(", ", clauses);
+    }
+}
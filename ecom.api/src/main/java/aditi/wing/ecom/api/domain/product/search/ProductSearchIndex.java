@@ -0,0 +1,288 @@
+package aditi.wing.ecom.api.domain.product.search;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import aditi.wing.ecom.api.domain.product.projection.ProductSearchProjection;
+import aditi.wing.ecom.api.domain.seller.event.ProductChangedEvent;
+import aditi.wing.ecom.api.domain.seller.model.Product;
+import aditi.wing.ecom.api.domain.seller.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory inverted index over ACTIVE products (name + description + category).
+ * Built once at startup and kept in sync through {@link ProductChangedEvent}.
+ * Only active when app.catalog.search-mode=index; until the initial build
+ * finishes {@link #isReady()} is false and callers should fall back to the
+ * database search.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSearchIndex {
+
+    private static final int BUILD_BATCH_SIZE = 5_000;
+    private static final int MIN_PREFIX_LENGTH = 2;
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private final ProductRepository productRepository;
+
+    @Value("${app.catalog.search-mode:index}")
+    private ProductSearchMode searchMode;
+
+    // token -> (productId -> weight)
+    private final ConcurrentSkipListMap<String, Map<UUID, Integer>> postings = new ConcurrentSkipListMap<>();
+    private final Map<UUID, IndexedProduct> documents = new ConcurrentHashMap<>();
+
+    private final Set<UUID> changedDuringBuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean building;
+    private volatile boolean ready;
+
+    /**
+     * Indexed view of a product, carrying what is needed to filter and sort
+     * results without going back to the database.
+     */
+    public record IndexedProduct(
+            UUID id,
+            String name,
+            String category,
+            BigDecimal price,
+            boolean inStock,
+            Instant createdAt,
+            Set<String> tokens) {
+    }
+
+    public record SearchHit(IndexedProduct product, int score) {
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (searchMode != ProductSearchMode.INDEX) {
+            return;
+        }
+        building = true;
+        long start = System.currentTimeMillis();
+        try {
+            UUID afterId = null;
+            List<ProductSearchProjection> batch;
+            do {
+                batch = afterId == null
+                        ? productRepository.findSearchBatch(Product.ProductStatus.ACTIVE, Limit.of(BUILD_BATCH_SIZE))
+                        : productRepository.findSearchBatchAfter(Product.ProductStatus.ACTIVE, afterId,
+                                Limit.of(BUILD_BATCH_SIZE));
+                for (ProductSearchProjection product : batch) {
+                    upsert(product);
+                    afterId = product.getId();
+                }
+            } while (batch.size() == BUILD_BATCH_SIZE);
+        } finally {
+            building = false;
+        }
+
+        // Re-apply anything that changed while batches were being read
+        if (!changedDuringBuild.isEmpty()) {
+            Set<UUID> changed = new HashSet<>(changedDuringBuild);
+            changedDuringBuild.removeAll(changed);
+            refresh(changed);
+        }
+
+        ready = true;
+        log.info("Product search index built with {} products and {} terms in {} ms",
+                documents.size(), postings.size(), System.currentTimeMillis() - start);
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (searchMode != ProductSearchMode.INDEX) {
+            return;
+        }
+        if (building) {
+            changedDuringBuild.addAll(event.productIds());
+        }
+        refresh(event.productIds());
+    }
+
+    /**
+     * Reload the given products in one query; anything not found as ACTIVE is dropped.
+     */
+    public void refresh(Set<UUID> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        Set<UUID> missing = new HashSet<>(productIds);
+        for (ProductSearchProjection product : productRepository.findSearchProjectionsByIds(
+                productIds, Product.ProductStatus.ACTIVE)) {
+            upsert(product);
+            missing.remove(product.getId());
+        }
+        missing.forEach(this::remove);
+    }
+
+    /**
+     * Find ACTIVE products matching every term of the query (prefix match on
+     * terms of at least two characters), applying the category and price
+     * filters in memory. Results are unordered; callers sort by score or field.
+     */
+    public List<SearchHit> search(String query, String category, BigDecimal minPrice, BigDecimal maxPrice) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<UUID, Integer> scores = null;
+        for (String term : new HashSet<>(terms)) {
+            Map<UUID, Integer> termScores = matchTerm(term);
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                Map<UUID, Integer> smaller = scores.size() <= termScores.size() ? scores : termScores;
+                Map<UUID, Integer> larger = smaller == scores ? termScores : scores;
+                Map<UUID, Integer> intersection = new HashMap<>();
+                smaller.forEach((id, score) -> {
+                    Integer other = larger.get(id);
+                    if (other != null) {
+                        intersection.put(id, score + other);
+                    }
+                });
+                scores = intersection;
+            }
+            if (scores.isEmpty()) {
+                return Collections.emptyList();
+            }
+        }
+
+        String categoryFilter = category != null && !category.trim().isEmpty() ? category : null;
+
+        List<SearchHit> hits = new ArrayList<>(scores.size());
+        scores.forEach((id, score) -> {
+            IndexedProduct product = documents.get(id);
+            if (product == null) {
+                return;
+            }
+            if (categoryFilter != null && !categoryFilter.equalsIgnoreCase(product.category())) {
+                return;
+            }
+            if (minPrice != null && product.price().compareTo(minPrice) < 0) {
+                return;
+            }
+            if (maxPrice != null && product.price().compareTo(maxPrice) > 0) {
+                return;
+            }
+            hits.add(new SearchHit(product, score));
+        });
+        return hits;
+    }
+
+    private Map<UUID, Integer> matchTerm(String term) {
+        Map<UUID, Integer> result = new HashMap<>();
+        Map<UUID, Integer> exact = postings.get(term);
+        if (exact != null) {
+            // Exact token matches rank above prefix matches
+            exact.forEach((id, weight) -> result.merge(id, weight * 2, Integer::sum));
+        }
+        if (term.length() >= MIN_PREFIX_LENGTH) {
+            NavigableMap<String, Map<UUID, Integer>> prefixed = postings.subMap(term, false, term + Character.MAX_VALUE, false);
+            for (Map<UUID, Integer> posting : prefixed.values()) {
+                posting.forEach((id, weight) -> result.merge(id, weight, Integer::sum));
+            }
+        }
+        return result;
+    }
+
+    private synchronized void upsert(ProductSearchProjection product) {
+        remove(product.getId());
+
+        Map<String, Integer> weights = new HashMap<>();
+        addTokens(weights, product.getName(), NAME_WEIGHT);
+        addTokens(weights, product.getCategory(), CATEGORY_WEIGHT);
+        addTokens(weights, product.getDescription(), DESCRIPTION_WEIGHT);
+
+        weights.forEach((token, weight) -> postings
+                .computeIfAbsent(token, t -> new ConcurrentHashMap<>())
+                .put(product.getId(), weight));
+
+        documents.put(product.getId(), new IndexedProduct(
+                product.getId(),
+                product.getName(),
+                product.getCategory(),
+                product.getPrice(),
+                product.getStockQuantity() != null && product.getStockQuantity() > 0,
+                product.getCreatedAt(),
+                Set.copyOf(weights.keySet())));
+    }
+
+    private synchronized void remove(UUID productId) {
+        IndexedProduct existing = documents.remove(productId);
+        if (existing == null) {
+            return;
+        }
+        for (String token : existing.tokens()) {
+            postings.computeIfPresent(token, (t, posting) -> {
+                posting.remove(productId);
+                return posting.isEmpty() ? null : posting;
+            });
+        }
+    }
+
+    private static void addTokens(Map<String, Integer> weights, String text, int weight) {
+        for (String token : tokenize(text)) {
+            weights.merge(token, weight, Integer::sum);
+        }
+    }
+
+    /**
+     * Lower-case the text and split it on anything that is not a letter or digit.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return Collections.emptyList();
+        }
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                current.append(Character.toLowerCase(c));
+            } else if (!current.isEmpty()) {
+                tokens.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (!current.isEmpty()) {
+            tokens.add(current.toString());
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,14 @@
+package aditi.wing.ecom.api.domain.product.search;
+
+/**
+ * How GET /api/products resolves the search parameter
+ * (configured with app.catalog.search-mode).
+ */
+public enum ProductSearchMode {
+    /** lower(name/description) LIKE '%term%' through the JPA Specification */
+    LIKE,
+    /** In-memory inverted index, see {@link ProductSearchIndex} */
+    INDEX,
+    /** PostgreSQL tsvector column with a GIN index, see {@link ProductFullTextSearch} */
+    FULLTEXT
+}
@@ -0,0 +1,60 @@
+package aditi.wing.ecom.api.domain.product.service;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+import org.springframework.data.domain.Sort;
+
+import aditi.wing.ecom.api.domain.seller.model.Product;
+
+/**
+ * Opaque keyset cursor for the catalog: the sort it was issued for plus the
+ * (sortKey, id) of the last product returned. Encoded as URL-safe Base64.
+ */
+record ProductCursor(String sortBy, Sort.Direction direction, UUID lastId, String lastValue) {
+
+    private static final String SEPARATOR = "|";
+
+    static ProductCursor after(Product product, String sortBy, Sort.Direction direction) {
+        return new ProductCursor(sortBy, direction, product.getId(), sortValue(product, sortBy));
+    }
+
+    String encode() {
+        String raw = String.join(SEPARATOR, sortBy, direction.name(), lastId.toString(), lastValue);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ProductCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            // The sort value goes last so names containing the separator survive
+            String[] parts = raw.split("\\" + SEPARATOR, 4);
+            return new ProductCursor(parts[0], Sort.Direction.valueOf(parts[1]), UUID.fromString(parts[2]), parts[3]);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * The last sort value converted back to the attribute's Java type.
+     */
+    Comparable<?> typedValue() {
+        return switch (sortBy) {
+            case "createdAt" -> Instant.parse(lastValue);
+            case "price" -> new BigDecimal(lastValue);
+            default -> lastValue;
+        };
+    }
+
+    private static String sortValue(Product product, String sortBy) {
+        return switch (sortBy) {
+            case "createdAt" -> product.getCreatedAt().toString();
+            case "price" -> product.getPrice().toPlainString();
+            case "name" -> product.getName();
+            default -> throw new IllegalArgumentException("Unsupported sort field: " + sortBy);
+        };
+    }
+}
@@ -1,12 +1,21 @@
 package aditi.wing.ecom.api.domain.product.service;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
+import aditi.wing.ecom.api.domain.product.cache.CatalogVersion;
+import aditi.wing.ecom.api.domain.product.cache.CategoryCatalog;
+import aditi.wing.ecom.api.domain.product.dto.ProductFacetsDto;
 import aditi.wing.ecom.api.domain.product.dto.ProductPublicDto;
+import aditi.wing.ecom.api.domain.product.dto.ProductSearchResultDto;
+import aditi.wing.ecom.api.domain.product.dto.ProductSliceDto;
 
 public interface ProductService {
 
@@ -20,13 +29,62 @@ public interface ProductService {
             BigDecimal maxPrice,
             Pageable pageable);
 
+    /**
+     * Get category, price bucket and stock counts for the products matching the filter
+     */
+    ProductFacetsDto getProductFacets(
+            String search,
+            String category,
+            BigDecimal minPrice,
+            BigDecimal maxPrice);
+
+    /**
+     * Get one page of products together with the facets of the full match set
+     */
+    ProductSearchResultDto searchWithFacets(
+            String search,
+            String category,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            Pageable pageable);
+
+    /**
+     * Get one page of products using keyset pagination.
+     * A null or empty cursor starts from the beginning.
+     */
+    ProductSliceDto getProductsByCursor(
+            String cursor,
+            int size,
+            String search,
+            String category,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            String sortBy,
+            Sort.Direction direction);
+
     /**
      * Get product by ID
      */
     ProductPublicDto getProductById(String id);
 
+    /**
+     * Get the products with the given IDs, whatever their status, keyed by ID.
+     * IDs of products that don't exist are left out.
+     */
+    Map<UUID, ProductPublicDto> getProductsByIds(Collection<UUID> ids);
+
     /**
      * Get all available categories
      */
     List<String> getAllCategories();
+
+    /**
+     * Get the cached category list together with its ETag
+     */
+    CategoryCatalog.Snapshot getCategorySnapshot();
+
+    /**
+     * Get the current catalog version, used to validate cached listings
+     */
+    CatalogVersion.State getCatalogState();
 }
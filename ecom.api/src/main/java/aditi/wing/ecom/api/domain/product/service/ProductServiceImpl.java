@@ -1,27 +1,70 @@
 package aditi.wing.ecom.api.domain.product.service;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import aditi.wing.ecom.api.domain.product.cache.CatalogVersion;
+import aditi.wing.ecom.api.domain.product.cache.CategoryCatalog;
+import aditi.wing.ecom.api.domain.product.cache.ProductDetailCache;
+import aditi.wing.ecom.api.domain.product.dto.ProductFacetsDto;
 import aditi.wing.ecom.api.domain.product.dto.ProductPublicDto;
+import aditi.wing.ecom.api.domain.product.dto.ProductSearchResultDto;
+import aditi.wing.ecom.api.domain.product.dto.ProductSliceDto;
+import aditi.wing.ecom.api.domain.product.search.ProductFacetCounter;
+import aditi.wing.ecom.api.domain.product.search.ProductFullTextSearch;
+import aditi.wing.ecom.api.domain.product.search.ProductSearchIndex;
+import aditi.wing.ecom.api.domain.product.search.ProductSearchMode;
+import aditi.wing.ecom.api.domain.product.search.ProductSearchIndex.IndexedProduct;
+import aditi.wing.ecom.api.domain.product.search.ProductSearchIndex.SearchHit;
 import aditi.wing.ecom.api.domain.seller.model.Product;
 import aditi.wing.ecom.api.domain.seller.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
 public class ProductServiceImpl implements ProductService {
 
+    private static final Set<String> CURSOR_SORT_FIELDS = Set.of("createdAt", "price", "name");
+
     private final ProductRepository productRepository;
+    private final ProductSearchIndex searchIndex;
+    private final ProductFullTextSearch fullTextSearch;
+    private final CategoryCatalog categoryCatalog;
+    private final ProductDetailCache productDetailCache;
+    private final CatalogVersion catalogVersion;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.catalog.search-mode:index}")
+    private ProductSearchMode searchMode;
 
     @Override
     @Transactional(readOnly = true)
@@ -32,7 +75,191 @@ public class ProductServiceImpl implements ProductService {
             BigDecimal maxPrice,
             Pageable pageable) {
 
-        Specification<Product> spec = (root, query, criteriaBuilder) -> {
+        boolean hasSearch = search != null && !search.trim().isEmpty();
+        if (hasSearch && searchMode == ProductSearchMode.INDEX && searchIndex.isReady()) {
+            return searchWithIndex(search, category, minPrice, maxPrice, pageable);
+        }
+        if (hasSearch && searchMode == ProductSearchMode.FULLTEXT && fullTextSearch.isAvailable()) {
+            return fullTextSearch.search(search.trim(), category, minPrice, maxPrice, pageable)
+                    .map(this::toPublicDto);
+        }
+
+        // Relevance ordering is only available from the index or full-text search
+        if (pageable.getSort().isUnsorted()) {
+            pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                    Sort.by("createdAt").descending());
+        }
+
+        Specification<Product> spec = filterSpec(search, category, minPrice, maxPrice);
+
+        Page<Product> products = productRepository.findAll(spec, pageable);
+        return products.map(this::toPublicDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductFacetsDto getProductFacets(
+            String search,
+            String category,
+            BigDecimal minPrice,
+            BigDecimal maxPrice) {
+
+        boolean hasSearch = search != null && !search.trim().isEmpty();
+        if (hasSearch && searchMode == ProductSearchMode.INDEX && searchIndex.isReady()) {
+            return facetsFromHits(searchIndex.search(search, category, minPrice, maxPrice));
+        }
+        if (hasSearch && searchMode == ProductSearchMode.FULLTEXT && fullTextSearch.isAvailable()) {
+            return fullTextSearch.facets(search.trim(), category, minPrice, maxPrice);
+        }
+        return aggregateFacets(filterSpec(search, category, minPrice, maxPrice));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductSearchResultDto searchWithFacets(
+            String search,
+            String category,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            Pageable pageable) {
+
+        // The index answers both from one lookup; the database paths run the page and one aggregation
+        boolean hasSearch = search != null && !search.trim().isEmpty();
+        if (hasSearch && searchMode == ProductSearchMode.INDEX && searchIndex.isReady()) {
+            List<SearchHit> hits = searchIndex.search(search, category, minPrice, maxPrice);
+            return ProductSearchResultDto.builder()
+                    .products(pageOfHits(hits, pageable))
+                    .facets(facetsFromHits(hits))
+                    .build();
+        }
+        return ProductSearchResultDto.builder()
+                .products(getProducts(search, category, minPrice, maxPrice, pageable))
+                .facets(getProductFacets(search, category, minPrice, maxPrice))
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductSliceDto getProductsByCursor(
+            String cursor,
+            int size,
+            String search,
+            String category,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            String sortBy,
+            Sort.Direction direction) {
+
+        if (!CURSOR_SORT_FIELDS.contains(sortBy)) {
+            throw new IllegalArgumentException("Unsupported sort field: " + sortBy);
+        }
+
+        Specification<Product> spec = filterSpec(search, category, minPrice, maxPrice);
+        if (cursor != null && !cursor.isBlank()) {
+            ProductCursor after = ProductCursor.decode(cursor);
+            if (!after.sortBy().equals(sortBy) || after.direction() != direction) {
+                throw new IllegalArgumentException("Cursor does not match the requested sort");
+            }
+            spec = spec.and(keysetAfter(after));
+        }
+
+        // (sortKey, id) gives a total order, so every page is an index range scan
+        Sort sort = Sort.by(direction, sortBy).and(Sort.by(direction, "id"));
+        List<Product> rows = productRepository.findBy(spec, q -> q.sortBy(sort).limit(size + 1).all());
+
+        boolean hasNext = rows.size() > size;
+        List<Product> page = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext
+                ? ProductCursor.after(page.get(page.size() - 1), sortBy, direction).encode()
+                : null;
+
+        return ProductSliceDto.builder()
+                .content(page.stream().map(this::toPublicDto).toList())
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .size(page.size())
+                .build();
+    }
+
+    /**
+     * Rows strictly after the cursor: sortKey beyond the last value, or equal
+     * to it with a greater (or smaller, when descending) id.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private Specification<Product> keysetAfter(ProductCursor cursor) {
+        return (root, query, criteriaBuilder) -> {
+            Expression key = root.get(cursor.sortBy());
+            Expression id = root.get("id");
+            Comparable value = cursor.typedValue();
+            if (cursor.direction().isAscending()) {
+                return criteriaBuilder.or(
+                        criteriaBuilder.greaterThan(key, value),
+                        criteriaBuilder.and(criteriaBuilder.equal(key, value),
+                                criteriaBuilder.greaterThan(id, cursor.lastId())));
+            }
+            return criteriaBuilder.or(
+                    criteriaBuilder.lessThan(key, value),
+                    criteriaBuilder.and(criteriaBuilder.equal(key, value),
+                            criteriaBuilder.lessThan(id, cursor.lastId())));
+        };
+    }
+
+    /**
+     * Count the filtered products by (category, price bucket, in stock) in a single
+     * grouped query. Bucket bounds are literals so the CASE in the select list and
+     * the GROUP BY render identically.
+     */
+    private ProductFacetsDto aggregateFacets(Specification<Product> spec) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Product> root = query.from(Product.class);
+
+        Expression<BigDecimal> price = root.get("price");
+        List<BigDecimal> bounds = ProductFacetCounter.PRICE_BUCKET_BOUNDS;
+        CriteriaBuilder.Case<Integer> bucketCase = criteriaBuilder.selectCase();
+        for (int i = 0; i < bounds.size(); i++) {
+            bucketCase = bucketCase.when(
+                    criteriaBuilder.lessThan(price, criteriaBuilder.literal(bounds.get(i))),
+                    criteriaBuilder.literal(i));
+        }
+        Expression<Integer> bucket = bucketCase.otherwise(criteriaBuilder.literal(bounds.size()));
+        Expression<Integer> stocked = criteriaBuilder.<Integer>selectCase()
+                .when(criteriaBuilder.greaterThan(root.<Integer>get("stockQuantity"), criteriaBuilder.literal(0)),
+                        criteriaBuilder.literal(1))
+                .otherwise(criteriaBuilder.literal(0));
+        Expression<String> category = root.get("category");
+
+        query.select(criteriaBuilder.tuple(category, bucket, stocked, criteriaBuilder.count(root)))
+                .where(spec.toPredicate(root, query, criteriaBuilder))
+                .groupBy(category, bucket, stocked);
+
+        ProductFacetCounter counter = new ProductFacetCounter();
+        for (Tuple row : entityManager.createQuery(query).getResultList()) {
+            counter.add(row.get(0, String.class), row.get(1, Integer.class), row.get(2, Integer.class) == 1,
+                    row.get(3, Long.class));
+        }
+        return counter.toDto();
+    }
+
+    private ProductFacetsDto facetsFromHits(List<SearchHit> hits) {
+        ProductFacetCounter counter = new ProductFacetCounter();
+        for (SearchHit hit : hits) {
+            IndexedProduct product = hit.product();
+            counter.add(product.category(), ProductFacetCounter.bucketOf(product.price()), product.inStock(), 1);
+        }
+        return counter.toDto();
+    }
+
+    /**
+     * Catalog filters shared by the offset and cursor listings.
+     */
+    private Specification<Product> filterSpec(
+            String search,
+            String category,
+            BigDecimal minPrice,
+            BigDecimal maxPrice) {
+
+        return (root, query, criteriaBuilder) -> {
             Predicate predicate = criteriaBuilder.conjunction();
 
             // Only show ACTIVE products
@@ -70,34 +297,108 @@ public class ProductServiceImpl implements ProductService {
 
             return predicate;
         };
+    }
 
-        Page<Product> products = productRepository.findAll(spec, pageable);
-        return products.map(this::toPublicDto);
+    /**
+     * Resolve matching IDs from the in-memory index, order and page them there,
+     * then hydrate only the requested page in a single query.
+     */
+    private Page<ProductPublicDto> searchWithIndex(
+            String search,
+            String category,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            Pageable pageable) {
+
+        return pageOfHits(searchIndex.search(search, category, minPrice, maxPrice), pageable);
+    }
+
+    private Page<ProductPublicDto> pageOfHits(List<SearchHit> hits, Pageable pageable) {
+        hits.sort(hitComparator(pageable.getSort()));
+
+        int from = (int) Math.min(pageable.getOffset(), hits.size());
+        int to = Math.min(from + pageable.getPageSize(), hits.size());
+        List<UUID> pageIds = hits.subList(from, to).stream()
+                .map(hit -> hit.product().id())
+                .toList();
+        if (pageIds.isEmpty()) {
+            return new PageImpl<>(Collections.emptyList(), pageable, hits.size());
+        }
+
+        Map<UUID, Product> loaded = productRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<ProductPublicDto> content = pageIds.stream()
+                .map(loaded::get)
+                .filter(Objects::nonNull)
+                .map(this::toPublicDto)
+                .toList();
+
+        return new PageImpl<>(content, pageable, hits.size());
     }
 
+    /**
+     * Unsorted requests are ordered by relevance; otherwise the first supported
+     * sort property wins, with the product ID as a stable tie-breaker.
+     */
+    private Comparator<SearchHit> hitComparator(Sort sort) {
+        Comparator<SearchHit> byId = Comparator.comparing(hit -> hit.product().id());
+        for (Sort.Order order : sort) {
+            Comparator<SearchHit> comparator = switch (order.getProperty()) {
+                case "createdAt" -> Comparator.comparing(hit -> hit.product().createdAt());
+                case "price" -> Comparator.comparing(hit -> hit.product().price());
+                case "name" -> Comparator.comparing(hit -> hit.product().name(), String.CASE_INSENSITIVE_ORDER);
+                default -> null;
+            };
+            if (comparator != null) {
+                return (order.isAscending() ? comparator : comparator.reversed()).thenComparing(byId);
+            }
+        }
+        return Comparator.comparingInt(SearchHit::score).reversed().thenComparing(byId);
+    }
+
+    /**
+     * Served from the product detail cache; not transactional so cache hits
+     * never borrow a database connection.
+     */
     @Override
-    @Transactional(readOnly = true)
     public ProductPublicDto getProductById(String id) {
-        Product product = productRepository.findById(UUID.fromString(id))
-                .orElseThrow(() -> new RuntimeException("Product not found"));
+        ProductPublicDto product = productDetailCache.get(UUID.fromString(id), productId -> productRepository
+                .findById(productId)
+                .map(this::toPublicDto)
+                .orElseThrow(() -> new RuntimeException("Product not found")));
 
         // Only return ACTIVE products
-        if (product.getStatus() != Product.ProductStatus.ACTIVE) {
+        if (!Product.ProductStatus.ACTIVE.name().equals(product.getStatus())) {
             throw new RuntimeException("Product not available");
         }
 
-        return toPublicDto(product);
+        return product;
+    }
+
+    /**
+     * Served from the product detail cache with one query for all the misses.
+     */
+    @Override
+    public Map<UUID, ProductPublicDto> getProductsByIds(Collection<UUID> ids) {
+        return productDetailCache.getAll(ids, missing -> productRepository.findAllById(missing).stream()
+                .collect(Collectors.toMap(Product::getId, this::toPublicDto)));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<String> getAllCategories() {
-        return productRepository.findAll().stream()
-                .map(Product::getCategory)
-                .filter(category -> category != null && !category.trim().isEmpty())
-                .distinct()
-                .sorted()
-                .collect(Collectors.toList());
+        return categoryCatalog.get().categories();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CategoryCatalog.Snapshot getCategorySnapshot() {
+        return categoryCatalog.get();
+    }
+
+    @Override
+    public CatalogVersion.State getCatalogState() {
+        return catalogVersion.current();
     }
 
     /**
@@ -114,6 +415,7 @@ public class ProductServiceImpl implements ProductService {
                 .imageUrl(product.getImageUrl())
                 .status(product.getStatus().toString())
                 .createdAt(product.getCreatedAt())
+                .updatedAt(product.getUpdatedAt() != null ? product.getUpdatedAt() : product.getCreatedAt())
                 .inStock(product.getStockQuantity() > 0)
                 .build();
     }
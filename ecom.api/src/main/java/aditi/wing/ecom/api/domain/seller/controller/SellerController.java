@@ -24,14 +24,13 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
-import aditi.wing.ecom.api.common.util.JwtUtil;
+import aditi.wing.ecom.api.common.middleware.AuthenticatedUser;
 import aditi.wing.ecom.api.domain.seller.dto.BulkStockUpdateDto;
 import aditi.wing.ecom.api.domain.seller.dto.DashboardStatsDto;
 import aditi.wing.ecom.api.domain.seller.dto.PayoutDto;
 import aditi.wing.ecom.api.domain.seller.dto.ProductRequestDto;
 import aditi.wing.ecom.api.domain.seller.dto.ProductResponseDto;
 import aditi.wing.ecom.api.domain.seller.service.SellerService;
-import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 
 @RestController
@@ -42,20 +41,15 @@ import lombok.RequiredArgsConstructor;
 public class SellerController {
 
     private final SellerService sellerService;
-    private final JwtUtil jwtUtil;
 
     /**
      * Get dashboard statistics
      * GET /api/seller/dashboard
      */
     @GetMapping("/dashboard")
-    public ResponseEntity<?> getDashboardStats(HttpServletRequest request) {
+    public ResponseEntity<?> getDashboardStats(AuthenticatedUser user) {
         try {
-            UUID sellerId = jwtUtil.getUserIdFromRequest(request);
-            if (sellerId == null) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(new ErrorResponse("Unauthorized"));
-            }
+            UUID sellerId = user.userId();
 
             DashboardStatsDto stats = sellerService.getDashboardStats(sellerId);
             return ResponseEntity.ok(stats);
@@ -70,15 +64,12 @@ public class SellerController {
      * POST /api/seller/products
      */
     @PostMapping("/products")
+    @PreAuthorize("hasAuthority('products.create')")
     public ResponseEntity<?> createProduct(
             @RequestBody ProductRequestDto request,
-            HttpServletRequest httpRequest) {
+            AuthenticatedUser user) {
         try {
-            UUID sellerId = jwtUtil.getUserIdFromRequest(httpRequest);
-            if (sellerId == null) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(new ErrorResponse("Unauthorized"));
-            }
+            UUID sellerId = user.userId();
 
             ProductResponseDto product = sellerService.createProduct(sellerId, request);
             return ResponseEntity.status(HttpStatus.CREATED).body(product);
@@ -93,13 +84,9 @@ public class SellerController {
      * GET /api/seller/products
      */
     @GetMapping("/products")
-    public ResponseEntity<?> getProducts(HttpServletRequest request) {
+    public ResponseEntity<?> getProducts(AuthenticatedUser user) {
         try {
-            UUID sellerId = jwtUtil.getUserIdFromRequest(request);
-            if (sellerId == null) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(new ErrorResponse("Unauthorized"));
-            }
+            UUID sellerId = user.userId();
 
             List<ProductResponseDto> products = sellerService.getSellerProducts(sellerId);
             return ResponseEntity.ok(products);
@@ -114,16 +101,13 @@ public class SellerController {
      * PUT /api/seller/products/{productId}
      */
     @PutMapping("/products/{productId}")
+    @PreAuthorize("hasAuthority('products.update')")
     public ResponseEntity<?> updateProduct(
             @PathVariable UUID productId,
             @RequestBody ProductRequestDto request,
-            HttpServletRequest httpRequest) {
+            AuthenticatedUser user) {
         try {
-            UUID sellerId = jwtUtil.getUserIdFromRequest(httpRequest);
-            if (sellerId == null) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(new ErrorResponse("Unauthorized"));
-            }
+            UUID sellerId = user.userId();
 
             ProductResponseDto product = sellerService.updateProduct(sellerId, productId, request);
             return ResponseEntity.ok(product);
@@ -138,15 +122,12 @@ public class SellerController {
      * DELETE /api/seller/products/{productId}
      */
     @DeleteMapping("/products/{productId}")
+    @PreAuthorize("hasAuthority('products.delete')")
     public ResponseEntity<?> deleteProduct(
             @PathVariable UUID productId,
-            HttpServletRequest request) {
+            AuthenticatedUser user) {
         try {
-            UUID sellerId = jwtUtil.getUserIdFromRequest(request);
-            if (sellerId == null) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(new ErrorResponse("Unauthorized"));
-            }
+            UUID sellerId = user.userId();
 
             sellerService.deleteProduct(sellerId, productId);
             return ResponseEntity.noContent().build();
@@ -161,13 +142,9 @@ public class SellerController {
      * GET /api/seller/inventory/low-stock
      */
     @GetMapping("/inventory/low-stock")
-    public ResponseEntity<?> getLowStockProducts(HttpServletRequest request) {
+    public ResponseEntity<?> getLowStockProducts(AuthenticatedUser user) {
         try {
-            UUID sellerId = jwtUtil.getUserIdFromRequest(request);
-            if (sellerId == null) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(new ErrorResponse("Unauthorized"));
-            }
+            UUID sellerId = user.userId();
 
             List<ProductResponseDto> products = sellerService.getLowStockProducts(sellerId);
             return ResponseEntity.ok(products);
@@ -182,15 +159,12 @@ public class SellerController {
      * POST /api/seller/inventory/bulk-update
      */
     @PostMapping("/inventory/bulk-update")
+    @PreAuthorize("hasAuthority('products.update')")
     public ResponseEntity<?> bulkUpdateStock(
             @RequestBody BulkStockUpdateDto request,
-            HttpServletRequest httpRequest) {
+            AuthenticatedUser user) {
         try {
-            UUID sellerId = jwtUtil.getUserIdFromRequest(httpRequest);
-            if (sellerId == null) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(new ErrorResponse("Unauthorized"));
-            }
+            UUID sellerId = user.userId();
 
             sellerService.bulkUpdateStock(sellerId, request);
             return ResponseEntity.ok(new SuccessResponse("Stock updated successfully"));
@@ -205,13 +179,9 @@ public class SellerController {
      * GET /api/seller/payouts
      */
     @GetMapping("/payouts")
-    public ResponseEntity<?> getPayouts(HttpServletRequest request) {
+    public ResponseEntity<?> getPayouts(AuthenticatedUser user) {
         try {
-            UUID sellerId = jwtUtil.getUserIdFromRequest(request);
-            if (sellerId == null) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(new ErrorResponse("Unauthorized"));
-            }
+            UUID sellerId = user.userId();
 
             List<PayoutDto> payouts = sellerService.getPayouts(sellerId);
             return ResponseEntity.ok(payouts);
@@ -226,15 +196,12 @@ public class SellerController {
      * POST /api/seller/products/upload-image
      */
     @PostMapping("/products/upload-image")
+    @PreAuthorize("hasAuthority('products.create')")
     public ResponseEntity<?> uploadProductImage(
             @RequestParam("file") MultipartFile file,
-            HttpServletRequest request) {
+            AuthenticatedUser user) {
         try {
-            UUID sellerId = jwtUtil.getUserIdFromRequest(request);
-            if (sellerId == null) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(new ErrorResponse("Unauthorized"));
-            }
+            UUID sellerId = user.userId();
 
             if (file.isEmpty()) {
                 return ResponseEntity.badRequest().body(new ErrorResponse("No file provided"));
@@ -0,0 +1,37 @@
+package aditi.wing.ecom.api.domain.seller.event;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Published whenever products are created, updated or deleted.
+ * Listeners reload the current state themselves, so the event only carries IDs;
+ * a product that can no longer be found has been deleted.
+ * stockOnly marks changes that touched nothing but stock and status (orders),
+ * so listeners that don't depend on stock can skip them.
+ * availabilityChanged is false for stock changes that left every product on
+ * the same side of zero (an order that did not sell anything out), so
+ * listeners that only depend on what is in stock can skip those.
+ */
+public record ProductChangedEvent(Set<UUID> productIds, boolean stockOnly, boolean availabilityChanged) {
+
+    public static ProductChangedEvent of(UUID productId) {
+        return new ProductChangedEvent(Set.of(productId), false, true);
+    }
+
+    public static ProductChangedEvent of(Collection<UUID> productIds) {
+        return new ProductChangedEvent(Set.copyOf(productIds), false, true);
+    }
+
+    public static ProductChangedEvent stockChanged(Collection<UUID> productIds) {
+        return new ProductChangedEvent(Set.copyOf(productIds), true, true);
+    }
+
+    /**
+     * Stock taken off the products by sales, of which soldOut have none left.
+     */
+    public static ProductChangedEvent stockSold(Collection<UUID> productIds, Collection<UUID> soldOut) {
+        return new ProductChangedEvent(Set.copyOf(productIds), true, !soldOut.isEmpty());
+    }
+}
@@ -9,6 +9,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -17,7 +18,12 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        // Keyset pagination: status filter, then (sortKey, id)
+        @Index(name = "idx_products_status_created", columnList = "status, created_at, id"),
+        @Index(name = "idx_products_status_price", columnList = "status, price, id"),
+        @Index(name = "idx_products_status_name", columnList = "status, name, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -1,14 +1,17 @@
 package aditi.wing.ecom.api.domain.seller.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import aditi.wing.ecom.api.domain.product.projection.ProductSearchProjection;
 import aditi.wing.ecom.api.domain.seller.model.Product;
 
 @Repository
@@ -21,4 +24,20 @@ public interface ProductRepository extends JpaRepository<Product, UUID>, JpaSpec
 
     @Query("SELECT p FROM Product p WHERE p.sellerId = :sellerId AND p.stockQuantity < 10")
     List<Product> findLowStockProducts(UUID sellerId);
+
+    @Query("SELECT p.id AS id, p.name AS name, p.description AS description, p.category AS category, " +
+            "p.price AS price, p.stockQuantity AS stockQuantity, p.createdAt AS createdAt FROM Product p WHERE p.status = :status ORDER BY p.id")
+    List<ProductSearchProjection> findSearchBatch(Product.ProductStatus status, Limit limit);
+
+    @Query("SELECT p.id AS id, p.name AS name, p.description AS description, p.category AS category, " +
+            "p.price AS price, p.stockQuantity AS stockQuantity, p.createdAt AS createdAt FROM Product p " +
+            "WHERE p.status = :status AND p.id > :afterId ORDER BY p.id")
+    List<ProductSearchProjection> findSearchBatchAfter(Product.ProductStatus status, UUID afterId, Limit limit);
+
+    @Query("SELECT p.id AS id, p.name AS name, p.description AS description, p.category AS category, " +
+            "p.price AS price, p.stockQuantity AS stockQuantity, p.createdAt AS createdAt FROM Product p WHERE p.id IN :ids AND p.status = :status")
+    List<ProductSearchProjection> findSearchProjectionsByIds(Collection<UUID> ids, Product.ProductStatus status);
+
+    @Query("SELECT DISTINCT p.category FROM Product p WHERE p.category IS NOT NULL AND TRIM(p.category) <> ''")
+    List<String> findDistinctCategories();
 }
@@ -0,0 +1,120 @@
+package aditi.wing.ecom.api.domain.seller.repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Conditional stock updates done in SQL rather than read-modify-write on the
+ * entity, so concurrent checkouts can never oversell. Joins the surrounding
+ * JPA transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductStockRepository {
+
+    // Right-hand sides see the row before the update, so the CASE tests the remaining stock
+    private static final String DECREMENT_SQL = "UPDATE products"
+            + " SET stock_quantity = stock_quantity - ?,"
+            + " status = CASE WHEN stock_quantity - ? <= 0 THEN 'OUT_OF_STOCK' ELSE status END,"
+            + " updated_at = ?"
+            + " WHERE id = ? AND stock_quantity >= ?";
+
+    // A sale the ledger let through beyond the stock: what was there is gone
+    private static final String SELL_OUT_SQL = "UPDATE products"
+            + " SET stock_quantity = 0, status = 'OUT_OF_STOCK', updated_at = ?"
+            + " WHERE id = ?";
+
+    // One statement, so a reconciler batch committing meanwhile is seen either
+    // entirely (stock reduced, movements applied) or not at all
+    private static final String AVAILABLE_SQL = "SELECT p.stock_quantity - COALESCE("
+            + "(SELECT SUM(m.quantity) FROM stock_movements m WHERE m.product_id = p.id AND m.applied = false), 0)"
+            + " FROM products p WHERE p.id = ?";
+
+    private static final String SOLD_OUT_SQL = "SELECT id FROM products WHERE stock_quantity <= 0 AND id IN (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Take the given quantities off stock in one JDBC batch, flipping products
+     * that reach zero to OUT_OF_STOCK. Rows are updated in ID order so
+     * concurrent orders lock them in the same sequence.
+     *
+     * @return IDs of the products that did not have enough stock; when not
+     *         empty the caller must roll back, as the other rows were updated
+     */
+    public List<UUID> decrementStock(Map<UUID, Integer> quantities) {
+        SortedMap<UUID, Integer> ordered = new TreeMap<>(quantities);
+        List<UUID> productIds = new ArrayList<>(ordered.keySet());
+        Timestamp now = Timestamp.from(Instant.now());
+
+        List<Object[]> batch = new ArrayList<>(ordered.size());
+        ordered.forEach((productId, quantity) -> batch.add(
+                new Object[] { quantity, quantity, now, productId, quantity }));
+
+        int[] counts = jdbcTemplate.batchUpdate(DECREMENT_SQL, batch);
+
+        List<UUID> insufficient = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 1) {
+                insufficient.add(productIds.get(i));
+            }
+        }
+        return insufficient;
+    }
+
+    /**
+     * Subtract already-sold quantities in one JDBC batch, flipping products
+     * that reach zero to OUT_OF_STOCK. A product with less stock than was
+     * sold is set to zero instead.
+     *
+     * @return IDs of the products that were oversold
+     */
+    public List<UUID> applySales(Map<UUID, Integer> quantities) {
+        // Sales were already checked against the reservation ledger, so the condition should always hold
+        List<UUID> oversold = decrementStock(quantities);
+        if (!oversold.isEmpty()) {
+            Timestamp now = Timestamp.from(Instant.now());
+            jdbcTemplate.batchUpdate(SELL_OUT_SQL, oversold.stream()
+                    .map(productId -> new Object[] { now, productId })
+                    .toList());
+        }
+        return oversold;
+    }
+
+    /**
+     * Stock of the product minus sales recorded but not yet applied, read in
+     * one statement.
+     *
+     * @return empty when the product does not exist
+     */
+    public Optional<Long> findAvailableStock(UUID productId) {
+        return jdbcTemplate.queryForList(AVAILABLE_SQL, Long.class, productId).stream().findFirst();
+    }
+
+    /**
+     * Which of the given products have no stock left. Run after
+     * {@link #decrementStock} or {@link #applySales} in the same transaction,
+     * whose row locks keep the answer current until commit.
+     */
+    public List<UUID> findSoldOut(Collection<UUID> productIds) {
+        if (productIds.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(productIds.size(), "?"));
+        return jdbcTemplate.queryForList(SOLD_OUT_SQL.formatted(placeholders), UUID.class, productIds.toArray());
+    }
+}
@@ -2,10 +2,12 @@ package aditi.wing.ecom.api.domain.seller.service;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,6 +17,7 @@ import aditi.wing.ecom.api.domain.seller.dto.DashboardStatsDto;
 import aditi.wing.ecom.api.domain.seller.dto.PayoutDto;
 import aditi.wing.ecom.api.domain.seller.dto.ProductRequestDto;
 import aditi.wing.ecom.api.domain.seller.dto.ProductResponseDto;
+import aditi.wing.ecom.api.domain.seller.event.ProductChangedEvent;
 import aditi.wing.ecom.api.domain.seller.model.Product;
 import aditi.wing.ecom.api.domain.seller.model.Sale;
 import aditi.wing.ecom.api.domain.seller.repository.ProductImagesRepository;
@@ -34,6 +37,7 @@ public class SellerServiceImpl implements SellerService {
     private final WishlistItemRepository wishlistItemRepository;
     private final ProductVariantsRepository productVariantsRepository;
     private final ProductImagesRepository productImagesRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional(readOnly = true)
@@ -73,6 +77,7 @@ public class SellerServiceImpl implements SellerService {
                 .build();
 
         Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.of(saved.getId()));
         return toDto(saved);
     }
 
@@ -107,6 +112,7 @@ public class SellerServiceImpl implements SellerService {
         product.setUpdatedAt(Instant.now());
 
         Product updated = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.of(updated.getId()));
         return toDto(updated);
     }
 
@@ -127,6 +133,7 @@ public class SellerServiceImpl implements SellerService {
         productImagesRepository.deleteByProduct_Id(productId);
 
         productRepository.delete(product);
+        eventPublisher.publishEvent(ProductChangedEvent.of(productId));
     }
 
     @Override
@@ -141,6 +148,7 @@ public class SellerServiceImpl implements SellerService {
     @Override
     @Transactional
     public void bulkUpdateStock(UUID sellerId, BulkStockUpdateDto request) {
+        List<UUID> updatedIds = new ArrayList<>();
         for (BulkStockUpdateDto.StockUpdate update : request.getUpdates()) {
             Product product = productRepository.findById(update.getProductId())
                     .orElseThrow(() -> new RuntimeException("Product not found: " + update.getProductId()));
@@ -160,7 +168,9 @@ public class SellerServiceImpl implements SellerService {
             }
 
             productRepository.save(product);
+            updatedIds.add(product.getId());
         }
+        eventPublisher.publishEvent(ProductChangedEvent.stockChanged(updatedIds));
     }
 
     @Override
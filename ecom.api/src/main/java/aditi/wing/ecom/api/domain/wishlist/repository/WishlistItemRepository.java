@@ -12,11 +12,11 @@ import aditi.wing.ecom.api.domain.wishlist.model.WishlistItem;
 @Repository
 public interface WishlistItemRepository extends JpaRepository<WishlistItem, UUID> {
 
-    List<WishlistItem> findByUser_Email(String email);
+    List<WishlistItem> findByUser_Id(UUID userId);
 
-    Optional<WishlistItem> findByUser_EmailAndProduct_Id(String email, UUID productId);
+    Optional<WishlistItem> findByUser_IdAndProduct_Id(UUID userId, UUID productId);
 
-    boolean existsByUser_EmailAndProduct_Id(String email, UUID productId);
+    boolean existsByUser_IdAndProduct_Id(UUID userId, UUID productId);
 
     void deleteByProduct_Id(UUID productId);
 }
\ No newline at end of file
@@ -8,8 +8,8 @@ import java.util.List;
 import java.util.UUID;
 
 public interface WishlistService {
-    void addToWishlist(String email, UUID productId);
-    void removeFromWishlist(String email, UUID productId);
+    void addToWishlist(UUID userId, UUID productId);
+    void removeFromWishlist(UUID userId, UUID productId);
 
-    List<ProductResponseDto> getUserWishlist(String email);
+    List<ProductResponseDto> getUserWishlist(UUID userId);
 }
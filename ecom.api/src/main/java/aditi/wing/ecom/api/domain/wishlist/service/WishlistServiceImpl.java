@@ -27,13 +27,12 @@ public class WishlistServiceImpl implements WishlistService{
 
     @Override
     @Transactional
-    public void addToWishlist(String email, UUID productId) {
-        if (wishlistRepository.existsByUser_EmailAndProduct_Id(email, productId)) {
+    public void addToWishlist(UUID userId, UUID productId) {
+        if (wishlistRepository.existsByUser_IdAndProduct_Id(userId, productId)) {
             return;
         }
 
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = userRepository.getReferenceById(userId);
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
 
@@ -47,8 +46,8 @@ public class WishlistServiceImpl implements WishlistService{
 
     @Override
     @Transactional
-    public void removeFromWishlist(String email, UUID productId) {
-        WishlistItem item = wishlistRepository.findByUser_EmailAndProduct_Id(email, productId)
+    public void removeFromWishlist(UUID userId, UUID productId) {
+        WishlistItem item = wishlistRepository.findByUser_IdAndProduct_Id(userId, productId)
                 .orElseThrow(() -> new RuntimeException("Item not found in wishlist"));
 
         wishlistRepository.delete(item);
@@ -56,8 +55,8 @@ public class WishlistServiceImpl implements WishlistService{
 
     @Override
     @Transactional(readOnly = true)
-    public List<ProductResponseDto> getUserWishlist(String email) {
-        List<Product> products = wishlistRepository.findByUser_Email(email)
+    public List<ProductResponseDto> getUserWishlist(UUID userId) {
+        List<Product> products = wishlistRepository.findByUser_Id(userId)
                 .stream()
                 .map(WishlistItem::getProduct)
                 .collect(Collectors.toList());
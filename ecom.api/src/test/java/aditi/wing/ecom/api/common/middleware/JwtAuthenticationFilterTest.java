@@ -0,0 +1,130 @@
+package aditi.wing.ecom.api.common.middleware;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import aditi.wing.ecom.api.common.util.JwtUtil;
+import aditi.wing.ecom.api.domain.auth.model.Role;
+import aditi.wing.ecom.api.domain.auth.model.User;
+import aditi.wing.ecom.api.domain.auth.model.UserRole;
+import aditi.wing.ecom.api.domain.auth.repository.RoleRepository;
+import aditi.wing.ecom.api.domain.auth.repository.UserRepository;
+import aditi.wing.ecom.api.domain.auth.repository.UserRoleRepository;
+import aditi.wing.ecom.api.domain.auth.service.UserRoleCache;
+
+/**
+ * Claims are kept on the request only for access tokens: a refresh token
+ * sent as a bearer token authenticates nothing and leaves no claims behind.
+ * Authorities come from the token unless the user's roles changed after it
+ * was issued.
+ */
+@SpringBootTest
+class JwtAuthenticationFilterTest {
+
+    @Autowired
+    JwtAuthenticationFilter filter;
+    @Autowired
+    JwtMiddleware jwtMiddleware;
+    @Autowired
+    JwtUtil jwtUtil;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    RoleRepository roleRepository;
+    @Autowired
+    UserRoleRepository userRoleRepository;
+    @Autowired
+    UserRoleCache userRoleCache;
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void accessTokenAuthenticatesAndKeepsItsClaims() throws Exception {
+        UUID userId = UUID.randomUUID();
+        MockHttpServletRequest request = bearer(
+                jwtMiddleware.generateToken("buyer@test.local", userId, Set.of("BUYER"), Set.of()));
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(request.getAttribute(JwtMiddleware.CLAIMS_ATTRIBUTE)).isNotNull();
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+        assertThat(jwtUtil.getUserIdFromRequest(request)).isEqualTo(userId);
+    }
+
+    @Test
+    void refreshTokenLeavesNoClaimsOnTheRequest() throws Exception {
+        MockHttpServletRequest request = bearer(jwtMiddleware.generateRefreshToken("buyer@test.local",
+                UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), Instant.now().plus(1, ChronoUnit.DAYS)));
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(request.getAttribute(JwtMiddleware.CLAIMS_ATTRIBUTE)).isNull();
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        assertThat(jwtUtil.getClaimsFromRequest(request)).isEmpty();
+        assertThat(jwtUtil.getUserIdFromRequest(request)).isNull();
+    }
+
+    @Test
+    void roleChangeReachesTokensIssuedBeforeIt() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        User user = userRepository.save(User.builder()
+                .email("promoted-" + UUID.randomUUID() + "@test.local")
+                .passwordHash("not-used")
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+        assign(user, Role.BUYER);
+        Set<String> roles = userRoleCache.roleNames(user.getId());
+        String token = jwtMiddleware.generateToken(user.getEmail(), user.getId(), roles,
+                userRoleCache.permissionNames(roles));
+
+        assertThat(authorities(token)).contains("ROLE_BUYER", "orders.create").doesNotContain("products.create");
+
+        assign(user, Role.SELLER);
+
+        assertThat(authorities(token)).contains("ROLE_BUYER", "ROLE_SELLER", "orders.create", "products.create");
+    }
+
+    private void assign(User user, String roleName) {
+        userRoleRepository.save(UserRole.builder()
+                .userId(user.getId())
+                .roleId(roleRepository.findByName(roleName).orElseThrow().getId())
+                .build());
+    }
+
+    private List<String> authorities(String token) throws Exception {
+        try {
+            filter.doFilter(bearer(token), new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication().getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .toList();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static MockHttpServletRequest bearer(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/cart");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
@@ -0,0 +1,105 @@
+package aditi.wing.ecom.api.common.middleware;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import io.jsonwebtoken.Jwts;
+import lombok.extern.slf4j.Slf4j;
+
+import aditi.wing.ecom.api.common.util.JwtUtil;
+
+/**
+ * Token handling cost per authenticated request: the filter plus the
+ * controller's JwtUtil.getUserIdFromRequest. "Before" repeats what those did
+ * before claims were verified once and cached: five signature verifications,
+ * each with a freshly built parser. "Cold" sends a new token every request,
+ * "warm" the same token every time.
+ * {@code mvn -Pperformance test -Dtest=JwtFilterBenchmarkTest}
+ */
+@Slf4j
+@Tag("performance")
+@SpringBootTest
+class JwtFilterBenchmarkTest {
+
+    static final int WARMUP = 500;
+    static final int REQUESTS = 2_000;
+
+    @Autowired
+    JwtAuthenticationFilter filter;
+    @Autowired
+    JwtMiddleware jwtMiddleware;
+    @Autowired
+    JwtUtil jwtUtil;
+    @Autowired
+    JwtKeys keys;
+
+    @Test
+    void costPerRequestBeforeAndAfter() throws Exception {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < WARMUP + REQUESTS; i++) {
+            tokens.add(jwtMiddleware.generateToken("buyer@test.local", UUID.randomUUID(), Set.of("BUYER"), Set.of()));
+        }
+        PublicKey publicKey = keys.getVerificationKeys().get(keys.getSigningKeyId());
+
+        for (int i = 0; i < WARMUP; i++) {
+            verifyFiveTimes(publicKey, tokens.get(i));
+        }
+        long started = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            verifyFiveTimes(publicKey, tokens.get(WARMUP + i));
+        }
+        long before = (System.nanoTime() - started) / REQUESTS;
+
+        for (int i = 0; i < WARMUP; i++) {
+            authenticate(tokens.get(i));
+        }
+        started = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            authenticate(tokens.get(WARMUP + i));
+        }
+        long cold = (System.nanoTime() - started) / REQUESTS;
+
+        String token = tokens.get(0);
+        started = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            authenticate(token);
+        }
+        long warm = (System.nanoTime() - started) / REQUESTS;
+
+        log.info("{} token cost per request: {} us before, {} us cold, {} us warm",
+                keys.getAlgorithm().getId(), before / 1_000, cold / 1_000, warm / 1_000);
+        assertThat(cold).isLessThan(before);
+        assertThat(warm).isLessThan(cold);
+    }
+
+    private static void verifyFiveTimes(PublicKey publicKey, String token) {
+        for (int i = 0; i < 5; i++) {
+            Jwts.parser().verifyWith(publicKey).build().parseSignedClaims(token);
+        }
+    }
+
+    private void authenticate(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/cart");
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            assertThat(jwtUtil.getUserIdFromRequest(request)).isNotNull();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
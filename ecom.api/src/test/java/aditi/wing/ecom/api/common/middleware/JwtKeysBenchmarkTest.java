@@ -0,0 +1,88 @@
+package aditi.wing.ecom.api.common.middleware;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sign and verify throughput of each supported key type, through the same
+ * kid header and key lookup that JwtMiddleware uses.
+ * {@code mvn -Pperformance test -Dtest=JwtKeysBenchmarkTest}
+ */
+@Slf4j
+@Tag("performance")
+class JwtKeysBenchmarkTest {
+
+    static final int WARMUP = 300;
+    static final int OPERATIONS = 1_000;
+
+    @Test
+    void signAndVerifyThroughputPerAlgorithm() throws Exception {
+        Map<String, KeyPair> keyPairs = new LinkedHashMap<>();
+        keyPairs.put("RS512 (RSA 2048)", rsa(2048));
+        keyPairs.put("RS512 (RSA 4096)", rsa(4096));
+        KeyPairGenerator ec = KeyPairGenerator.getInstance("EC");
+        ec.initialize(new ECGenParameterSpec("secp256r1"));
+        keyPairs.put("ES256", ec.generateKeyPair());
+        keyPairs.put("EdDSA (Ed25519)", KeyPairGenerator.getInstance("Ed25519").generateKeyPair());
+
+        // One untimed pass over every key type first, so later ones don't profit from earlier JIT work
+        for (KeyPair keyPair : keyPairs.values()) {
+            measure(keyPair, WARMUP);
+        }
+        keyPairs.forEach((algorithm, keyPair) -> {
+            long[] perSecond = measure(keyPair, OPERATIONS);
+            log.info("{}: {} signs/s, {} verifies/s", algorithm, perSecond[0], perSecond[1]);
+        });
+    }
+
+    /**
+     * Sign then verify the given number of tokens; returns signs/s and verifies/s.
+     */
+    private static long[] measure(KeyPair keyPair, int operations) {
+        JwtKeys keys = new JwtKeys(keyPair.getPrivate(), keyPair.getPublic(), List.of());
+        JwtParser parser = Jwts.parser().keyLocator(keys).build();
+
+        String[] tokens = new String[operations];
+        long started = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            tokens[i] = sign(keys);
+        }
+        long signs = operations * 1_000_000_000L / (System.nanoTime() - started);
+
+        started = System.nanoTime();
+        for (String token : tokens) {
+            assertThat(parser.parseSignedClaims(token).getPayload().getSubject()).isEqualTo("buyer@test.local");
+        }
+        long verifies = operations * 1_000_000_000L / (System.nanoTime() - started);
+        return new long[] { signs, verifies };
+    }
+
+    private static KeyPair rsa(int bits) throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(bits);
+        return generator.generateKeyPair();
+    }
+
+    private static String sign(JwtKeys keys) {
+        return Jwts.builder()
+                .header().keyId(keys.getSigningKeyId()).and()
+                .subject("buyer@test.local")
+                .claim("userId", UUID.randomUUID().toString())
+                .signWith(keys.getSigningKey(), keys.getAlgorithm())
+                .compact();
+    }
+}
@@ -0,0 +1,110 @@
+package aditi.wing.ecom.api.domain.auth.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+/**
+ * Catalog latency while logins flood the password hashing pool. Throttling is
+ * lifted so every login reaches the hasher; the bounded pool (and 429s when it
+ * is full) must keep catalog p99 close to what it is without the flood.
+ * Wall-clock bound, so it only runs with {@code mvn -Pperformance test}.
+ */
+@Tag("performance")
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+        "app.security.login-throttle.per-ip=1000000",
+        "app.security.login-throttle.per-account=1000000" })
+class LoginFloodLoadTest {
+
+    static final int FLOOD_THREADS = 8;
+    static final int CATALOG_REQUESTS = 300;
+
+    @LocalServerPort
+    int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void catalogP99HoldsDuringLoginFlood() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            catalog();
+        }
+        long quiet = catalogP99();
+
+        AtomicBoolean flooding = new AtomicBoolean(true);
+        AtomicInteger loggedIn = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService flood = Executors.newFixedThreadPool(FLOOD_THREADS);
+        for (int i = 0; i < FLOOD_THREADS; i++) {
+            flood.submit(() -> {
+                while (flooding.get()) {
+                    int status = login();
+                    (status == 200 ? loggedIn : rejected).incrementAndGet();
+                }
+                return null;
+            });
+        }
+        long flooded;
+        try {
+            // Let the hashing queue fill up first
+            Thread.sleep(500);
+            flooded = catalogP99();
+        } finally {
+            flooding.set(false);
+            flood.shutdown();
+            assertThat(flood.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+        }
+
+        assertThat(loggedIn.get()).isPositive();
+        assertThat(flooded)
+                .as("catalog p99 in ms during the flood (%d ms quiet, %d logins ok, %d rejected)",
+                        quiet, loggedIn.get(), rejected.get())
+                .isLessThanOrEqualTo(2 * quiet + 20);
+    }
+
+    private long catalogP99() throws Exception {
+        long[] millis = new long[CATALOG_REQUESTS];
+        for (int i = 0; i < CATALOG_REQUESTS; i++) {
+            long started = System.nanoTime();
+            catalog();
+            millis[i] = (System.nanoTime() - started) / 1_000_000;
+        }
+        Arrays.sort(millis);
+        return millis[(int) Math.ceil(CATALOG_REQUESTS * 0.99) - 1];
+    }
+
+    private void catalog() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri("/api/products?page=0&size=20")).GET().build();
+        assertThat(client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode()).isEqualTo(200);
+    }
+
+    private int login() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri("/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .header("X-Forwarded-For", "198.51.100." + ThreadLocalRandom.current().nextInt(1, 255))
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"email\":\"buyer@ecom.com\",\"passwordHash\":\"Buyer@123\"}"))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
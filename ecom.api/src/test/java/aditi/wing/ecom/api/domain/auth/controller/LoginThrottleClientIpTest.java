@@ -0,0 +1,49 @@
+package aditi.wing.ecom.api.domain.auth.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+/**
+ * Behind nginx every request comes from the proxy's address; the per-IP login
+ * limit must count the client named in X-Forwarded-For instead.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+        "app.security.login-throttle.per-ip=3",
+        "app.security.login-throttle.per-account=1000" })
+class LoginThrottleClientIpTest {
+
+    @LocalServerPort
+    int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void perIpLimitCountsTheForwardedClient() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertThat(login("203.0.113.10")).isEqualTo(401);
+        }
+        assertThat(login("203.0.113.10")).isEqualTo(429);
+
+        // Same proxy address, different client: not throttled
+        assertThat(login("203.0.113.11")).isEqualTo(401);
+    }
+
+    private int login(String clientIp) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .header("X-Forwarded-For", clientIp)
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"email\":\"nobody@test.local\",\"passwordHash\":\"wrong-password\"}"))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
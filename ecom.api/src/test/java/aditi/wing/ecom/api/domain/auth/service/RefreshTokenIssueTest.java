@@ -0,0 +1,50 @@
+package aditi.wing.ecom.api.domain.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Issuing a refresh token on the login and refresh path writes it with a
+ * single INSERT, without reading it first.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "aditi.wing.ecom.api.domain.auth.service.RefreshTokenIssueTest$Recorder")
+class RefreshTokenIssueTest {
+
+    @Autowired
+    RefreshTokenService refreshTokenService;
+
+    @Test
+    void issueOnlyInserts() {
+        Recorder.STATEMENTS.get().clear();
+
+        refreshTokenService.issue("buyer@test.local", UUID.randomUUID(), null);
+
+        assertThat(Recorder.STATEMENTS.get())
+                .filteredOn(sql -> sql.contains("refresh_tokens"))
+                .singleElement()
+                .satisfies(sql -> assertThat(sql).startsWithIgnoringCase("insert"));
+    }
+
+    /**
+     * Statements Hibernate prepares, per thread.
+     */
+    public static class Recorder implements StatementInspector {
+
+        static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.get().add(sql);
+            return sql;
+        }
+    }
+}
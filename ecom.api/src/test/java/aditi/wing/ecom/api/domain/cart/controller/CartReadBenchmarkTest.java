@@ -0,0 +1,165 @@
+package aditi.wing.ecom.api.domain.cart.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.sun.management.ThreadMXBean;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import aditi.wing.ecom.api.domain.auth.model.User;
+import aditi.wing.ecom.api.domain.auth.repository.UserRepository;
+import aditi.wing.ecom.api.domain.cart.repository.CartBatchRepository;
+import aditi.wing.ecom.api.domain.cart.repository.CartBatchRepository.CartRow;
+import aditi.wing.ecom.api.domain.cart.repository.CartBatchRepository.ItemRow;
+import aditi.wing.ecom.api.domain.seller.model.Product;
+import aditi.wing.ecom.api.domain.seller.repository.ProductRepository;
+
+/**
+ * Statements, loaded entities and allocated bytes per GET of a 1-, 20- and
+ * 100-item cart. A cold read is the first read of a cart that is only in the
+ * database; a warm read is served from the hot cart store.
+ * {@code mvn -Pperformance test -Dtest=CartReadBenchmarkTest}
+ */
+@Slf4j
+@Tag("performance")
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:cart-read-benchmark",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // Statistics are global; keep scheduled jobs out of them
+        "app.cart.hot-store.flush-interval=1h",
+        "app.security.revocation.sync-interval=1h",
+        "app.inventory.reconcile-interval=1h"
+})
+class CartReadBenchmarkTest {
+
+    static final int[] CART_ITEMS = { 1, 20, 100 };
+    static final int WARMUP = 50;
+    static final int READS = 200;
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ProductRepository productRepository;
+    @Autowired
+    CartBatchRepository cartBatchRepository;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private final ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    record Cost(double statements, double entities, long kilobytes) {
+    }
+
+    @Test
+    void costPerCartRead() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<Product> products = products();
+        for (int items : CART_ITEMS) {
+            List<Product> cart = products.subList(0, items);
+            for (UUID userId : usersWithCart(cart, WARMUP)) {
+                read(userId);
+                read(userId);
+            }
+
+            List<UUID> userIds = usersWithCart(cart, READS);
+            Cost cold = measure(statistics, userIds);
+            Cost warm = measure(statistics, userIds);
+
+            log.info("{}-item cart: cold {} statements, {} entities, {} KB; warm {} statements, {} entities, {} KB",
+                    items, cold.statements(), cold.entities(), cold.kilobytes(),
+                    warm.statements(), warm.entities(), warm.kilobytes());
+            assertThat(cold.statements()).isLessThanOrEqualTo(1);
+            assertThat(cold.entities()).isZero();
+            assertThat(warm.statements()).isZero();
+        }
+    }
+
+    /**
+     * Read each user's cart once and return the average cost of a read.
+     */
+    private Cost measure(Statistics statistics, List<UUID> userIds) throws Exception {
+        statistics.clear();
+        long allocated = threads.getCurrentThreadAllocatedBytes();
+        for (UUID userId : userIds) {
+            read(userId);
+        }
+        allocated = threads.getCurrentThreadAllocatedBytes() - allocated;
+        return new Cost(
+                (double) statistics.getPrepareStatementCount() / userIds.size(),
+                (double) statistics.getEntityLoadCount() / userIds.size(),
+                allocated / userIds.size() / 1024);
+    }
+
+    private void read(UUID userId) throws Exception {
+        mockMvc.perform(get(CartController.BASE_URL + "/" + userId)).andExpect(status().isOk());
+    }
+
+    private List<Product> products() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            products.add(Product.builder()
+                    .sellerId(UUID.randomUUID())
+                    .name("Benchmark item " + i)
+                    .price(new BigDecimal("9.99"))
+                    .stockQuantity(100)
+                    .status(Product.ProductStatus.ACTIVE)
+                    .createdAt(Instant.now())
+                    .updatedAt(Instant.now())
+                    .build());
+        }
+        return productRepository.saveAll(products);
+    }
+
+    private List<UUID> usersWithCart(List<Product> cart, int count) {
+        LocalDateTime now = LocalDateTime.now();
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            users.add(User.builder()
+                    .email("benchmark-" + UUID.randomUUID() + "@test.local")
+                    .passwordHash("not-used")
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        }
+        users = userRepository.saveAll(users);
+
+        List<CartRow> carts = new ArrayList<>();
+        List<ItemRow> items = new ArrayList<>();
+        List<UUID> userIds = new ArrayList<>();
+        for (User user : users) {
+            UUID cartId = UUID.randomUUID();
+            carts.add(new CartRow(cartId, user.getId(), now, now));
+            for (Product product : cart) {
+                items.add(new ItemRow(UUID.randomUUID(), cartId, product.getId(), 1, product.getPrice(), now, now));
+            }
+            userIds.add(user.getId());
+        }
+        cartBatchRepository.insertCarts(carts);
+        cartBatchRepository.insertItems(items);
+        return userIds;
+    }
+}
@@ -0,0 +1,156 @@
+package aditi.wing.ecom.api.domain.cart.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import aditi.wing.ecom.api.domain.auth.model.User;
+import aditi.wing.ecom.api.domain.auth.repository.UserRepository;
+import aditi.wing.ecom.api.domain.cart.dto.CartBatchRequest;
+import aditi.wing.ecom.api.domain.cart.dto.CartItemResponse;
+import aditi.wing.ecom.api.domain.cart.dto.CartResponse;
+import aditi.wing.ecom.api.domain.inventory.service.StockReservationLedger;
+import aditi.wing.ecom.api.domain.seller.model.Product;
+import aditi.wing.ecom.api.domain.seller.repository.ProductRepository;
+
+/**
+ * A batch of cart changes in flash-sale mode is applied whole, holds
+ * included, or not at all.
+ */
+@SpringBootTest(properties = "app.inventory.reservations.enabled=true")
+class CartBatchApplyTest {
+
+    @Autowired
+    CartService cartService;
+    @Autowired
+    StockReservationLedger reservationLedger;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ProductRepository productRepository;
+
+    @Test
+    void batchIsAppliedWithItsHolds() {
+        User user = user();
+        Product kept = product(5);
+        Product removed = product(5);
+        Product added = product(5);
+        CartResponse cart = cartService.addToCart(user.getId(), kept.getId(), 1);
+        cart = cartService.addToCart(user.getId(), removed.getId(), 2);
+
+        CartResponse applied = cartService.applyToCart(user.getId(), List.of(
+                update(itemOf(cart, kept), 4),
+                remove(itemOf(cart, removed)),
+                add(added.getId(), 3)));
+
+        assertThat(quantities(applied)).isEqualTo(Map.of(kept.getId(), 4, added.getId(), 3));
+        assertThat(reservationLedger.held(user.getId(), kept.getId())).isEqualTo(4);
+        assertThat(reservationLedger.held(user.getId(), removed.getId())).isZero();
+        assertThat(reservationLedger.available(removed.getId())).isEqualTo(5);
+        assertThat(reservationLedger.held(user.getId(), added.getId())).isEqualTo(3);
+    }
+
+    @Test
+    void failedHoldRollsBackTheHoldsAlreadyTaken() {
+        User user = user();
+        Product raised = product(5);
+        Product contested = product(2);
+        CartResponse cart = cartService.addToCart(user.getId(), raised.getId(), 1);
+        assertThat(reservationLedger.hold(UUID.randomUUID(), contested.getId(), 2)).isTrue();
+
+        assertThatThrownBy(() -> cartService.applyToCart(user.getId(), List.of(
+                update(itemOf(cart, raised), 3),
+                add(contested.getId(), 1))))
+                .hasMessageStartingWith("Not enough stock");
+
+        assertThat(quantities(cartService.getCartByUserId(user.getId())))
+                .isEqualTo(Map.of(raised.getId(), 1));
+        assertThat(reservationLedger.held(user.getId(), raised.getId())).isEqualTo(1);
+        assertThat(reservationLedger.available(raised.getId())).isEqualTo(4);
+        assertThat(reservationLedger.held(user.getId(), contested.getId())).isZero();
+    }
+
+    @Test
+    void invalidOperationChangesNothing() {
+        User user = user();
+        Product product = product(5);
+        CartResponse cart = cartService.addToCart(user.getId(), product.getId(), 1);
+        assertThatThrownBy(() -> cartService.applyToCart(user.getId(), List.of(
+                update(itemOf(cart, product), 2),
+                add(UUID.randomUUID(), 1))))
+                .hasMessageStartingWith("Product not found");
+
+        assertThat(quantities(cartService.getCartByUserId(user.getId())))
+                .isEqualTo(Map.of(product.getId(), 1));
+        assertThat(reservationLedger.held(user.getId(), product.getId())).isEqualTo(1);
+    }
+
+    private static Map<UUID, Integer> quantities(CartResponse cart) {
+        return cart.getItems().stream()
+                .collect(Collectors.toMap(CartItemResponse::getProductId, CartItemResponse::getQuantity));
+    }
+
+    private static UUID itemOf(CartResponse cart, Product product) {
+        return cart.getItems().stream()
+                .filter(item -> item.getProductId().equals(product.getId()))
+                .findFirst()
+                .orElseThrow()
+                .getCartItemId();
+    }
+
+    private static CartBatchRequest.Operation add(UUID productId, int quantity) {
+        CartBatchRequest.Operation operation = new CartBatchRequest.Operation();
+        operation.setType(CartBatchRequest.Type.ADD);
+        operation.setProductId(productId);
+        operation.setQuantity(quantity);
+        return operation;
+    }
+
+    private static CartBatchRequest.Operation update(UUID cartItemId, int quantity) {
+        CartBatchRequest.Operation operation = new CartBatchRequest.Operation();
+        operation.setType(CartBatchRequest.Type.UPDATE);
+        operation.setCartItemId(cartItemId);
+        operation.setQuantity(quantity);
+        return operation;
+    }
+
+    private static CartBatchRequest.Operation remove(UUID cartItemId) {
+        CartBatchRequest.Operation operation = new CartBatchRequest.Operation();
+        operation.setType(CartBatchRequest.Type.REMOVE);
+        operation.setCartItemId(cartItemId);
+        return operation;
+    }
+
+    private User user() {
+        LocalDateTime now = LocalDateTime.now();
+        return userRepository.save(User.builder()
+                .email("batch-" + UUID.randomUUID() + "@test.local")
+                .passwordHash("not-used")
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+    }
+
+    private Product product(int stock) {
+        return productRepository.save(Product.builder()
+                .sellerId(UUID.randomUUID())
+                .name("Batch item")
+                .price(new BigDecimal("6.00"))
+                .stockQuantity(stock)
+                .status(Product.ProductStatus.ACTIVE)
+                .createdAt(Instant.now())
+                .updatedAt(Instant.now())
+                .build());
+    }
+}
@@ -0,0 +1,143 @@
+package aditi.wing.ecom.api.domain.cart.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import aditi.wing.ecom.api.domain.address.model.Address;
+import aditi.wing.ecom.api.domain.address.repository.AddressRepository;
+import aditi.wing.ecom.api.domain.auth.model.User;
+import aditi.wing.ecom.api.domain.auth.repository.UserRepository;
+import aditi.wing.ecom.api.domain.cart.dto.CartLineValidation;
+import aditi.wing.ecom.api.domain.cart.dto.CartValidationResponse;
+import aditi.wing.ecom.api.domain.orders.dto.PlaceOrderRequest;
+import aditi.wing.ecom.api.domain.orders.service.OrderService;
+import aditi.wing.ecom.api.domain.seller.model.Product;
+import aditi.wing.ecom.api.domain.seller.repository.ProductRepository;
+
+/**
+ * Checking a cart before checkout: price changes are applied to the cart
+ * and reported, sold-out products are a stock issue and withdrawn ones
+ * block checkout.
+ */
+@SpringBootTest
+class CartValidationTest {
+
+    @Autowired
+    CartService cartService;
+    @Autowired
+    OrderService orderService;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    AddressRepository addressRepository;
+    @Autowired
+    ProductRepository productRepository;
+
+    @Test
+    void changedPriceIsReportedOnceAndCharged() {
+        User user = user();
+        Product product = product(5);
+        cartService.addToCart(user.getId(), product.getId(), 2);
+        // Not read through the product cache yet, so validation sees the new price
+        product.setPrice(new BigDecimal("12.00"));
+        productRepository.save(product);
+
+        CartValidationResponse validation = cartService.validateCart(user.getId());
+
+        assertThat(validation.isValid()).isTrue();
+        assertThat(validation.getPreviousTotalPrice()).isEqualByComparingTo("20.00");
+        assertThat(validation.getTotalPrice()).isEqualByComparingTo("24.00");
+        assertThat(validation.getItems()).singleElement().satisfies(line -> {
+            assertThat(line.getIssues()).containsExactly(CartLineValidation.Issue.PRICE_CHANGED);
+            assertThat(line.getPreviousPrice()).isEqualByComparingTo("10.00");
+            assertThat(line.getUnitPrice()).isEqualByComparingTo("12.00");
+        });
+
+        assertThat(cartService.validateCart(user.getId()).getItems())
+                .singleElement()
+                .satisfies(line -> assertThat(line.getIssues()).isEmpty());
+        assertThat(orderService.placeOrder(user, new PlaceOrderRequest(addressOf(user))).totalAmount())
+                .isEqualByComparingTo("24.00");
+    }
+
+    @Test
+    void soldOutProductIsAStockIssue() {
+        User user = user();
+        Product product = product(2);
+        cartService.addToCart(user.getId(), product.getId(), 2);
+        product.setStockQuantity(0);
+        product.setStatus(Product.ProductStatus.OUT_OF_STOCK);
+        productRepository.save(product);
+
+        CartValidationResponse validation = cartService.validateCart(user.getId());
+
+        assertThat(validation.isValid()).isFalse();
+        assertThat(validation.getItems()).singleElement().satisfies(line -> {
+            assertThat(line.getIssues()).containsExactly(CartLineValidation.Issue.INSUFFICIENT_STOCK);
+            assertThat(line.getAvailableStock()).isZero();
+        });
+        assertThatThrownBy(() -> orderService.placeOrder(user, new PlaceOrderRequest(addressOf(user))))
+                .hasMessageStartingWith("Insufficient stock");
+    }
+
+    @Test
+    void inactiveProductBlocksCheckout() {
+        User user = user();
+        Product product = product(5);
+        cartService.addToCart(user.getId(), product.getId(), 1);
+        product.setStatus(Product.ProductStatus.INACTIVE);
+        productRepository.save(product);
+
+        CartValidationResponse validation = cartService.validateCart(user.getId());
+
+        assertThat(validation.isValid()).isFalse();
+        assertThat(validation.getItems()).singleElement()
+                .satisfies(line -> assertThat(line.getIssues())
+                        .containsExactly(CartLineValidation.Issue.PRODUCT_INACTIVE));
+        assertThatThrownBy(() -> orderService.placeOrder(user, new PlaceOrderRequest(addressOf(user))))
+                .hasMessageStartingWith("Product is no longer available");
+    }
+
+    private User user() {
+        LocalDateTime now = LocalDateTime.now();
+        return userRepository.save(User.builder()
+                .email("validate-" + UUID.randomUUID() + "@test.local")
+                .passwordHash("not-used")
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+    }
+
+    private UUID addressOf(User user) {
+        return addressRepository.save(Address.builder()
+                .user(user)
+                .recipientName("Buyer")
+                .phoneNumber("012345678")
+                .street1("1 Main St")
+                .city("Phnom Penh")
+                .state("Phnom Penh")
+                .country("KH")
+                .build()).getId();
+    }
+
+    private Product product(int stock) {
+        return productRepository.save(Product.builder()
+                .sellerId(UUID.randomUUID())
+                .name("Validated item")
+                .price(new BigDecimal("10.00"))
+                .stockQuantity(stock)
+                .status(Product.ProductStatus.ACTIVE)
+                .createdAt(Instant.now())
+                .updatedAt(Instant.now())
+                .build());
+    }
+}
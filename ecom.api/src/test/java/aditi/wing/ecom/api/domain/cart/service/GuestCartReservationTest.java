@@ -0,0 +1,124 @@
+package aditi.wing.ecom.api.domain.cart.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import aditi.wing.ecom.api.domain.auth.model.User;
+import aditi.wing.ecom.api.domain.auth.repository.UserRepository;
+import aditi.wing.ecom.api.domain.cart.dto.CartItemResponse;
+import aditi.wing.ecom.api.domain.cart.dto.CartLineValidation;
+import aditi.wing.ecom.api.domain.cart.dto.CartValidationResponse;
+import aditi.wing.ecom.api.domain.inventory.service.StockReservationLedger;
+import aditi.wing.ecom.api.domain.seller.model.Product;
+import aditi.wing.ecom.api.domain.seller.repository.ProductRepository;
+
+/**
+ * Guest carts in flash-sale mode: they hold no stock, and merging one holds
+ * its lines for the user.
+ */
+@SpringBootTest(properties = "app.inventory.reservations.enabled=true")
+class GuestCartReservationTest {
+
+    @Autowired
+    CartService cartService;
+    @Autowired
+    StockReservationLedger reservationLedger;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ProductRepository productRepository;
+
+    @Test
+    void guestCartsTakeNoHolds() {
+        Product product = product(5);
+        UUID sessionId = UUID.randomUUID();
+
+        cartService.addToGuestCart(sessionId, product.getId(), 3);
+        cartService.addToGuestCart(UUID.randomUUID(), product.getId(), 5);
+
+        assertThat(reservationLedger.held(sessionId, product.getId())).isZero();
+        assertThat(reservationLedger.available(product.getId())).isEqualTo(5);
+    }
+
+    @Test
+    void guestCartValidationReportsStockHeldByBuyers() {
+        Product product = product(3);
+        UUID sessionId = UUID.randomUUID();
+        cartService.addToGuestCart(sessionId, product.getId(), 2);
+        assertThat(reservationLedger.hold(UUID.randomUUID(), product.getId(), 2)).isTrue();
+
+        CartValidationResponse validation = cartService.validateGuestCart(sessionId);
+
+        assertThat(validation.isValid()).isFalse();
+        assertThat(validation.getItems()).singleElement().satisfies(line -> {
+            assertThat(line.getAvailableStock()).isEqualTo(1);
+            assertThat(line.getIssues()).containsExactly(CartLineValidation.Issue.INSUFFICIENT_STOCK);
+        });
+    }
+
+    @Test
+    void mergeHoldsForTheUserAndSkipsInactiveProducts() {
+        Product kept = product(4);
+        Product withdrawn = product(4);
+        UUID sessionId = UUID.randomUUID();
+        cartService.addToGuestCart(sessionId, kept.getId(), 2);
+        cartService.addToGuestCart(sessionId, withdrawn.getId(), 1);
+        withdrawn.setStatus(Product.ProductStatus.INACTIVE);
+        productRepository.save(withdrawn);
+        User user = user();
+
+        cartService.mergeGuestCart(sessionId, user.getId());
+
+        assertThat(cartService.getCartByUserId(user.getId()).getItems())
+                .extracting(CartItemResponse::getProductId)
+                .containsExactly(kept.getId());
+        assertThat(reservationLedger.held(user.getId(), kept.getId())).isEqualTo(2);
+        assertThat(reservationLedger.available(kept.getId())).isEqualTo(2);
+        assertThat(reservationLedger.held(user.getId(), withdrawn.getId())).isZero();
+        assertThat(cartService.getGuestCart(sessionId).getItems()).isEmpty();
+    }
+
+    @Test
+    void mergeDropsLinesWhoseStockIsHeldByOthers() {
+        Product product = product(2);
+        UUID sessionId = UUID.randomUUID();
+        cartService.addToGuestCart(sessionId, product.getId(), 2);
+        assertThat(reservationLedger.hold(UUID.randomUUID(), product.getId(), 2)).isTrue();
+        User user = user();
+
+        cartService.mergeGuestCart(sessionId, user.getId());
+
+        assertThat(cartService.getCartByUserId(user.getId()).getItems()).isEmpty();
+        assertThat(reservationLedger.held(user.getId(), product.getId())).isZero();
+    }
+
+    private User user() {
+        LocalDateTime now = LocalDateTime.now();
+        return userRepository.save(User.builder()
+                .email("guest-merge-" + UUID.randomUUID() + "@test.local")
+                .passwordHash("not-used")
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+    }
+
+    private Product product(int stock) {
+        return productRepository.save(Product.builder()
+                .sellerId(UUID.randomUUID())
+                .name("Guest cart item")
+                .price(new BigDecimal("3.00"))
+                .stockQuantity(stock)
+                .status(Product.ProductStatus.ACTIVE)
+                .createdAt(Instant.now())
+                .updatedAt(Instant.now())
+                .build());
+    }
+}
@@ -0,0 +1,140 @@
+package aditi.wing.ecom.api.domain.cart.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import aditi.wing.ecom.api.domain.auth.model.User;
+import aditi.wing.ecom.api.domain.auth.repository.UserRepository;
+import aditi.wing.ecom.api.domain.cart.repository.CartBatchRepository;
+import aditi.wing.ecom.api.domain.cart.repository.CartBatchRepository.ItemRow;
+import aditi.wing.ecom.api.domain.cart.service.CartService;
+import aditi.wing.ecom.api.domain.seller.model.Product;
+import aditi.wing.ecom.api.domain.seller.repository.ProductRepository;
+
+/**
+ * Write-behind of hot carts when the database refuses a flush: changes are
+ * kept and written by a later flush, and a cart that can never be written
+ * is dropped without holding back the others.
+ */
+@SpringBootTest(properties = "app.cart.hot-store.flush-interval=1h")
+class HotCartStoreFlushTest {
+
+    @Autowired
+    HotCartStore hotCartStore;
+    @Autowired
+    CartService cartService;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ProductRepository productRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @MockitoSpyBean
+    CartBatchRepository cartBatchRepository;
+
+    @Test
+    void failedInsertsAreRetriedByTheNextFlush() {
+        User user = user();
+        Product product = product();
+        cartService.addToCart(user.getId(), product.getId(), 2);
+        // Once for the batch, once for the cart on its own
+        doThrow(new TransientDataAccessResourceException("connection reset"))
+                .doThrow(new TransientDataAccessResourceException("connection reset"))
+                .doCallRealMethod()
+                .when(cartBatchRepository).insertItems(anyList());
+
+        hotCartStore.flush();
+        assertThat(quantitiesOf(user)).isEmpty();
+
+        hotCartStore.flush();
+        assertThat(quantitiesOf(user)).containsExactly(2);
+    }
+
+    @Test
+    void failedDeletesAreRetriedByTheNextFlush() {
+        User user = user();
+        Product product = product();
+        UUID itemId = cartService.addToCart(user.getId(), product.getId(), 1).getItems().get(0).getCartItemId();
+        hotCartStore.flush();
+        assertThat(quantitiesOf(user)).containsExactly(1);
+
+        cartService.removeItem(itemId);
+        doThrow(new TransientDataAccessResourceException("connection reset"))
+                .doThrow(new TransientDataAccessResourceException("connection reset"))
+                .doCallRealMethod()
+                .when(cartBatchRepository).deleteItems(anyList());
+
+        hotCartStore.flush();
+        assertThat(quantitiesOf(user)).containsExactly(1);
+
+        hotCartStore.flush();
+        assertThat(quantitiesOf(user)).isEmpty();
+    }
+
+    @Test
+    void cartThatCanNeverBeWrittenIsDroppedAndTheOthersAreWritten() {
+        User good = user();
+        User bad = user();
+        Product product = product();
+        Product broken = product();
+        cartService.addToCart(good.getId(), product.getId(), 1);
+        cartService.addToCart(bad.getId(), broken.getId(), 1);
+        doAnswer(invocation -> {
+            List<ItemRow> rows = invocation.getArgument(0);
+            if (rows.stream().anyMatch(row -> row.productId().equals(broken.getId()))) {
+                throw new DataIntegrityViolationException("product is gone");
+            }
+            return invocation.callRealMethod();
+        }).when(cartBatchRepository).insertItems(anyList());
+
+        hotCartStore.flush();
+
+        assertThat(quantitiesOf(good)).containsExactly(1);
+        assertThat(quantitiesOf(bad)).isEmpty();
+        assertThat(cartService.getCartByUserId(bad.getId()).getItems()).isEmpty();
+    }
+
+    private List<Integer> quantitiesOf(User user) {
+        return jdbcTemplate.queryForList(
+                "SELECT ci.quantity FROM cart_items ci JOIN cart c ON c.id = ci.cart_id WHERE c.user_id = ?",
+                Integer.class, user.getId());
+    }
+
+    private User user() {
+        LocalDateTime now = LocalDateTime.now();
+        return userRepository.save(User.builder()
+                .email("flush-" + UUID.randomUUID() + "@test.local")
+                .passwordHash("not-used")
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+    }
+
+    private Product product() {
+        return productRepository.save(Product.builder()
+                .sellerId(UUID.randomUUID())
+                .name("Flushed item")
+                .price(new BigDecimal("1.50"))
+                .stockQuantity(10)
+                .status(Product.ProductStatus.ACTIVE)
+                .createdAt(Instant.now())
+                .updatedAt(Instant.now())
+                .build());
+    }
+}
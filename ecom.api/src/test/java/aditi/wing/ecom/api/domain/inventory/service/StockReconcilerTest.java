@@ -0,0 +1,119 @@
+package aditi.wing.ecom.api.domain.inventory.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import aditi.wing.ecom.api.domain.inventory.model.StockMovement;
+import aditi.wing.ecom.api.domain.inventory.repository.StockMovementRepository;
+import aditi.wing.ecom.api.domain.seller.model.Product;
+import aditi.wing.ecom.api.domain.seller.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Applying ledger sales to the products table, and the ledger's view of
+ * stock while sales are pending.
+ */
+@SpringBootTest(properties = "app.inventory.reservations.enabled=true")
+class StockReconcilerTest {
+
+    @Autowired
+    StockReconciler stockReconciler;
+    @Autowired
+    StockReservationLedger reservationLedger;
+    @Autowired
+    StockMovementRepository stockMovementRepository;
+    @Autowired
+    ProductRepository productRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void pendingSalesAreNotAvailableAndAreAppliedOnce() throws InterruptedException {
+        Product product = product(10);
+        sale(product, 4);
+
+        assertThat(reservationLedger.available(product.getId())).isEqualTo(6);
+        reconcileAll(product);
+
+        assertThat(stockOf(product)).isEqualTo(6);
+        assertThat(reservationLedger.available(product.getId())).isEqualTo(6);
+    }
+
+    @Test
+    void salesBeyondStockAreCountedAndSellTheProductOut() throws InterruptedException {
+        Product product = product(5);
+        sale(product, 7);
+        double before = meterRegistry.counter("inventory.stock.oversold").count();
+
+        reconcileAll(product);
+
+        assertThat(stockOf(product)).isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT status FROM products WHERE id = ?", String.class, product.getId()))
+                .isEqualTo("OUT_OF_STOCK");
+        assertThat(meterRegistry.counter("inventory.stock.oversold").count()).isEqualTo(before + 1);
+    }
+
+    @Test
+    void releaseAllReturnsEveryHoldOfTheOwner() {
+        Product first = product(3);
+        Product second = product(3);
+        UUID owner = UUID.randomUUID();
+        assertThat(reservationLedger.hold(owner, first.getId(), 2)).isTrue();
+        assertThat(reservationLedger.hold(owner, second.getId(), 3)).isTrue();
+        assertThat(reservationLedger.hold(UUID.randomUUID(), second.getId(), 1)).isFalse();
+
+        reservationLedger.releaseAll(owner);
+
+        assertThat(reservationLedger.held(owner, first.getId())).isZero();
+        assertThat(reservationLedger.available(first.getId())).isEqualTo(3);
+        assertThat(reservationLedger.available(second.getId())).isEqualTo(3);
+    }
+
+    private void reconcileAll(Product product) throws InterruptedException {
+        // The scheduled run may hold the movement (SKIP LOCKED); retry until it is applied
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (stockMovementRepository.sumPendingQuantity(product.getId()) > 0) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            stockReconciler.reconcile();
+            Thread.sleep(50);
+        }
+    }
+
+    private int stockOf(Product product) {
+        return jdbcTemplate.queryForObject(
+                "SELECT stock_quantity FROM products WHERE id = ?", Integer.class, product.getId());
+    }
+
+    private void sale(Product product, int quantity) {
+        stockMovementRepository.save(StockMovement.builder()
+                .productId(product.getId())
+                .orderId(UUID.randomUUID())
+                .quantity(quantity)
+                .applied(false)
+                .build());
+    }
+
+    private Product product(int stock) {
+        return productRepository.save(Product.builder()
+                .sellerId(UUID.randomUUID())
+                .name("Reconciled item")
+                .price(new BigDecimal("2.50"))
+                .stockQuantity(stock)
+                .status(Product.ProductStatus.ACTIVE)
+                .createdAt(Instant.now())
+                .updatedAt(Instant.now())
+                .build());
+    }
+}
@@ -0,0 +1,253 @@
+package aditi.wing.ecom.api.domain.orders.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import lombok.extern.slf4j.Slf4j;
+
+import aditi.wing.ecom.api.domain.address.model.Address;
+import aditi.wing.ecom.api.domain.address.repository.AddressRepository;
+import aditi.wing.ecom.api.domain.auth.model.User;
+import aditi.wing.ecom.api.domain.auth.repository.UserRepository;
+import aditi.wing.ecom.api.domain.cart.repository.CartBatchRepository;
+import aditi.wing.ecom.api.domain.cart.repository.CartBatchRepository.CartRow;
+import aditi.wing.ecom.api.domain.cart.repository.CartBatchRepository.ItemRow;
+import aditi.wing.ecom.api.domain.orders.dto.PlaceOrderRequest;
+import aditi.wing.ecom.api.domain.seller.model.Product;
+import aditi.wing.ecom.api.domain.seller.repository.ProductRepository;
+
+/**
+ * JDBC round trips per order and orders/s for 1-, 10- and 50-line carts,
+ * placed one after another from carts already in the database. Round trips
+ * are the execute calls that reach the driver, so a JDBC batch counts once.
+ * The test properties replace the main ones, so the production batching
+ * settings are repeated here.
+ * {@code mvn -Pperformance test -Dtest=PlaceOrderBenchmarkTest}
+ */
+@Slf4j
+@Tag("performance")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:order-benchmark",
+        "spring.jpa.show-sql=false",
+        "app.cart.hot-store.flush-interval=1h",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true",
+        "spring.jpa.properties.hibernate.order_updates=true"
+})
+class PlaceOrderBenchmarkTest {
+
+    static final int[] CART_LINES = { 1, 10, 50 };
+    static final int WARMUP = 20;
+    static final int ORDERS = 200;
+
+    @Autowired
+    OrderService orderService;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    AddressRepository addressRepository;
+    @Autowired
+    ProductRepository productRepository;
+    @Autowired
+    CartBatchRepository cartBatchRepository;
+
+    record Buyer(User user, UUID addressId) {
+    }
+
+    @TestConfiguration
+    static class RoundTripCounting {
+
+        @Bean
+        static BeanPostProcessor countingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? new CountingDataSource(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    @Test
+    void roundTripsAndThroughputByCartSize() {
+        List<Product> products = products();
+        Map<Integer, Double> roundTrips = new LinkedHashMap<>();
+        for (int lines : CART_LINES) {
+            List<Product> cart = products.subList(0, lines);
+            for (Buyer buyer : buyers(cart, WARMUP)) {
+                orderService.placeOrder(buyer.user(), new PlaceOrderRequest(buyer.addressId()));
+            }
+
+            List<Buyer> buyers = buyers(cart, ORDERS);
+            long statements = 0;
+            long started = System.nanoTime();
+            for (Buyer buyer : buyers) {
+                statements += CountingDataSource.count(() ->
+                        orderService.placeOrder(buyer.user(), new PlaceOrderRequest(buyer.addressId())));
+            }
+            double seconds = (System.nanoTime() - started) / 1e9;
+
+            roundTrips.put(lines, (double) statements / ORDERS);
+            log.info("{}-line cart: {} round trips per order, {} orders/s",
+                    lines, (double) statements / ORDERS, Math.round(ORDERS / seconds));
+        }
+
+        // Item inserts, stock updates and cart deletes are batched, so a bigger
+        // cart costs no more round trips per order than a single line
+        assertThat(roundTrips.get(50)).isLessThanOrEqualTo(roundTrips.get(1));
+    }
+
+    private List<Product> products() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            products.add(Product.builder()
+                    .sellerId(UUID.randomUUID())
+                    .name("Benchmark item " + i)
+                    .price(new BigDecimal("9.99"))
+                    .stockQuantity(1_000_000)
+                    .status(Product.ProductStatus.ACTIVE)
+                    .createdAt(Instant.now())
+                    .updatedAt(Instant.now())
+                    .build());
+        }
+        return productRepository.saveAll(products);
+    }
+
+    private List<Buyer> buyers(List<Product> cart, int count) {
+        LocalDateTime now = LocalDateTime.now();
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            users.add(User.builder()
+                    .email("benchmark-" + UUID.randomUUID() + "@test.local")
+                    .passwordHash("not-used")
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        }
+        users = userRepository.saveAll(users);
+
+        List<Address> addresses = new ArrayList<>();
+        List<CartRow> carts = new ArrayList<>();
+        List<ItemRow> items = new ArrayList<>();
+        for (User user : users) {
+            addresses.add(Address.builder()
+                    .user(user)
+                    .recipientName("Buyer")
+                    .phoneNumber("012345678")
+                    .street1("1 Main St")
+                    .city("Phnom Penh")
+                    .state("Phnom Penh")
+                    .country("KH")
+                    .build());
+            UUID cartId = UUID.randomUUID();
+            carts.add(new CartRow(cartId, user.getId(), now, now));
+            for (Product product : cart) {
+                items.add(new ItemRow(UUID.randomUUID(), cartId, product.getId(), 1, product.getPrice(), now, now));
+            }
+        }
+        addresses = addressRepository.saveAll(addresses);
+        cartBatchRepository.insertCarts(carts);
+        cartBatchRepository.insertItems(items);
+
+        List<Buyer> buyers = new ArrayList<>();
+        for (int i = 0; i < users.size(); i++) {
+            buyers.add(new Buyer(users.get(i), addresses.get(i).getId()));
+        }
+        return buyers;
+    }
+
+    /**
+     * Counts statement executions made on the calling thread while
+     * {@link #count(Runnable)} runs.
+     */
+    static class CountingDataSource extends DelegatingDataSource {
+
+        private static final ThreadLocal<long[]> EXECUTIONS = new ThreadLocal<>();
+
+        CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        static long count(Runnable work) {
+            long[] executions = new long[1];
+            EXECUTIONS.set(executions);
+            try {
+                work.run();
+            } finally {
+                EXECUTIONS.remove();
+            }
+            return executions[0];
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return counting(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return counting(super.getConnection(username, password));
+        }
+
+        private static Connection counting(Connection connection) {
+            return proxy(Connection.class, connection, (method, result) -> result instanceof Statement statement
+                    ? counting(statement)
+                    : result);
+        }
+
+        private static Statement counting(Statement statement) {
+            Class<? extends Statement> type = statement instanceof CallableStatement ? CallableStatement.class
+                    : statement instanceof PreparedStatement ? PreparedStatement.class
+                    : Statement.class;
+            return proxy(type, statement, (method, result) -> {
+                long[] executions = EXECUTIONS.get();
+                if (executions != null && method.getName().startsWith("execute")) {
+                    executions[0]++;
+                }
+                return result;
+            });
+        }
+
+        private interface AfterCall {
+            Object apply(Method method, Object result);
+        }
+
+        private static <T> T proxy(Class<? extends T> type, T target, AfterCall afterCall) {
+            return type.cast(Proxy.newProxyInstance(CountingDataSource.class.getClassLoader(),
+                    new Class<?>[] { type }, (proxy, method, args) -> {
+                        try {
+                            return afterCall.apply(method, method.invoke(target, args));
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    }));
+        }
+    }
+}
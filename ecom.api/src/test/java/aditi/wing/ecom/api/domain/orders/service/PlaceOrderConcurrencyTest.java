@@ -0,0 +1,167 @@
+package aditi.wing.ecom.api.domain.orders.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+import aditi.wing.ecom.api.domain.address.model.Address;
+import aditi.wing.ecom.api.domain.address.repository.AddressRepository;
+import aditi.wing.ecom.api.domain.auth.model.User;
+import aditi.wing.ecom.api.domain.auth.repository.UserRepository;
+import aditi.wing.ecom.api.domain.cart.repository.CartBatchRepository;
+import aditi.wing.ecom.api.domain.cart.repository.CartBatchRepository.CartRow;
+import aditi.wing.ecom.api.domain.cart.repository.CartBatchRepository.ItemRow;
+import aditi.wing.ecom.api.domain.orders.dto.PlaceOrderRequest;
+import aditi.wing.ecom.api.domain.seller.model.Product;
+import aditi.wing.ecom.api.domain.seller.repository.ProductRepository;
+
+/**
+ * 1,000 buyers check out the last units of one product at the same time,
+ * through the conditional stock UPDATE (reservations disabled).
+ */
+@Slf4j
+@SpringBootTest
+class PlaceOrderConcurrencyTest {
+
+    static final int CHECKOUTS = 1000;
+    static final int STOCK = 100;
+    static final int THREADS = 32;
+    // Far below what H2 does locally (~200/s); catches checkouts serializing on a lock
+    static final double MIN_CHECKOUTS_PER_SECOND = 20;
+
+    @Autowired
+    OrderService orderService;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    AddressRepository addressRepository;
+    @Autowired
+    ProductRepository productRepository;
+    @Autowired
+    CartBatchRepository cartBatchRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    record Buyer(User user, UUID addressId) {
+    }
+
+    @Test
+    void parallelCheckoutsNeverOversell() throws Exception {
+        Product product = productRepository.save(Product.builder()
+                .sellerId(UUID.randomUUID())
+                .name("Flash sale item")
+                .price(new BigDecimal("19.99"))
+                .stockQuantity(STOCK)
+                .status(Product.ProductStatus.ACTIVE)
+                .createdAt(Instant.now())
+                .updatedAt(Instant.now())
+                .build());
+        List<Buyer> buyers = buyersWithOneUnitInCart(product);
+
+        AtomicInteger placed = new AtomicInteger();
+        AtomicInteger soldOut = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> checkouts = new ArrayList<>();
+        for (Buyer buyer : buyers) {
+            checkouts.add(pool.submit(() -> {
+                start.await();
+                try {
+                    orderService.placeOrder(buyer.user(), new PlaceOrderRequest(buyer.addressId()));
+                    placed.incrementAndGet();
+                } catch (IllegalStateException e) {
+                    assertThat(e.getMessage()).startsWith("Insufficient stock");
+                    soldOut.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        long started = System.nanoTime();
+        start.countDown();
+        for (Future<?> checkout : checkouts) {
+            checkout.get(2, TimeUnit.MINUTES);
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        pool.shutdown();
+        log.info("{} checkouts in {} ms, {}/s",
+                CHECKOUTS, Math.round(seconds * 1000), Math.round(CHECKOUTS / seconds));
+
+        assertThat(CHECKOUTS / seconds).isGreaterThan(MIN_CHECKOUTS_PER_SECOND);
+        assertThat(placed.get()).isEqualTo(STOCK);
+        assertThat(soldOut.get()).isEqualTo(CHECKOUTS - STOCK);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(quantity), 0) FROM order_items WHERE product_id = ?",
+                Integer.class, product.getId())).isEqualTo(STOCK);
+        assertStockSettled(product);
+    }
+
+    /**
+     * The product's row once every checkout has finished.
+     */
+    void assertStockSettled(Product product) throws InterruptedException {
+        assertThat(jdbcTemplate.queryForMap(
+                "SELECT stock_quantity, status FROM products WHERE id = ?", product.getId()))
+                .containsEntry("STOCK_QUANTITY", 0)
+                .containsEntry("STATUS", "OUT_OF_STOCK");
+    }
+
+    private List<Buyer> buyersWithOneUnitInCart(Product product) {
+        LocalDateTime now = LocalDateTime.now();
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < CHECKOUTS; i++) {
+            users.add(User.builder()
+                    .email("checkout-" + UUID.randomUUID() + "@test.local")
+                    .passwordHash("not-used")
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        }
+        users = userRepository.saveAll(users);
+
+        List<Address> addresses = new ArrayList<>();
+        List<CartRow> carts = new ArrayList<>();
+        List<ItemRow> items = new ArrayList<>();
+        for (User user : users) {
+            addresses.add(Address.builder()
+                    .user(user)
+                    .recipientName("Buyer")
+                    .phoneNumber("012345678")
+                    .street1("1 Main St")
+                    .city("Phnom Penh")
+                    .state("Phnom Penh")
+                    .country("KH")
+                    .build());
+            UUID cartId = UUID.randomUUID();
+            carts.add(new CartRow(cartId, user.getId(), now, now));
+            items.add(new ItemRow(UUID.randomUUID(), cartId, product.getId(), 1, product.getPrice(), now, now));
+        }
+        addresses = addressRepository.saveAll(addresses);
+        cartBatchRepository.insertCarts(carts);
+        cartBatchRepository.insertItems(items);
+
+        List<Buyer> buyers = new ArrayList<>();
+        for (int i = 0; i < users.size(); i++) {
+            buyers.add(new Buyer(users.get(i), addresses.get(i).getId()));
+        }
+        return buyers;
+    }
+}
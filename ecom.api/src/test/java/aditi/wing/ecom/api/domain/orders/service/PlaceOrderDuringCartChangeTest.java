@@ -0,0 +1,139 @@
+package aditi.wing.ecom.api.domain.orders.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import aditi.wing.ecom.api.domain.address.model.Address;
+import aditi.wing.ecom.api.domain.address.repository.AddressRepository;
+import aditi.wing.ecom.api.domain.auth.model.User;
+import aditi.wing.ecom.api.domain.auth.repository.UserRepository;
+import aditi.wing.ecom.api.domain.cart.dto.CartItemResponse;
+import aditi.wing.ecom.api.domain.cart.dto.CartResponse;
+import aditi.wing.ecom.api.domain.cart.service.CartService;
+import aditi.wing.ecom.api.domain.cart.store.HotCartStore;
+import aditi.wing.ecom.api.domain.orders.dto.OrderItemResponse;
+import aditi.wing.ecom.api.domain.orders.dto.OrderResponse;
+import aditi.wing.ecom.api.domain.orders.dto.PlaceOrderRequest;
+import aditi.wing.ecom.api.domain.seller.model.Product;
+import aditi.wing.ecom.api.domain.seller.repository.ProductRepository;
+
+/**
+ * A buyer adds to the cart while the order for it is being placed: the new
+ * item waits for the order to commit and is then all that is in the cart.
+ */
+@SpringBootTest
+class PlaceOrderDuringCartChangeTest {
+
+    @Autowired
+    OrderService orderService;
+    @Autowired
+    CartService cartService;
+    @Autowired
+    HotCartStore hotCartStore;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    AddressRepository addressRepository;
+    @Autowired
+    ProductRepository productRepository;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void addToCartDuringCheckoutLandsInTheNextCart() throws Exception {
+        User user = buyer();
+        UUID addressId = addressOf(user);
+        Product ordered = product("Ordered item");
+        Product added = product("Added during checkout");
+        cartService.addToCart(user.getId(), ordered.getId(), 2);
+
+        CountDownLatch placed = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<OrderResponse> checkout = CompletableFuture.supplyAsync(() ->
+                transactionTemplate.execute(status -> {
+                    OrderResponse order = orderService.placeOrder(user, new PlaceOrderRequest(addressId));
+                    placed.countDown();
+                    await(commit);
+                    return order;
+                }));
+        assertThat(placed.await(30, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<CartResponse> add = CompletableFuture.supplyAsync(() ->
+                cartService.addToCart(user.getId(), added.getId(), 1));
+        Thread.sleep(200);
+        assertThat(add).isNotDone();
+        // A flush while the order is open must not bring the ordered rows back
+        hotCartStore.flush();
+
+        commit.countDown();
+        OrderResponse order = checkout.get(30, TimeUnit.SECONDS);
+        CartResponse cart = add.get(30, TimeUnit.SECONDS);
+
+        assertThat(order.items()).extracting(OrderItemResponse::productId).containsExactly(ordered.getId());
+        assertThat(cart.getItems()).extracting(CartItemResponse::getProductId).containsExactly(added.getId());
+        assertThat(cart.getItems()).extracting(CartItemResponse::getQuantity).containsExactly(1);
+
+        hotCartStore.flush();
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT ci.product_id FROM cart_items ci JOIN cart c ON c.id = ci.cart_id WHERE c.user_id = ?",
+                UUID.class, user.getId())).containsExactly(added.getId());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(30, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    private User buyer() {
+        LocalDateTime now = LocalDateTime.now();
+        return userRepository.save(User.builder()
+                .email("checkout-" + UUID.randomUUID() + "@test.local")
+                .passwordHash("not-used")
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+    }
+
+    private UUID addressOf(User user) {
+        return addressRepository.save(Address.builder()
+                .user(user)
+                .recipientName("Buyer")
+                .phoneNumber("012345678")
+                .street1("1 Main St")
+                .city("Phnom Penh")
+                .state("Phnom Penh")
+                .country("KH")
+                .build()).getId();
+    }
+
+    private Product product(String name) {
+        return productRepository.save(Product.builder()
+                .sellerId(UUID.randomUUID())
+                .name(name)
+                .price(new BigDecimal("9.99"))
+                .stockQuantity(10)
+                .status(Product.ProductStatus.ACTIVE)
+                .createdAt(Instant.now())
+                .updatedAt(Instant.now())
+                .build());
+    }
+}
@@ -0,0 +1,45 @@
+package aditi.wing.ecom.api.domain.orders.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import aditi.wing.ecom.api.domain.inventory.repository.StockMovementRepository;
+import aditi.wing.ecom.api.domain.inventory.service.StockReconciler;
+import aditi.wing.ecom.api.domain.inventory.service.StockReservationLedger;
+import aditi.wing.ecom.api.domain.seller.model.Product;
+
+/**
+ * The same checkouts through the in-memory reservation ledger, whose sales
+ * reach the products table when reconciled.
+ */
+@SpringBootTest(properties = "app.inventory.reservations.enabled=true")
+class PlaceOrderLedgerConcurrencyTest extends PlaceOrderConcurrencyTest {
+
+    @Autowired
+    StockReservationLedger reservationLedger;
+    @Autowired
+    StockReconciler stockReconciler;
+    @Autowired
+    StockMovementRepository stockMovementRepository;
+
+    @Override
+    void assertStockSettled(Product product) throws InterruptedException {
+        assertThat(reservationLedger.available(product.getId())).isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT SUM(quantity) FROM stock_movements WHERE product_id = ?",
+                Integer.class, product.getId())).isEqualTo(STOCK);
+
+        // The scheduled run may hold some movements (SKIP LOCKED); retry until all are applied
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (stockMovementRepository.sumPendingQuantity(product.getId()) > 0) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            stockReconciler.reconcile();
+            Thread.sleep(50);
+        }
+        super.assertStockSettled(product);
+    }
+}
@@ -0,0 +1,140 @@
+package aditi.wing.ecom.api.domain.orders.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import aditi.wing.ecom.api.domain.address.model.Address;
+import aditi.wing.ecom.api.domain.address.repository.AddressRepository;
+import aditi.wing.ecom.api.domain.auth.model.User;
+import aditi.wing.ecom.api.domain.auth.repository.UserRepository;
+import aditi.wing.ecom.api.domain.cart.service.CartService;
+import aditi.wing.ecom.api.domain.orders.dto.PlaceOrderRequest;
+import aditi.wing.ecom.api.domain.seller.model.Product;
+import aditi.wing.ecom.api.domain.seller.repository.ProductRepository;
+
+/**
+ * Buyers whose cart edits are still only in the hot cart store check out at
+ * the same time, with more checkouts than pooled connections. Each checkout
+ * writes its cart on the order's own connection, so none waits for a second.
+ */
+@SpringBootTest(properties = {
+        "app.cart.hot-store.flush-interval=1h",
+        "spring.datasource.hikari.maximum-pool-size=4",
+        "spring.datasource.hikari.connection-timeout=5000"
+})
+class PlaceOrderUnflushedCartConcurrencyTest {
+
+    static final int CHECKOUTS = 200;
+    static final int THREADS = 16;
+
+    @Autowired
+    OrderService orderService;
+    @Autowired
+    CartService cartService;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    AddressRepository addressRepository;
+    @Autowired
+    ProductRepository productRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void checkoutsWriteUnflushedCartsInTheOrderTransaction() throws Exception {
+        Product first = product("First item");
+        Product second = product("Second item");
+        List<User> users = buyers();
+        List<UUID> addressIds = new ArrayList<>();
+        for (User user : users) {
+            addressIds.add(addressOf(user));
+            cartService.addToCart(user.getId(), first.getId(), 1);
+            cartService.addToCart(user.getId(), second.getId(), 2);
+        }
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM cart_items WHERE product_id IN (?, ?)",
+                Integer.class, first.getId(), second.getId())).isZero();
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> checkouts = new ArrayList<>();
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            UUID addressId = addressIds.get(i);
+            checkouts.add(pool.submit(() -> {
+                start.await();
+                orderService.placeOrder(user, new PlaceOrderRequest(addressId));
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> checkout : checkouts) {
+            checkout.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(quantity), 0) FROM order_items WHERE product_id IN (?, ?)",
+                Integer.class, first.getId(), second.getId())).isEqualTo(CHECKOUTS * 3);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM cart_items WHERE product_id IN (?, ?)",
+                Integer.class, first.getId(), second.getId())).isZero();
+        for (User user : users) {
+            assertThat(cartService.getCartByUserId(user.getId()).getItems()).isEmpty();
+        }
+    }
+
+    private List<User> buyers() {
+        LocalDateTime now = LocalDateTime.now();
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < CHECKOUTS; i++) {
+            users.add(User.builder()
+                    .email("unflushed-" + UUID.randomUUID() + "@test.local")
+                    .passwordHash("not-used")
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        }
+        return userRepository.saveAll(users);
+    }
+
+    private UUID addressOf(User user) {
+        return addressRepository.save(Address.builder()
+                .user(user)
+                .recipientName("Buyer")
+                .phoneNumber("012345678")
+                .street1("1 Main St")
+                .city("Phnom Penh")
+                .state("Phnom Penh")
+                .country("KH")
+                .build()).getId();
+    }
+
+    private Product product(String name) {
+        return productRepository.save(Product.builder()
+                .sellerId(UUID.randomUUID())
+                .name(name)
+                .price(new BigDecimal("4.99"))
+                .stockQuantity(CHECKOUTS * 2)
+                .status(Product.ProductStatus.ACTIVE)
+                .createdAt(Instant.now())
+                .updatedAt(Instant.now())
+                .build());
+    }
+}
@@ -0,0 +1,96 @@
+package aditi.wing.ecom.api.domain.product.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import aditi.wing.ecom.api.domain.address.model.Address;
+import aditi.wing.ecom.api.domain.address.repository.AddressRepository;
+import aditi.wing.ecom.api.domain.auth.model.User;
+import aditi.wing.ecom.api.domain.auth.repository.UserRepository;
+import aditi.wing.ecom.api.domain.cart.service.CartService;
+import aditi.wing.ecom.api.domain.orders.dto.PlaceOrderRequest;
+import aditi.wing.ecom.api.domain.orders.service.OrderService;
+import aditi.wing.ecom.api.domain.seller.model.Product;
+import aditi.wing.ecom.api.domain.seller.repository.ProductRepository;
+
+/**
+ * Orders change the catalog version (and so every listing validator) only
+ * when they sell a product out.
+ */
+@SpringBootTest
+class CatalogVersionTest {
+
+    @Autowired
+    CatalogVersion catalogVersion;
+    @Autowired
+    OrderService orderService;
+    @Autowired
+    CartService cartService;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    AddressRepository addressRepository;
+    @Autowired
+    ProductRepository productRepository;
+
+    @Test
+    void orderThatLeavesStockKeepsTheVersion() {
+        Product product = product(5);
+        CatalogVersion.State before = catalogVersion.current();
+
+        order(product, 2);
+
+        assertThat(catalogVersion.current()).isEqualTo(before);
+    }
+
+    @Test
+    void orderThatSellsOutBumpsTheVersion() {
+        Product product = product(2);
+        CatalogVersion.State before = catalogVersion.current();
+
+        order(product, 2);
+
+        assertThat(catalogVersion.current().version()).isGreaterThan(before.version());
+    }
+
+    private void order(Product product, int quantity) {
+        LocalDateTime now = LocalDateTime.now();
+        User user = userRepository.save(User.builder()
+                .email("catalog-" + UUID.randomUUID() + "@test.local")
+                .passwordHash("not-used")
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+        UUID addressId = addressRepository.save(Address.builder()
+                .user(user)
+                .recipientName("Buyer")
+                .phoneNumber("012345678")
+                .street1("1 Main St")
+                .city("Phnom Penh")
+                .state("Phnom Penh")
+                .country("KH")
+                .build()).getId();
+        cartService.addToCart(user.getId(), product.getId(), quantity);
+        orderService.placeOrder(user, new PlaceOrderRequest(addressId));
+    }
+
+    private Product product(int stock) {
+        return productRepository.save(Product.builder()
+                .sellerId(UUID.randomUUID())
+                .name("Catalog version item")
+                .price(new BigDecimal("9.99"))
+                .stockQuantity(stock)
+                .status(Product.ProductStatus.ACTIVE)
+                .createdAt(Instant.now())
+                .updatedAt(Instant.now())
+                .build());
+    }
+}
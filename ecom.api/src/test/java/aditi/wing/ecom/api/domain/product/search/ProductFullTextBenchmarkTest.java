@@ -0,0 +1,164 @@
+package aditi.wing.ecom.api.domain.product.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import aditi.wing.ecom.api.domain.product.service.ProductService;
+
+/**
+ * p99 of GET /api/products?search= through the tsvector/GIN full-text search
+ * and through the LIKE scan, over a seeded catalog (1M products by default,
+ * -Dbenchmark.products to change). Full-text search only exists on
+ * PostgreSQL, so this runs against the database given on the command line and
+ * is skipped without one:
+ * {@code mvn -Pperformance test -Dtest=ProductFullTextBenchmarkTest
+ * -Dbenchmark.postgres.url=jdbc:postgresql://localhost:5432/bench
+ * -Dbenchmark.postgres.username=postgres -Dbenchmark.postgres.password=...}.
+ * Seeded rows are deleted afterwards.
+ */
+@Slf4j
+@Tag("performance")
+@EnabledIfSystemProperty(named = "benchmark.postgres.url", matches = ".+")
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        "app.catalog.search-mode=fulltext"
+})
+class ProductFullTextBenchmarkTest {
+
+    static final int PRODUCTS = Integer.getInteger("benchmark.products", 1_000_000);
+    static final int VOCABULARY = 5_000;
+    static final int WARMUP = 100;
+    static final int FULLTEXT_REQUESTS = 1_000;
+    static final int LIKE_REQUESTS = 100;
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getProperty("benchmark.postgres.url"));
+        registry.add("spring.datasource.username", () -> System.getProperty("benchmark.postgres.username", "postgres"));
+        registry.add("spring.datasource.password", () -> System.getProperty("benchmark.postgres.password", ""));
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    ProductFullTextSearch fullTextSearch;
+    @Autowired
+    ProductService productService;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final Random random = new Random(42);
+    private final UUID sellerId = UUID.randomUUID();
+
+    @AfterEach
+    void deleteSeededProducts() {
+        jdbcTemplate.update("DELETE FROM products WHERE seller_id = ?", sellerId);
+    }
+
+    @Test
+    void fullTextP99AgainstLikeScan() throws Exception {
+        assertThat(fullTextSearch.isAvailable()).isTrue();
+        seed();
+        jdbcTemplate.execute("ANALYZE products");
+
+        search(WARMUP);
+        long fullTextP99 = search(FULLTEXT_REQUESTS);
+
+        Object service = AopTestUtils.getUltimateTargetObject(productService);
+        ReflectionTestUtils.setField(service, "searchMode", ProductSearchMode.LIKE);
+        long likeP99;
+        try {
+            search(LIKE_REQUESTS / 10);
+            likeP99 = search(LIKE_REQUESTS);
+        } finally {
+            ReflectionTestUtils.setField(service, "searchMode", ProductSearchMode.FULLTEXT);
+        }
+
+        log.info("search p99 over {} products: {} ms full-text, {} ms LIKE", PRODUCTS, fullTextP99, likeP99);
+        assertThat(fullTextP99).isLessThan(likeP99);
+    }
+
+    /**
+     * Run the given number of searches for random vocabulary words and return
+     * the p99 in milliseconds.
+     */
+    private long search(int requests) throws Exception {
+        long[] millis = new long[requests];
+        for (int i = 0; i < requests; i++) {
+            String term = URLEncoder.encode(word(random.nextInt(VOCABULARY)), StandardCharsets.UTF_8);
+            HttpRequest request = HttpRequest.newBuilder(
+                    URI.create("http://localhost:" + port + "/api/products?size=20&search=" + term)).GET().build();
+            long started = System.nanoTime();
+            assertThat(client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode()).isEqualTo(200);
+            millis[i] = (System.nanoTime() - started) / 1_000_000;
+        }
+        Arrays.sort(millis);
+        return millis[(int) Math.ceil(requests * 0.99) - 1];
+    }
+
+    private void seed() {
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            batch.add(new Object[] {
+                    UUID.randomUUID(), sellerId, words(3), words(20),
+                    BigDecimal.valueOf(100 + random.nextInt(100_000), 2), random.nextInt(50),
+                    "category-" + random.nextInt(20), now, now });
+            if (batch.size() == 1_000 || i == PRODUCTS - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO products (id, seller_id, name, description, price, "
+                        + "stock_quantity, category, status, created_at, updated_at) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, 'ACTIVE', ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private String words(int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(word(random.nextInt(VOCABULARY)));
+        }
+        return text.toString();
+    }
+
+    private static String word(int index) {
+        return "w" + Integer.toString(index * 7919 % 1_000_003, 36);
+    }
+}
@@ -7,6 +7,7 @@ import { ShippingMethod, CheckoutState } from "@/lib/types/checkout";
 import { AddressResponse } from "@/lib/services/addresses.service";
 import { usePlaceOrder } from "@/hooks/useOrder";
 import { cartService } from "@/lib/services/cart.service";
+import { CartLineValidation } from "@/lib/types/cart";
 import ShippingInfoStep from "./components/Shippinginfo";
 import PaymentStep from "./components/PaymentStep";
 import ReviewStep from "./components/ReviewStep";
@@ -28,9 +29,19 @@ const SHIPPING_METHODS: ShippingMethod[] = [
   },
 ];
 
+const describeCartIssue = (item: CartLineValidation): string => {
+  if (item.issues.includes("PRODUCT_INACTIVE")) {
+    return `${item.productName} is no longer available.`;
+  }
+  if (item.issues.includes("INSUFFICIENT_STOCK")) {
+    return `Only ${item.availableStock} of ${item.productName} left.`;
+  }
+  return `${item.productName} is now $${Number(item.unitPrice).toFixed(2)} (was $${Number(item.previousPrice).toFixed(2)}).`;
+};
+
 export default function CheckoutPage() {
   const router = useRouter();
-  const { cart, clearCartLocally } = useCartContext();
+  const { cart, clearCartLocally, refetch } = useCartContext();
   const placeOrderMutation = usePlaceOrder();
 
   const [state, setState] = useState<CheckoutState>({
@@ -68,6 +79,15 @@ export default function CheckoutPage() {
     setError(null);
 
     try {
+      // Prices are updated in the cart; stop so the buyer sees what changed
+      const check = await cartService.validate(cart.userId);
+      const problems = check.items?.filter((item) => item.issues.length > 0) ?? [];
+      if (problems.length > 0) {
+        refetch();
+        setError(problems.map(describeCartIssue).join(" "));
+        return;
+      }
+
       const order = await placeOrderMutation.mutateAsync({
         shippingAddressId: state.addressId,
       });
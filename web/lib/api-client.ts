@@ -1,3 +1,5 @@
+import Cookies from "js-cookie";
+
 export const API_CONFIG = {
   baseURL: process.env.NEXT_PUBLIC_API_URL || "http://localhost:8080",
   endpoints: {
@@ -5,6 +7,7 @@ export const API_CONFIG = {
       login: "/api/auth/login",
       register: "/api/auth/register",
       logout: "/api/auth/logout",
+      refresh: "/api/auth/refresh",
       me: "/api/auth/me",
       roles: "/api/auth/roles",
       changePassword: "/api/auth/change-password",
@@ -28,6 +31,8 @@ export const API_CONFIG = {
     products: {
       list: "/api/products",
       categories: "/api/products/categories",
+      search: "/api/products/search",
+      facets: "/api/products/facets",
     },
     admin: {
       dashboard: "/api/admin/dashboard",
@@ -39,9 +44,30 @@ export const API_CONFIG = {
   },
 };
 
+// Refresh this long before the access token expires
+const REFRESH_MARGIN_MS = 30_000;
+
+// Endpoints that must not trigger a refresh themselves
+const NO_REFRESH_ENDPOINTS = [
+  API_CONFIG.endpoints.auth.login,
+  API_CONFIG.endpoints.auth.register,
+  API_CONFIG.endpoints.auth.refresh,
+];
+
+function isExpiring(token: string): boolean {
+  try {
+    const payload = token.split(".")[1].replace(/-/g, "+").replace(/_/g, "/");
+    const { exp } = JSON.parse(atob(payload));
+    return typeof exp === "number" && exp * 1000 - Date.now() < REFRESH_MARGIN_MS;
+  } catch {
+    return false;
+  }
+}
+
 // HTTP Client with error handling
 export class ApiClient {
   private baseURL: string;
+  private refreshing: Promise<void> | null = null;
 
   constructor(baseURL: string = API_CONFIG.baseURL) {
     this.baseURL = baseURL;
@@ -52,6 +78,7 @@ export class ApiClient {
     options: RequestInit = {},
   ): Promise<T> {
     const url = `${this.baseURL}${endpoint}`;
+    await this.ensureFreshToken(endpoint);
     const token = this.getToken();
 
     const headers: Record<string, string> = {
@@ -195,6 +222,7 @@ export class ApiClient {
 
   async uploadFile<T>(endpoint: string, formData: FormData): Promise<T> {
     const url = `${this.baseURL}${endpoint}`;
+    await this.ensureFreshToken(endpoint);
     const token = this.getToken();
 
     const headers: Record<string, string> = {};
@@ -223,6 +251,48 @@ export class ApiClient {
     return response.json();
   }
 
+  /**
+   * Exchange the refresh token for new tokens when the access token is about
+   * to expire, so the session continues without asking for the password.
+   * Concurrent requests share one exchange: a refresh token works only once.
+   */
+  private async ensureFreshToken(endpoint: string): Promise<void> {
+    if (typeof window === "undefined" || NO_REFRESH_ENDPOINTS.includes(endpoint)) return;
+    const token = this.getToken();
+    const refreshToken = localStorage.getItem("refreshToken");
+    if (!token || !refreshToken || !isExpiring(token)) return;
+
+    if (!this.refreshing) {
+      this.refreshing = this.refreshTokens(refreshToken).finally(() => {
+        this.refreshing = null;
+      });
+    }
+    await this.refreshing;
+  }
+
+  private async refreshTokens(refreshToken: string): Promise<void> {
+    try {
+      const response = await fetch(
+        `${this.baseURL}${API_CONFIG.endpoints.auth.refresh}`,
+        {
+          method: "POST",
+          headers: { "Content-Type": "application/json" },
+          body: JSON.stringify({ refreshToken }),
+        },
+      );
+      if (!response.ok) {
+        // Session ended or revoked: the user has to log in again
+        this.removeToken();
+        return;
+      }
+      const data = await response.json();
+      this.setToken(data.accessToken);
+      localStorage.setItem("refreshToken", data.refreshToken);
+    } catch (error) {
+      console.warn("Token refresh failed:", error);
+    }
+  }
+
   // Token management
   getToken(): string | null {
     if (typeof window === "undefined") return null;
@@ -232,12 +302,18 @@ export class ApiClient {
   setToken(token: string): void {
     if (typeof window === "undefined") return;
     localStorage.setItem("accessToken", token);
+    Cookies.set("accessToken", token, {
+      expires: 7,
+      secure: process.env.NODE_ENV === "production",
+      sameSite: "strict",
+    });
   }
 
   removeToken(): void {
     if (typeof window === "undefined") return;
     localStorage.removeItem("accessToken");
     localStorage.removeItem("refreshToken");
+    Cookies.remove("accessToken");
   }
 }
 
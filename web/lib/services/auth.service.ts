@@ -7,6 +7,7 @@ import type {
   UserResponse,
 } from "@/lib/types/auth";
 import Cookies from "js-cookie";
+import { guestCartSession } from "@/lib/services/cart.service";
 export class AuthService {
   /**
    * Login user
@@ -14,12 +15,13 @@ export class AuthService {
   async login(credentials: LoginRequest): Promise<LoginResponse> {
     const response = await apiClient.post<LoginResponse>(
       API_CONFIG.endpoints.auth.login,
-      credentials,
+      { ...credentials, guestCartId: guestCartSession.peek() ?? undefined },
     );
 
-    // Store tokens
+    // Store tokens; the guest cart was merged into the user's cart
     if (response.accessToken) {
       this.setTokens(response.accessToken, response.refreshToken);
+      guestCartSession.clear();
     }
 
     return response;
@@ -31,12 +33,13 @@ export class AuthService {
   async register(data: RegisterRequest): Promise<LoginResponse> {
     const response = await apiClient.post<LoginResponse>(
       API_CONFIG.endpoints.auth.register,
-      data,
+      { ...data, guestCartId: guestCartSession.peek() ?? undefined },
     );
 
-    // Store tokens
+    // Store tokens; the guest cart was merged into the user's cart
     if (response.accessToken) {
       this.setTokens(response.accessToken, response.refreshToken);
+      guestCartSession.clear();
     }
 
     return response;
@@ -54,8 +57,11 @@ export class AuthService {
    */
   async logout(): Promise<void> {
     try {
-      // Call backend logout endpoint to invalidate token
-      await apiClient.post(API_CONFIG.endpoints.auth.logout);
+      // Call backend logout endpoint to revoke the access token and end the
+      // refresh token's session
+      await apiClient.post(API_CONFIG.endpoints.auth.logout, {
+        refreshToken: localStorage.getItem("refreshToken"),
+      });
     } catch (error) {
       // Log error but still clear local tokens
       console.error("Logout error:", error);
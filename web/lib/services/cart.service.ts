@@ -1,4 +1,10 @@
-import { AddToCartRequest, CartResponse, UpdateCartItemRequest } from '../types/cart';
+import {
+  AddToCartRequest,
+  CartBatchRequest,
+  CartResponse,
+  CartValidationResponse,
+  UpdateCartItemRequest,
+} from '../types/cart';
 
 const BASE_URL = process.env.NEXT_PUBLIC_API_URL || "http://localhost:8080";
 const CART_URL = `${BASE_URL}/api/v1/carts`;
@@ -24,6 +30,58 @@ const handleAuthError = (status: number) => {
   return false;
 };
 
+const GUEST_CART_KEY = 'guestCartId';
+
+// Session ID of the cart kept by the server for a visitor who is not logged in
+export const guestCartSession = {
+  peek: (): string | null => localStorage.getItem(GUEST_CART_KEY),
+
+  get: (): string => {
+    let id = localStorage.getItem(GUEST_CART_KEY);
+    if (!id) {
+      id = crypto.randomUUID();
+      localStorage.setItem(GUEST_CART_KEY, id);
+    }
+    return id;
+  },
+
+  clear: () => localStorage.removeItem(GUEST_CART_KEY),
+};
+
+const GUEST_CART_URL = () => `${CART_URL}/guest/${guestCartSession.get()}`;
+
+export const guestCartService = {
+  getCart: async (): Promise<CartResponse> => {
+    const res = await fetch(GUEST_CART_URL(), { method: 'GET' });
+    if (!res.ok) throw new Error('Failed to fetch cart');
+    return res.json();
+  },
+
+  addItem: async (body: AddToCartRequest): Promise<CartResponse> => {
+    const res = await fetch(`${GUEST_CART_URL()}/items`, {
+      method: 'POST',
+      headers: { 'Content-Type': 'application/json' },
+      body: JSON.stringify(body),
+    });
+    if (!res.ok) throw new Error('Failed to add item to cart');
+    return res.json();
+  },
+
+  updateItem: async (cartItemId: string, body: UpdateCartItemRequest): Promise<void> => {
+    const res = await fetch(`${GUEST_CART_URL()}/items/${cartItemId}`, {
+      method: 'PATCH',
+      headers: { 'Content-Type': 'application/json' },
+      body: JSON.stringify(body),
+    });
+    if (!res.ok) throw new Error('Failed to update cart item');
+  },
+
+  removeItem: async (cartItemId: string): Promise<void> => {
+    const res = await fetch(`${GUEST_CART_URL()}/items/${cartItemId}`, { method: 'DELETE' });
+    if (!res.ok) throw new Error('Failed to remove item');
+  },
+};
+
 export const cartService = {
   getCart: async (userId: string): Promise<CartResponse> => {
     const res = await fetch(`${CART_URL}/${userId}`, {
@@ -65,6 +123,29 @@ export const cartService = {
     if (!res.ok) throw new Error('Failed to remove item');
   },
 
+  // Several line changes in one request, e.g. a debounced quantity editor
+  applyBatch: async (userId: string, body: CartBatchRequest): Promise<CartResponse> => {
+    const res = await fetch(`${CART_URL}/${userId}/batch`, {
+      method: 'POST',
+      headers: getAuthHeaders(),
+      body: JSON.stringify(body),
+    });
+    if (handleAuthError(res.status)) return {} as CartResponse;
+    if (!res.ok) throw new Error('Failed to update cart');
+    return res.json();
+  },
+
+  // Reprices the cart and checks stock; call before placing an order
+  validate: async (userId: string): Promise<CartValidationResponse> => {
+    const res = await fetch(`${CART_URL}/${userId}/validate`, {
+      method: 'POST',
+      headers: getAuthHeaders(),
+    });
+    if (handleAuthError(res.status)) return {} as CartValidationResponse;
+    if (!res.ok) throw new Error('Failed to check cart');
+    return res.json();
+  },
+
   clearCart: async (cartId: string): Promise<void> => {
     const res = await fetch(`${CART_URL}/${cartId}/clear`, {
       method: 'DELETE',
@@ -10,6 +10,7 @@ export interface Product {
   imageUrl: string;
   status: string;
   createdAt: string;
+  updatedAt: string;
   inStock: boolean;
 }
 
@@ -42,6 +43,26 @@ export interface ProductsResponse {
   empty: boolean;
 }
 
+export interface ProductSliceResponse {
+  content: Product[];
+  nextCursor: string | null;
+  hasNext: boolean;
+  size: number;
+}
+
+export interface ProductFacets {
+  total: number;
+  inStock: number;
+  outOfStock: number;
+  categories: { category: string; count: number }[];
+  priceBuckets: { min: number; max: number | null; count: number }[];
+}
+
+export interface ProductSearchResponse {
+  products: ProductsResponse;
+  facets: ProductFacets;
+}
+
 export interface ProductFilters {
   page?: number;
   size?: number;
@@ -58,10 +79,55 @@ export class ProductService {
    * Get all products with pagination and filtering
    */
   async getProducts(filters?: ProductFilters): Promise<ProductsResponse> {
+    const params = this.filterParams(filters);
+
+    const queryString = params.toString();
+    const endpoint = queryString
+      ? `${API_CONFIG.endpoints.products.list}?${queryString}`
+      : API_CONFIG.endpoints.products.list;
+
+    return apiClient.get<ProductsResponse>(endpoint);
+  }
+
+  /**
+   * Get one page of products and the facets of the whole result set in one request
+   */
+  async searchProducts(
+    filters?: ProductFilters,
+  ): Promise<ProductSearchResponse> {
+    const queryString = this.filterParams(filters).toString();
+    const endpoint = queryString
+      ? `${API_CONFIG.endpoints.products.search}?${queryString}`
+      : API_CONFIG.endpoints.products.search;
+
+    return apiClient.get<ProductSearchResponse>(endpoint);
+  }
+
+  /**
+   * Get category, price and stock counts for the given filters
+   */
+  async getFacets(
+    filters?: Pick<ProductFilters, "search" | "category" | "minPrice" | "maxPrice">,
+  ): Promise<ProductFacets> {
+    const queryString = this.filterParams(filters).toString();
+    const endpoint = queryString
+      ? `${API_CONFIG.endpoints.products.facets}?${queryString}`
+      : API_CONFIG.endpoints.products.facets;
+
+    return apiClient.get<ProductFacets>(endpoint);
+  }
+
+  /**
+   * Get products with cursor pagination (infinite scroll).
+   * Pass the previous response's nextCursor, or nothing for the first page.
+   */
+  async getProductsByCursor(
+    filters?: Omit<ProductFilters, "page">,
+    cursor?: string | null,
+  ): Promise<ProductSliceResponse> {
     const params = new URLSearchParams();
 
-    if (filters?.page !== undefined)
-      params.append("page", filters.page.toString());
+    params.append("cursor", cursor ?? "");
     if (filters?.size !== undefined)
       params.append("size", filters.size.toString());
     if (filters?.search) params.append("search", filters.search);
@@ -73,12 +139,9 @@ export class ProductService {
     if (filters?.sortBy) params.append("sortBy", filters.sortBy);
     if (filters?.sortDir) params.append("sortDir", filters.sortDir);
 
-    const queryString = params.toString();
-    const endpoint = queryString
-      ? `${API_CONFIG.endpoints.products.list}?${queryString}`
-      : API_CONFIG.endpoints.products.list;
-
-    return apiClient.get<ProductsResponse>(endpoint);
+    return apiClient.get<ProductSliceResponse>(
+      `${API_CONFIG.endpoints.products.list}?${params.toString()}`,
+    );
   }
 
   /**
@@ -96,6 +159,24 @@ export class ProductService {
   async getCategories(): Promise<string[]> {
     return apiClient.get<string[]>(API_CONFIG.endpoints.products.categories);
   }
+
+  private filterParams(filters?: ProductFilters): URLSearchParams {
+    const params = new URLSearchParams();
+
+    if (filters?.page !== undefined)
+      params.append("page", filters.page.toString());
+    if (filters?.size !== undefined)
+      params.append("size", filters.size.toString());
+    if (filters?.search) params.append("search", filters.search);
+    if (filters?.category) params.append("category", filters.category);
+    if (filters?.minPrice !== undefined)
+      params.append("minPrice", filters.minPrice.toString());
+    if (filters?.maxPrice !== undefined)
+      params.append("maxPrice", filters.maxPrice.toString());
+    if (filters?.sortBy) params.append("sortBy", filters.sortBy);
+    if (filters?.sortDir) params.append("sortDir", filters.sortDir);
+    return params;
+  }
 }
 
 export const productService = new ProductService();
@@ -2,6 +2,7 @@
 export interface LoginRequest {
   email: string;
   passwordHash: string;
+  guestCartId?: string;
 }
 
 export interface RegisterRequest {
@@ -11,6 +12,7 @@ export interface RegisterRequest {
   lastName: string;
   phoneNumber?: string;
   roleId: string;
+  guestCartId?: string;
 }
 
 export interface UserResponse {
@@ -9,6 +9,16 @@ export interface UpdateCartItemRequest {
   quantity: number;
 }
 
+// Applied in order, all or none
+export type CartOperation =
+  | { type: 'ADD'; productId: string; quantity: number }
+  | { type: 'UPDATE'; cartItemId: string; quantity: number }
+  | { type: 'REMOVE'; cartItemId: string };
+
+export interface CartBatchRequest {
+  operations: CartOperation[];
+}
+
 // ─── Response Types ───────────────────────────────────────────────────────────
 
 export interface CartItem {
@@ -29,3 +39,25 @@ export interface CartResponse {
   items: CartItem[];
   totalPrice: number;
 }
+
+// Result of POST /carts/{userId}/validate; changed prices are already applied to the cart
+export type CartLineIssue = 'PRICE_CHANGED' | 'INSUFFICIENT_STOCK' | 'PRODUCT_INACTIVE';
+
+export interface CartLineValidation {
+  cartItemId: string;
+  productId: string;
+  productName: string;
+  quantity: number;
+  previousPrice: number;
+  unitPrice: number;
+  availableStock: number;
+  issues: CartLineIssue[];
+}
+
+export interface CartValidationResponse {
+  cartId: string;
+  valid: boolean; // false when a line is inactive or short of stock
+  items: CartLineValidation[];
+  previousTotalPrice: number;
+  totalPrice: number;
+}